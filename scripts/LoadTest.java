@@ -0,0 +1,92 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal closed-loop load generator, no dependencies: java scripts/LoadTest.java METHOD URL CONCURRENCY SECONDS
+ * Every client sends the request again as soon as the previous response arrives.
+ * Prints one line: requests, errors, throughput and latency percentiles.
+ */
+public class LoadTest {
+
+	public static void main(String[] args) throws Exception {
+		String method = args[0];
+		URI uri = URI.create(args[1]);
+		int concurrency = Integer.parseInt(args[2]);
+		long seconds = Long.parseLong(args[3]);
+
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(Executors.newFixedThreadPool(8))
+				.build();
+		HttpRequest request = HttpRequest.newBuilder(uri)
+				.method(method, HttpRequest.BodyPublishers.noBody())
+				.timeout(Duration.ofSeconds(60))
+				.build();
+
+		// warm up the connections and the JIT for a fifth of the run
+		run(client, request, concurrency, Math.max(1, seconds / 5));
+		Result result = run(client, request, concurrency, seconds);
+
+		long[] latencies = result.latencies();
+		Arrays.sort(latencies);
+		System.out.printf("%s %s c=%d: %d requests, %d errors, %.1f req/s, p50 %.1f ms, p99 %.1f ms%n",
+				method, uri.getPath(), concurrency, latencies.length, result.errors,
+				latencies.length / (double) seconds,
+				percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6);
+		System.exit(0);
+	}
+
+	private static Result run(HttpClient client, HttpRequest request, int concurrency, long seconds) throws Exception {
+		long end = System.nanoTime() + seconds * 1_000_000_000L;
+		AtomicLong errors = new AtomicLong();
+		List<long[]> perClient = new ArrayList<>();
+		ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+		List<java.util.concurrent.Future<long[]>> futures = new ArrayList<>();
+		for (int i = 0; i < concurrency; i++) {
+			futures.add(clients.submit(() -> {
+				long[] samples = new long[1024];
+				int count = 0;
+				while (System.nanoTime() < end) {
+					long start = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() >= 400) {
+							errors.incrementAndGet();
+						}
+					} catch (Exception e) {
+						errors.incrementAndGet();
+					}
+					if (count == samples.length) {
+						samples = Arrays.copyOf(samples, count * 2);
+					}
+					samples[count++] = System.nanoTime() - start;
+				}
+				return Arrays.copyOf(samples, count);
+			}));
+		}
+		for (java.util.concurrent.Future<long[]> future : futures) {
+			perClient.add(future.get());
+		}
+		clients.shutdown();
+		return new Result(perClient, errors.get());
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))];
+	}
+
+	private record Result(List<long[]> perClient, long errors) {
+		long[] latencies() {
+			return perClient.stream().flatMapToLong(Arrays::stream).toArray();
+		}
+	}
+}
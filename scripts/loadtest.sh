@@ -0,0 +1,59 @@
+#!/bin/bash
+# Compares request throughput with platform threads and with virtual threads.
+#
+# usage: JAVA_HOME=/path/to/jdk-21 scripts/loadtest.sh [concurrency] [seconds] [tasks]
+#
+# Both runs use the same Java 21 runtime, an in-memory H2 database and a project seeded with a chain
+# of [tasks] tasks, and measure GET /api/tasks/code/{code} and POST /api/projects/schedule/{id}.
+set -e
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${1:-256}
+SECONDS_PER_RUN=${2:-20}
+TASKS=${3:-200}
+PORT=${PORT:-8097}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+BASE=http://localhost:$PORT
+
+if ! "$JAVA" -version 2>&1 | grep -qE 'version "(2[1-9]|[3-9][0-9])'; then
+	echo "virtual threads need a Java 21+ runtime, set JAVA_HOME" >&2
+	exit 1
+fi
+
+${MVN:-mvn} -q -DskipTests package
+JAR=$(ls target/project-planner-beta-*.jar | grep -v original | head -1)
+
+seed() {
+	local code
+	code=$(curl -s -XPOST "$BASE/api/projects" -H 'Content-Type: application/json' -d '{"name":"load test"}' \
+		| sed -E 's/.*"code":"([A-Z0-9]+)".*/\1/')
+	local items="" day
+	for ((i = 0; i < TASKS; i++)); do
+		day=$(date -u -d "2025-01-01 + $((i * 2)) days" +%F)
+		[ -n "$items" ] && items="$items,"
+		items="$items{\"key\":\"t$i\",\"name\":\"task $i\",\"startDate\":\"$day\",\"endDate\":\"$day\"$([ $i -gt 0 ] && echo ",\"dependencyKeys\":[\"t$((i - 1))\"]")}"
+	done
+	curl -s -o /dev/null -XPOST "$BASE/api/tasks/batch" -H 'Content-Type: application/json' \
+		-d "{\"projectCode\":\"$code\",\"tasks\":[$items]}"
+	echo "$code"
+}
+
+run_mode() {
+	local mode=$1
+	shift
+	"$JAVA" -jar "$JAR" --server.port=$PORT --spring.datasource.url=jdbc:h2:mem:loadtest "$@" >"target/loadtest-$mode.log" 2>&1 &
+	local pid=$!
+	for _ in $(seq 60); do curl -s -o /dev/null "$BASE/api/projects" && break; sleep 1; done
+
+	local code
+	code=$(seed)
+	echo "== $mode threads"
+	"$JAVA" scripts/LoadTest.java GET "$BASE/api/tasks/code/$code" "$CONCURRENCY" "$SECONDS_PER_RUN"
+	"$JAVA" scripts/LoadTest.java POST "$BASE/api/projects/schedule/1" "$CONCURRENCY" "$SECONDS_PER_RUN"
+
+	kill $pid
+	wait $pid 2>/dev/null || true
+}
+
+run_mode platform
+run_mode virtual --spring.profiles.active=virtual
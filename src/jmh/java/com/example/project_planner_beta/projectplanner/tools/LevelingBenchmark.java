@@ -0,0 +1,56 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resource leveling of a whole project where every task uses one of four resources.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class LevelingBenchmark {
+
+	@Param({"CHAIN", "FAN_OUT", "RANDOM_DAG"})
+	public SyntheticProject.Shape shape;
+
+	@Param({"100", "10000", "100000"})
+	public int size;
+
+	private final int[] capacity = {3, 5, 2, 8};
+	private DependencyGraph graph;
+	private long[] start;
+	private long[] duration;
+	private int[] resource;
+	private int[] units;
+	private long[] slack;
+
+	@Setup
+	public void setUp() {
+		SyntheticProject project = SyntheticProject.of(shape, size);
+		graph = project.graph();
+		start = project.startDays();
+		duration = project.durations();
+		resource = new int[size];
+		units = new int[size];
+		for (int i = 0; i < size; i++) {
+			resource[i] = i % capacity.length;
+			units[i] = 1 + i % capacity[resource[i]];
+		}
+		ScheduleKernel.Result plain = ScheduleKernel.schedule(graph, start, duration);
+		ScheduleAnalysis analysis = ScheduleAnalysis.of(graph, plain.start(), plain.end());
+		slack = new long[size];
+		for (int i = 0; i < size; i++) {
+			slack[i] = analysis.totalFloat(i);
+		}
+	}
+
+	@Benchmark
+	public ResourceLeveler.Result level() {
+		return ResourceLeveler.level(graph, start, duration, resource, units, capacity, slack);
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Topological sort and date propagation of a whole project, plus the incremental
+ * propagation that runs when the first task of the project changes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ScheduleKernelBenchmark {
+
+	@Param({"CHAIN", "FAN_OUT", "RANDOM_DAG"})
+	public SyntheticProject.Shape shape;
+
+	@Param({"100", "10000", "1000000"})
+	public int size;
+
+	private SyntheticProject project;
+	private DependencyGraph graph;
+	private long[] start;
+	private long[] duration;
+	private ScheduleState state;
+	private BitSet seeds;
+	private long firstDuration;
+
+	@Setup
+	public void setUp() {
+		project = SyntheticProject.of(shape, size);
+		graph = project.graph();
+		graph.topologicalOrder();
+		start = project.startDays();
+		duration = project.durations();
+		ScheduleKernel.Result result = ScheduleKernel.schedule(graph, start, duration);
+		state = ScheduleState.of(graph, result.start(), result.end(), duration.clone());
+		seeds = new BitSet(size);
+		firstDuration = duration[0];
+	}
+
+	/** builds the CSR graph and sorts it, what a cold project costs */
+	@Benchmark
+	public int[] buildAndSort() {
+		return project.graph().topologicalOrder();
+	}
+
+	/** full forward pass over a graph whose order is already known */
+	@Benchmark
+	public ScheduleKernel.Result schedule() {
+		return ScheduleKernel.schedule(graph, start, duration);
+	}
+
+	/** the first task alternates between two durations, so every call moves its whole cone */
+	@Benchmark
+	public int[] propagateFromFirstTask() {
+		firstDuration = firstDuration == duration[0] ? duration[0] + 1 : duration[0];
+		int first = graph.indexOf(1);
+		state.setTask(first, state.startOf(first), state.startOf(first) + firstDuration - 1, firstDuration);
+		seeds.clear();
+		seeds.set(first);
+		return state.propagate(seeds);
+	}
+}
@@ -0,0 +1,120 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import com.example.project_planner_beta.projectplanner.DependencyType;
+import com.example.project_planner_beta.projectplanner.Task;
+import com.example.project_planner_beta.projectplanner.TaskDependency;
+import com.example.project_planner_beta.projectplanner.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generated project used by the benchmarks. Task IDs are 1..size and every task only
+ * depends on tasks with a lower ID, so the graph never has a loop.
+ */
+public final class SyntheticProject {
+
+	public enum Shape {
+		/** task i depends on task i - 1 */
+		CHAIN,
+		/** every task depends on task 1 */
+		FAN_OUT,
+		/** every task depends on up to 3 random earlier tasks */
+		RANDOM_DAG
+	}
+
+	private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+	final long[] ids;
+	final long[] from;
+	final long[] to;
+	final int edgeCount;
+
+	private SyntheticProject(long[] ids, long[] from, long[] to, int edgeCount) {
+		this.ids = ids;
+		this.from = from;
+		this.to = to;
+		this.edgeCount = edgeCount;
+	}
+
+	static SyntheticProject of(Shape shape, int size) {
+		Random random = new Random(42);
+		long[] ids = new long[size];
+		long[] from = new long[size * 3];
+		long[] to = new long[size * 3];
+		int edgeCount = 0;
+		for (int i = 0; i < size; i++) {
+			ids[i] = i + 1;
+			if (i == 0) {
+				continue;
+			}
+			switch (shape) {
+				case CHAIN -> {
+					from[edgeCount] = i + 1;
+					to[edgeCount++] = i;
+				}
+				case FAN_OUT -> {
+					from[edgeCount] = i + 1;
+					to[edgeCount++] = 1;
+				}
+				case RANDOM_DAG -> {
+					int dependencies = 1 + random.nextInt(Math.min(i, 3));
+					long previous = -1;
+					for (int k = 0; k < dependencies; k++) {
+						// mostly recent tasks, so the graph stays deep instead of collapsing onto task 1
+						long dependency = Math.max(1, i - random.nextInt(Math.min(i, 64)));
+						if (dependency != previous) {
+							from[edgeCount] = i + 1;
+							to[edgeCount++] = dependency;
+							previous = dependency;
+						}
+					}
+				}
+			}
+		}
+		return new SyntheticProject(ids, from, to, edgeCount);
+	}
+
+	DependencyGraph graph() {
+		return DependencyGraph.build(ids, from, to, edgeCount);
+	}
+
+	long[] startDays() {
+		long[] start = new long[ids.length];
+		Arrays.fill(start, START.toEpochDay());
+		return start;
+	}
+
+	long[] durations() {
+		long[] duration = new long[ids.length];
+		for (int i = 0; i < duration.length; i++) {
+			duration[i] = 1 + i % 5;
+		}
+		return duration;
+	}
+
+	/** @return task entities with their dependency sets filled, indexed like the IDs */
+	List<Task> tasks() {
+		List<Task> tasks = new ArrayList<>(ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			Task task = new Task();
+			task.setId(ids[i]);
+			task.setName("Task " + ids[i]);
+			task.setProjectCode("BENCH1");
+			task.setStatus(TaskStatus.NOT_STARTED);
+			task.setDuration(1L + i % 5);
+			task.setStartDate(START);
+			task.setEndDate(START.plusDays(i % 5));
+			task.setDependencies(new HashSet<>());
+			tasks.add(task);
+		}
+		for (int k = 0; k < edgeCount; k++) {
+			tasks.get((int) from[k] - 1).getDependencies().add(new TaskDependency(tasks.get((int) to[k] - 1), DependencyType.FS, 0));
+		}
+		return tasks;
+	}
+}
@@ -0,0 +1,57 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import com.example.project_planner_beta.projectplanner.Task;
+import com.example.project_planner_beta.projectplanner.dto.DependencyDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a task listing to DTOs, from the entity dependency sets and from dependencies
+ * that were grouped beforehand (the path used by the controllers).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TaskMapperBenchmark {
+
+	@Param({"CHAIN", "FAN_OUT", "RANDOM_DAG"})
+	public SyntheticProject.Shape shape;
+
+	@Param({"100", "10000", "1000000"})
+	public int size;
+
+	private List<Task> tasks;
+	private DependencyGraph graph;
+	private Map<Long, List<DependencyDTO>> dependencies;
+
+	@Setup
+	public void setUp() {
+		SyntheticProject project = SyntheticProject.of(shape, size);
+		tasks = project.tasks();
+		graph = project.graph();
+		dependencies = TaskMapper.groupDependencies(graph, tasks);
+	}
+
+	@Benchmark
+	public List<TaskDTO> fromEntities() {
+		return TaskMapper.toDTOList(tasks);
+	}
+
+	@Benchmark
+	public List<TaskDTO> fromGroupedDependencies() {
+		return TaskMapper.toDTOList(tasks, dependencies);
+	}
+
+	/** grouping plus mapping, what a listing costs once the graph is cached */
+	@Benchmark
+	public List<TaskDTO> groupAndMap() {
+		return TaskMapper.toDTOList(tasks, TaskMapper.groupDependencies(graph, tasks));
+	}
+}
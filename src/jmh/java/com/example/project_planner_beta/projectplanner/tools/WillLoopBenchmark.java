@@ -0,0 +1,47 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cycle detection when a dependency is added to a task.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class WillLoopBenchmark {
+
+	@Param({"CHAIN", "FAN_OUT", "RANDOM_DAG"})
+	public SyntheticProject.Shape shape;
+
+	@Param({"100", "10000", "1000000"})
+	public int size;
+
+	private DependencyGraph graph;
+	private List<Long> lastTask;
+	private List<Long> firstTask;
+
+	@Setup
+	public void setUp() {
+		graph = SyntheticProject.of(shape, size).graph();
+		lastTask = List.of((long) size);
+		firstTask = List.of(1L);
+	}
+
+	/** making task 1 depend on the last task, the walk covers everything upstream of the last task */
+	@Benchmark
+	public boolean dependOnLastTask() {
+		return graph.willLoop(1L, lastTask);
+	}
+
+	/** making the last task depend on task 1, no loop and a walk of one task */
+	@Benchmark
+	public boolean dependOnFirstTask() {
+		return graph.willLoop(size, firstTask);
+	}
+}
@@ -1,5 +1,6 @@
 package com.example.project_planner_beta.common;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -22,4 +23,17 @@ public class GlobalExceptionHandler {
         errorBody.put("message", ex.getMessage());
         return new ResponseEntity<>(errorBody,HttpStatus.BAD_REQUEST);
     }
+
+    // changes that lost a version check against a concurrent change
+    @ExceptionHandler({ConflictException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<Map<String,Object>> handleConflict(RuntimeException ex){
+        Map<String,Object> errorBody = new HashMap<>();
+        errorBody.put("timestamp",LocalDateTime.now());
+        errorBody.put("status", HttpStatus.CONFLICT.value());
+        errorBody.put("error","Conflict");
+        errorBody.put("message", ex instanceof ConflictException
+                ? ex.getMessage()
+                : "The record was changed by someone else, please reload it and try again");
+        return new ResponseEntity<>(errorBody,HttpStatus.CONFLICT);
+    }
 }
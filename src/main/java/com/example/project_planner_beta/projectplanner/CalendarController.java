@@ -0,0 +1,65 @@
+package com.example.project_planner_beta.projectplanner;
+
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/calendars")
+public class CalendarController {
+
+    private final CalendarService calendarService;
+
+    public CalendarController(CalendarService calendarService) {
+        this.calendarService = calendarService;
+    }
+
+    /**
+     * creates a working calendar projects can use
+     *
+     * @param calendar {
+     *      name: unique name of the calendar
+     *      weekend: days of the week that are not worked, e.g. ["SATURDAY","SUNDAY"]
+     *      holidays: dates that are not worked (YYYY-MM-DD)
+     *      workingDays: dates on the weekend that are worked (YYYY-MM-DD)
+     *   }
+     * @return created calendar
+     */
+    @PostMapping
+    public WorkingCalendar createCalendar(@RequestBody WorkingCalendar calendar){
+        return calendarService.createCalendar(calendar);
+    }
+
+    /**
+     * retrieves all calendars
+     *
+     * @return list of calendars
+     */
+    @GetMapping
+    public List<WorkingCalendar> getAllCalendars(){
+        return calendarService.getAllCalendars();
+    }
+
+    /**
+     * retrieves a calendar by its ID
+     *
+     * @param id id of the calendar
+     * @return the calendar
+     */
+    @GetMapping("/{id}")
+    public WorkingCalendar getCalendar(@PathVariable Long id){
+        return calendarService.getCalendar(id);
+    }
+
+    /**
+     * replaces the name and days of a calendar, the next schedule of its projects moves the tasks
+     *
+     * @param id id of the calendar
+     * @param calendar new name, weekend, holidays and working days
+     * @return the updated calendar
+     */
+    @PutMapping("/{id}")
+    public WorkingCalendar updateCalendar(@PathVariable Long id, @RequestBody WorkingCalendar calendar){
+        return calendarService.updateCalendar(id, calendar);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.common.BadRequestException;
+import com.example.project_planner_beta.projectplanner.tools.CalendarIndex;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Working calendars and their compiled indexes. A calendar is compiled into a {@link CalendarIndex}
+ * once and kept until it changes. Projects without a calendar use the org default from
+ * planner.calendar.weekend and planner.calendar.holidays.
+ */
+@Service
+public class CalendarService {
+    private static final Logger log = Logger.getLogger(CalendarService.class.getName());
+
+    private final WorkingCalendarRepository calendarRepository;
+    private final ProjectCodeCache projectCodeCache;
+    private final CalendarIndex orgDefault;
+    private final Map<Long, CalendarIndex> indexes = new ConcurrentHashMap<>();
+
+    public CalendarService(WorkingCalendarRepository calendarRepository, ProjectCodeCache projectCodeCache,
+                           @Value("${planner.calendar.weekend:}") String[] weekend,
+                           @Value("${planner.calendar.holidays:}") String[] holidays) {
+        this.calendarRepository = calendarRepository;
+        this.projectCodeCache = projectCodeCache;
+        Set<DayOfWeek> weekendDays = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : weekend) {
+            if (!day.isBlank()) {
+                weekendDays.add(DayOfWeek.valueOf(day.trim()));
+            }
+        }
+        Set<LocalDate> holidayDates = new HashSet<>();
+        for (String holiday : holidays) {
+            if (!holiday.isBlank()) {
+                holidayDates.add(LocalDate.parse(holiday.trim()));
+            }
+        }
+        // without weekend and holidays stored durations keep their calendar day meaning
+        this.orgDefault = weekendDays.isEmpty() && holidayDates.isEmpty()
+                ? CalendarIndex.EVERY_DAY
+                : CalendarIndex.of(weekendDays, holidayDates, Set.of());
+    }
+
+    /**
+     * Creates a calendar
+     *
+     * @param calendar name, weekend days, holidays and extra working days
+     * @return the saved calendar
+     * @throws BadRequestException if the name is empty or taken, or every day of the week is a weekend day
+     */
+    @Transactional
+    public WorkingCalendar createCalendar(WorkingCalendar calendar){
+        validate(calendar);
+        if (calendarRepository.findByName(calendar.getName()) != null) {
+            log.info("Calendar " + calendar.getName() + " already exists");
+            throw new BadRequestException("Calendar " + calendar.getName() + " already exists");
+        }
+        WorkingCalendar saved = new WorkingCalendar();
+        copy(calendar, saved);
+        saved = calendarRepository.save(saved);
+        indexes.put(saved.getId(), compile(saved));
+        log.info("Calendar ID=" + saved.getId() + " created");
+        return saved;
+    }
+
+    /**
+     * Replaces the name and days of a calendar. Durations of the tasks stay the same number of
+     * working days, the next schedule moves their dates to the changed calendar.
+     *
+     * @param id id of the calendar
+     * @param calendar name, weekend days, holidays and extra working days
+     * @return the saved calendar
+     * @throws BadRequestException if the calendar does not exist, the name is empty or taken,
+     *                              or every day of the week is a weekend day
+     */
+    @Transactional
+    public WorkingCalendar updateCalendar(Long id, WorkingCalendar calendar){
+        validate(calendar);
+        WorkingCalendar existing = getCalendar(id);
+        WorkingCalendar named = calendarRepository.findByName(calendar.getName());
+        if (named != null && !named.getId().equals(id)) {
+            log.info("Calendar " + calendar.getName() + " already exists");
+            throw new BadRequestException("Calendar " + calendar.getName() + " already exists");
+        }
+        copy(calendar, existing);
+        WorkingCalendar saved = calendarRepository.save(existing);
+        indexes.put(id, compile(saved));
+        log.info("Calendar ID=" + id + " updated");
+        return saved;
+    }
+
+    /**
+     * Gets a calendar by its ID
+     *
+     * @param id id of the calendar
+     * @return the calendar
+     * @throws BadRequestException if the calendar does not exist
+     */
+    public WorkingCalendar getCalendar(Long id){
+        return calendarRepository.findById(id).orElseThrow(() -> {
+            log.info("Calendar with ID= " + id + " not found");
+            return new BadRequestException("Calendar with ID=" + id + " does not exist");
+        });
+    }
+
+    /**
+     * @return all calendars
+     */
+    public List<WorkingCalendar> getAllCalendars(){
+        return calendarRepository.findAll();
+    }
+
+    /**
+     * Gets the compiled index of a calendar, compiling it on first use
+     *
+     * @param calendarId id of the calendar, null for the org default
+     * @return the index of the calendar
+     */
+    public CalendarIndex getIndex(Long calendarId){
+        if (calendarId == null) {
+            return orgDefault;
+        }
+        CalendarIndex index = indexes.get(calendarId);
+        if (index == null) {
+            index = compile(getCalendar(calendarId));
+            CalendarIndex raced = indexes.putIfAbsent(calendarId, index);
+            index = raced != null ? raced : index;
+        }
+        return index;
+    }
+
+    /**
+     * Gets the compiled index of the calendar of a project
+     *
+     * @param projectCode 6 digit project code
+     * @return the index of the project calendar, the org default if the project has none or does not exist
+     */
+    public CalendarIndex getProjectIndex(String projectCode){
+        ProjectCodeCache.CachedProject project = projectCodeCache.get(projectCode);
+        return getIndex(project != null ? project.getCalendarId() : null);
+    }
+
+    private CalendarIndex compile(WorkingCalendar calendar){
+        return CalendarIndex.of(calendar.getWeekend(), calendar.getHolidays(), calendar.getWorkingDays());
+    }
+
+    private void copy(WorkingCalendar from, WorkingCalendar to){
+        to.setName(from.getName());
+        to.setWeekend(new HashSet<>(orEmpty(from.getWeekend())));
+        to.setHolidays(new HashSet<>(orEmpty(from.getHolidays())));
+        to.setWorkingDays(new HashSet<>(orEmpty(from.getWorkingDays())));
+    }
+
+    private static <T> Set<T> orEmpty(Set<T> values){
+        return values != null ? values : Set.of();
+    }
+
+    private void validate(WorkingCalendar calendar){
+        if (calendar.getName() == null || calendar.getName().isBlank()) {
+            throw new BadRequestException("Calendar name is required");
+        }
+        if (calendar.getWeekend() != null && calendar.getWeekend().size() == DayOfWeek.values().length) {
+            throw new BadRequestException("A calendar needs at least one working day in the week");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.project_planner_beta.projectplanner;
+
+import jakarta.persistence.*;
+
+/**
+ * Counter row used to hand out blocks of numbers, one row per sequence name
+ */
+@Entity
+public class CodeSequence {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Long nextValue;
+
+    public CodeSequence() {}
+
+    public CodeSequence(String name, Long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+
+    //Getters Setters
+    public String getName() {return name;}
+    public void setName(String name) {this.name = name;}
+
+    public Long getNextValue() {return nextValue;}
+    public void setNextValue(Long nextValue) {this.nextValue = nextValue;}
+}
@@ -0,0 +1,22 @@
+package com.example.project_planner_beta.projectplanner;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface CodeSequenceRepository extends JpaRepository<CodeSequence, String> {
+
+    /**
+     * retrieves the sequence and locks its row until the transaction ends
+     *
+     * @param name name of the sequence
+     * @return an optional if the sequence exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from CodeSequence s where s.name = :name")
+    Optional<CodeSequence> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,59 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.common.ConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Runs a transactional action again when it loses an optimistic version check.
+ * Each attempt must be a whole transaction (a call through the service proxy), so the retry
+ * reads the rows written by the concurrent change before recomputing.
+ */
+@Component
+public class ConflictRetry {
+    private static final Logger log = Logger.getLogger(ConflictRetry.class.getName());
+
+    private final int maxAttempts;
+
+    public ConflictRetry(@Value("${planner.conflict.max-attempts:5}") int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Runs the action, retrying it on version conflicts
+     *
+     * @param description what is being done, used in logs and errors
+     * @param action transactional action
+     * @return result of the first attempt that commits
+     * @throws ConflictException if every attempt conflicted
+     */
+    public <T> T run(String description, Supplier<T> action){
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.info(description + " failed after " + attempt + " conflicting attempts");
+                    throw new ConflictException(description + " conflicted with a concurrent change, please try again");
+                }
+                log.info(description + " conflicted with a concurrent change, retrying");
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt){
+        // jitter keeps two retrying writers from colliding again
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 25) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while retrying a conflicting change");
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
+import com.example.project_planner_beta.projectplanner.tools.DependencyGraph;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.logging.Logger;
+
+/**
+ * In-memory index of the dependency graph of every project, keyed by project code.
+ *
+ * A project's graph is loaded from the task_dependencies table with one query the first time
+ * it is needed and then kept in sync by the task writes. Writers take the project lock before
+ * checking and changing the graph and hold it until their transaction ends, so two writers of the
+ * same project can never both pass a cycle check against a graph missing the other's edges.
+ * A rolled back change drops the graph so it is reloaded from the database.
+ *
+ * Graphs are per node. Every dependency change raises the project version, and the index keeps the
+ * version its graph is in sync with, so a graph missing changes committed by another node is
+ * reloaded before it is used for a cycle check.
+ */
+@Component
+public class DependencyGraphIndex {
+    private static final Logger log = Logger.getLogger(DependencyGraphIndex.class.getName());
+
+    private final TaskRepository taskRepository;
+    private final PlannerMetrics metrics;
+    private final Map<String, DependencyGraph> graphs = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    public DependencyGraphIndex(TaskRepository taskRepository, PlannerMetrics metrics) {
+        this.taskRepository = taskRepository;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the dependency graph of the project, loading it if it is not indexed yet
+     *
+     * @param projectCode 6 digit project code
+     * @return the graph of the project
+     */
+    public DependencyGraph getGraph(String projectCode){
+        DependencyGraph graph = graphs.get(projectCode);
+        if (graph != null) {
+            return graph;
+        }
+
+        ReentrantLock lock = lockFor(projectCode);
+        lock.lock();
+        try {
+            graph = graphs.get(projectCode);
+            if (graph == null) {
+                graph = load(projectCode);
+                graphs.put(projectCode, graph);
+            }
+            return graph;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Locks the project graph for the current transaction.
+     * The lock is released once the transaction commits or rolls back.
+     *
+     * @param projectCode 6 digit project code
+     */
+    public void lock(String projectCode){
+        lock(projectCode, null);
+    }
+
+    /**
+     * Locks the project graph for a dependency change of the current transaction.
+     * The graph is reloaded if it was not built from the given project version,
+     * and is known to match the raised version once the transaction commits.
+     *
+     * @param projectCode 6 digit project code
+     * @param projectVersion version of the project read with an optimistic force increment lock
+     */
+    public void lockForDependencyChange(String projectCode, long projectVersion){
+        lock(projectCode, projectVersion + 1);
+        Long synced = versions.get(projectCode);
+        if (synced == null || synced != projectVersion) {
+            graphs.remove(projectCode);
+        }
+    }
+
+    private void lock(String projectCode, Long committedVersion){
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Project graph can only be locked inside a transaction");
+        }
+        ReentrantLock lock = lockFor(projectCode);
+        lock.lock();
+        TransactionSynchronization unlock = new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    evict(projectCode);
+                } else if (committedVersion != null) {
+                    versions.put(projectCode, committedVersion);
+                }
+                lock.unlock();
+            }
+        };
+        TransactionSynchronizationManager.registerSynchronization(unlock);
+    }
+
+    /**
+     * Checks if making the task depend on the dependencies would create a circular dependency
+     *
+     * @param projectCode project code of the task
+     * @param taskId the task getting the dependencies
+     * @param dependencyIds the dependencies to be added
+     * @return true if circular dependency is detected, false if not
+     */
+    public boolean willLoop(String projectCode, Long taskId, Collection<Long> dependencyIds){
+        lock(projectCode);
+        DependencyGraph graph = getGraph(projectCode);
+        DependencyGraph.LoopCheck check = graph.checkLoop(taskId, dependencyIds);
+        metrics.recordCycleCheck(graph.size(), check.visited(), check.depth());
+        return check.loops();
+    }
+
+    /**
+     * Gets the tasks that directly depend on the task, from the reverse edges of the project graph
+     *
+     * @param projectCode project code of the task
+     * @param taskId the task being depended on
+     * @return IDs of the dependent tasks, empty if the task is not in the graph
+     */
+    public List<Long> dependentIds(String projectCode, Long taskId){
+        DependencyGraph graph = getGraph(projectCode);
+        int index = graph.indexOf(taskId);
+        List<Long> ids = new ArrayList<>();
+        if (index < 0) {
+            return ids;
+        }
+        for (int k = graph.dependentStart(index); k < graph.dependentEnd(index); k++) {
+            ids.add(graph.idAt(graph.dependentAt(k)));
+        }
+        return ids;
+    }
+
+    /**
+     * Replaces the dependencies of the task in the project graph
+     *
+     * @param projectCode project code of the task
+     * @param taskId the task that was saved
+     * @param dependencies the dependency rows of the task
+     */
+    public void setDependencies(String projectCode, Long taskId, Collection<TaskEdgeDTO> dependencies){
+        update(projectCode, graph -> graph.withDependencies(taskId, dependencies));
+    }
+
+    /**
+     * Replaces the dependencies of several tasks in the project graph at once
+     *
+     * @param projectCode project code of the tasks
+     * @param dependencies the dependency rows of every saved task
+     */
+    public void setDependencies(String projectCode, Map<Long, ? extends Collection<TaskEdgeDTO>> dependencies){
+        update(projectCode, graph -> graph.withDependencies(dependencies));
+    }
+
+    /**
+     * Removes the task from the project graph
+     *
+     * @param projectCode project code of the task
+     * @param taskId the task that was deleted
+     */
+    public void removeTask(String projectCode, Long taskId){
+        update(projectCode, graph -> graph.withoutTask(taskId));
+    }
+
+    /**
+     * Drops the graph of the project, it is reloaded on next use
+     *
+     * @param projectCode 6 digit project code
+     */
+    public void evict(String projectCode){
+        graphs.remove(projectCode);
+        versions.remove(projectCode);
+    }
+
+    private void update(String projectCode, UnaryOperator<DependencyGraph> change){
+        lock(projectCode);
+        // a graph that is not loaded yet will already contain the change when it is read from the database
+        graphs.computeIfPresent(projectCode, (code, graph) -> change.apply(graph));
+    }
+
+    private ReentrantLock lockFor(String projectCode){
+        return locks.computeIfAbsent(projectCode, code -> new ReentrantLock());
+    }
+
+    private DependencyGraph load(String projectCode){
+        DependencyGraph graph = DependencyGraph.fromEdges(taskRepository.findDependencyEdgesByProjectCode(projectCode));
+        log.info("Loaded dependency graph of project " + projectCode + ": " + graph.size() + " tasks, " + graph.edgeCount() + " dependencies");
+        return graph;
+    }
+}
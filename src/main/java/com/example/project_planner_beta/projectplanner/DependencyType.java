@@ -0,0 +1,46 @@
+package com.example.project_planner_beta.projectplanner;
+
+/**
+ * How a task is tied to one of its dependencies, the first letter is the end of the dependency,
+ * the second the end of the task: FS = the task starts after the dependency finishes.
+ * The lag of the link moves the bound by working days, a negative lag is a lead.
+ */
+public enum DependencyType {
+    FS,
+    SS,
+    FF,
+    SF;
+
+    /** @return true if the bound is taken from the start of the dependency */
+    public boolean fromStart() {return this == SS || this == SF;}
+
+    /** @return true if the bound applies to the finish of the task */
+    public boolean toFinish() {return this == FF || this == SF;}
+
+    /**
+     * @return days from the dependency day to the bound at lag 0, start and finish days both count as worked
+     */
+    public int gap(){
+        switch (this) {
+            case FS:
+                return 1;
+            case SF:
+                return -1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Earliest start the link allows for the task
+     *
+     * @param dependencyStart start day of the dependency
+     * @param dependencyEnd end day of the dependency
+     * @param lag lag of the link in days
+     * @param duration duration of the task in days
+     * @return the earliest start day of the task
+     */
+    public long earliestStart(long dependencyStart, long dependencyEnd, long lag, long duration){
+        return (fromStart() ? dependencyStart : dependencyEnd) + gap() + lag - (toFinish() ? duration - 1 : 0);
+    }
+}
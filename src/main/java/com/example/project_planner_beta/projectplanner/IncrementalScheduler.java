@@ -0,0 +1,730 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.common.BadRequestException;
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskVersionsDTO;
+import com.example.project_planner_beta.projectplanner.tools.CalendarIndex;
+import com.example.project_planner_beta.projectplanner.tools.DependencyGraph;
+import com.example.project_planner_beta.projectplanner.tools.ResourceLeveler;
+import com.example.project_planner_beta.projectplanner.tools.ScheduleAnalysis;
+import com.example.project_planner_beta.projectplanner.tools.ScheduleKernel;
+import com.example.project_planner_beta.projectplanner.tools.ScheduleState;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the last computed schedule of every project and reschedules incrementally.
+ *
+ * The task writes record the IDs of the tasks they changed, see {@link #tasksChanged(String, Collection)}.
+ * A run loads only those tasks and the new tasks or tasks with changed dependencies, seeds the ones
+ * whose dates differ from the last schedule, and recomputes the downstream tasks that actually move.
+ * Only the seeds and the moved tasks are loaded, compared, written and returned. A project without a last
+ * schedule is computed in full by the {@link ScheduleKernel}.
+ *
+ * Only the loading, the propagation and the writes are incremental. The floats, the project dates and the
+ * critical path of a result are computed on every run by a pass over the date arrays of every task of the
+ * project, O(tasks + dependencies) without reading a task, and copying the last schedule clones those arrays.
+ *
+ * The last schedule keeps the version of every task. A run checks the number of tasks and the sum
+ * of their versions in one query against the last schedule plus the recorded changes, and schedules
+ * the project in full when they differ, for example after a write on another node.
+ *
+ * Dates are turned into working day ordinals of the project calendar before they reach the kernel,
+ * so durations, slips and floats count working days and the kernel never sees a weekend.
+ * A last schedule is only reused with the calendar it was computed on.
+ */
+@Component
+public class IncrementalScheduler {
+    private static final Logger log = Logger.getLogger(IncrementalScheduler.class.getName());
+
+    private final DependencyGraphIndex graphIndex;
+    private final PlannerMetrics metrics;
+    private final CalendarService calendarService;
+    private final TaskRepository taskRepository;
+    private final Map<String, LastSchedule> states = new ConcurrentHashMap<>();
+    // IDs of the tasks changed since the last run, by project code
+    private final Map<String, Set<Long>> dirty = new ConcurrentHashMap<>();
+
+    public IncrementalScheduler(DependencyGraphIndex graphIndex, PlannerMetrics metrics, CalendarService calendarService,
+                                TaskRepository taskRepository) {
+        this.graphIndex = graphIndex;
+        this.metrics = metrics;
+        this.calendarService = calendarService;
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Reschedules the tasks of a project. Must run inside a transaction, the project graph
+     * stays locked until it ends and the last schedule is dropped if it rolls back.
+     *
+     * @param projectCode 6 digit project code
+     * @return the tasks whose dates were changed, also in topological order, and the analysis of the whole project
+     */
+    public Result schedule(String projectCode){
+        // a rolled back run may have taken recorded changes of the last schedule, it is dropped before the lock is released
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    states.remove(projectCode);
+                }
+            }
+        });
+        graphIndex.lock(projectCode);
+
+        DependencyGraph graph = graphIndex.getGraph(projectCode);
+        CalendarIndex calendar = calendarService.getProjectIndex(projectCode);
+        Set<Long> dirtyIds = dirty.remove(projectCode);
+        LastSchedule last = states.get(projectCode);
+        if (last == null || last.calendar != calendar) {
+            return scheduleFull(projectCode, calendar);
+        }
+
+        Update update = update(projectCode, last, graph, calendar, dirtyIds);
+        if (update == null) {
+            return scheduleFull(projectCode, calendar);
+        }
+
+        // only the changed tasks and the tasks the propagation moved are compared and written
+        int n = graph.size();
+        ScheduleState state = update.state;
+        Map<Long, Task> loaded = update.loaded;
+        BitSet candidates = new BitSet(n);
+        for (int index : update.moved) {
+            candidates.set(index);
+        }
+        for (Long id : loaded.keySet()) {
+            candidates.set(graph.indexOf(id));
+        }
+        if (!load(graph, candidates, loaded)) {
+            return scheduleFull(projectCode, calendar);
+        }
+        publish(projectCode, new LastSchedule(state, calendar, update.versions, update.versionSum));
+        List<Task> changedTasks = moveTasks(projectCode, state, graph, candidates, loaded, calendar);
+        metrics.recordSchedule(n, update.visited, changedTasks.size());
+        return result(projectCode, state, changedTasks, calendar, update.seeds);
+    }
+
+    /**
+     * Brings the last schedule up to date with the tasks recorded as changed since, without changing it:
+     * the dates are applied to a copy and propagated. The last schedule is only changed by replacing it,
+     * so it can be read without the project lock.
+     *
+     * @param dirtyIds tasks recorded as changed since the last schedule, null for none
+     * @return the updated schedule, null if the tasks were changed by writes without a record
+     *              or no longer match the graph, the project then has to be scheduled in full
+     */
+    private Update update(String projectCode, LastSchedule last, DependencyGraph graph, CalendarIndex calendar, Set<Long> dirtyIds){
+        Map<Long, Task> loaded = new HashMap<>();
+        if (dirtyIds != null) {
+            for (Task task : taskRepository.findAllById(dirtyIds)) {
+                loaded.put(task.getId(), task);
+            }
+        }
+        TaskVersionsDTO versions = taskRepository.countVersions(projectCode);
+        if (versions.getCount() != graph.size() || !last.matches(versions, dirtyIds, loaded.values())) {
+            log.info("Tasks of project " + projectCode + " were changed outside of this node, its last schedule is not used");
+            return null;
+        }
+        ScheduleState state = last.state;
+        if (loaded.isEmpty() && state.graph() == graph) {
+            return new Update(state, last.versions, last.versionSum, loaded, 0, 0, new int[0]);
+        }
+
+        BitSet seeds = new BitSet(graph.size());
+        long[] taskVersions;
+        if (state.graph() != graph) {
+            taskVersions = rebaseVersions(state.graph(), last.versions, graph);
+            state = state.rebase(graph, seeds);
+        } else {
+            taskVersions = last.versions.clone();
+            state = state.copy();
+        }
+        // new tasks and tasks with changed dependencies are dirty as well, unless the graph was reloaded
+        if (!load(graph, seeds, loaded)) {
+            return null;
+        }
+        for (Task task : loaded.values()) {
+            int index = graph.indexOf(task.getId());
+            if (index < 0) {
+                return null;
+            }
+            taskVersions[index] = version(task);
+            long startDay = calendar.toDay(task.getStartDate());
+            if (state.setTask(index, startDay, startDay + task.getDuration() - 1, task.getDuration(), notBefore(task, calendar))) {
+                seeds.set(index);
+            }
+        }
+        int[] moved = state.propagate(seeds);
+        return new Update(state, taskVersions, versions.getVersionSum(), loaded, seeds.cardinality(), state.visited(), moved);
+    }
+
+    /** makes the schedule the last schedule of the project once the current transaction commits */
+    private void publish(String projectCode, LastSchedule last){
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            states.put(projectCode, last);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                states.put(projectCode, last);
+            }
+        });
+    }
+
+    /**
+     * Records tasks that were created, changed or deleted, the next schedule run of their project starts from them
+     * instead of comparing every task. They are recorded once the current transaction commits, right away outside
+     * of a transaction. Like the graphs, the records are per node: a run that finds the project changed by writes
+     * it has no record of falls back to a full run.
+     *
+     * @param projectCode 6 digit project code
+     * @param taskIds IDs of the tasks
+     */
+    public void tasksChanged(String projectCode, Collection<Long> taskIds){
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(taskIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markDirty(projectCode, ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markDirty(projectCode, ids);
+            }
+        });
+    }
+
+    /** @return a copy of the tasks recorded as changed, they stay recorded for the next run */
+    private Set<Long> recorded(String projectCode){
+        Set<Long> ids = new HashSet<>();
+        dirty.computeIfPresent(projectCode, (code, set) -> {
+            ids.addAll(set);
+            return set;
+        });
+        return ids;
+    }
+
+    private void markDirty(String projectCode, List<Long> ids){
+        dirty.compute(projectCode, (code, set) -> {
+            // the next run of a project without a last schedule is a full run anyway
+            if (!states.containsKey(code)) {
+                return set;
+            }
+            Set<Long> marked = set != null ? set : new HashSet<>();
+            marked.addAll(ids);
+            return marked;
+        });
+    }
+
+    /**
+     * Schedules the project from all of its tasks, used for the first run and when the last schedule cannot be trusted
+     */
+    private Result scheduleFull(String projectCode, CalendarIndex calendar){
+        List<Task> tasks = taskRepository.findByProjectCode(projectCode);
+        DependencyGraph graph = currentGraph(projectCode, tasks);
+        int n = graph.size();
+        Task[] byIndex = byIndex(graph, tasks);
+        ScheduleState state = scheduleFull(graph, byIndex, calendar);
+
+        long[] taskVersions = new long[n];
+        long versionSum = 0;
+        BitSet all = new BitSet(n);
+        Map<Long, Task> byId = new HashMap<>();
+        for (int index = 0; index < n; index++) {
+            taskVersions[index] = version(byIndex[index]);
+            versionSum += taskVersions[index];
+            byId.put(byIndex[index].getId(), byIndex[index]);
+        }
+        all.set(0, n);
+        publish(projectCode, new LastSchedule(state, calendar, taskVersions, versionSum));
+        List<Task> changedTasks = moveTasks(projectCode, state, graph, all, byId, calendar);
+        metrics.recordSchedule(n, n, changedTasks.size());
+        return result(projectCode, state, changedTasks, calendar, n);
+    }
+
+    /**
+     * Loads the tasks of the indexes that are not loaded yet
+     *
+     * @return false if one of them no longer exists
+     */
+    private boolean load(DependencyGraph graph, BitSet indexes, Map<Long, Task> loaded){
+        List<Long> ids = new ArrayList<>();
+        for (int index = indexes.nextSetBit(0); index >= 0; index = indexes.nextSetBit(index + 1)) {
+            if (!loaded.containsKey(graph.idAt(index))) {
+                ids.add(graph.idAt(index));
+            }
+        }
+        if (ids.isEmpty()) {
+            return true;
+        }
+        int found = 0;
+        for (Task task : taskRepository.findAllById(ids)) {
+            loaded.put(task.getId(), task);
+            found++;
+        }
+        return found == ids.size();
+    }
+
+    /**
+     * Sets the computed dates on the candidate tasks that moved. Compared as dates, a task stored on a day off
+     * is moved to a working day even if its ordinals did not change.
+     *
+     * @return the moved tasks, they are recorded as changed once the run commits
+     */
+    private List<Task> moveTasks(String projectCode, ScheduleState state, DependencyGraph graph, BitSet candidates,
+                                 Map<Long, Task> tasks, CalendarIndex calendar){
+        List<Task> changedTasks = new ArrayList<>();
+        List<Long> changedIds = new ArrayList<>();
+        for (int index = candidates.nextSetBit(0); index >= 0; index = candidates.nextSetBit(index + 1)) {
+            Task task = tasks.get(graph.idAt(index));
+            LocalDate start = calendar.toDate(state.startOf(index));
+            LocalDate end = calendar.toDate(state.endOf(index));
+            if (!start.equals(task.getStartDate()) || !end.equals(task.getEndDate())) {
+                task.setStartDate(start);
+                task.setEndDate(end);
+                changedTasks.add(task);
+                changedIds.add(task.getId());
+            }
+        }
+        // their versions go up when they are written
+        tasksChanged(projectCode, changedIds);
+        return changedTasks;
+    }
+
+    /** the moved tasks are returned in topological order, the analysis covers every task */
+    private Result result(String projectCode, ScheduleState state, List<Task> changedTasks, CalendarIndex calendar, int seeds){
+        DependencyGraph graph = state.graph();
+        // runs once per project in a schedule-all, the numbers are also in planner.schedule.* metrics
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Rescheduled project " + projectCode + ": " + seeds + " changed tasks, "
+                    + changedTasks.size() + " of " + graph.size() + " tasks moved");
+        }
+        int[] rank = graph.topologicalRank();
+        List<Task> sortedTasks = new ArrayList<>(changedTasks);
+        sortedTasks.sort(Comparator.comparingInt(task -> rank[graph.indexOf(task.getId())]));
+        return new Result(graph, sortedTasks, changedTasks, ids(graph, state.criticalPath()), state.analysis(), calendar);
+    }
+
+    /**
+     * Computes the schedule of the tasks as they are stored, without changing the tasks
+     * or the last schedule of the project and without locking it
+     *
+     * @param projectCode 6 digit project code
+     * @param tasks all tasks of the project
+     * @return the tasks in topological order and the analysis of the computed dates, no changed tasks
+     */
+    public Result analyze(String projectCode, List<Task> tasks){
+        DependencyGraph graph = currentGraph(projectCode, tasks);
+        CalendarIndex calendar = calendarService.getProjectIndex(projectCode);
+        Task[] byIndex = byIndex(graph, tasks);
+        ScheduleState state = scheduleFull(graph, byIndex, calendar);
+
+        return new Result(graph, sorted(state.order(), byIndex), new ArrayList<>(),
+                ids(graph, state.criticalPath()), state.analysis(), calendar);
+    }
+
+    /**
+     * Computes the schedule the project would get with the proposed changes applied to a copy of its graph
+     * and dates. Nothing is changed: not the tasks, not the cached graph and not the last schedule.
+     *
+     * @param projectCode 6 digit project code
+     * @param tasks all tasks of the project
+     * @param added dependency IDs to add as finish-to-start without lag, by task ID
+     * @param removed dependency IDs to remove, by task ID
+     * @param starts new start dates, by task ID
+     * @param durations new durations in working days, by task ID
+     * @return the tasks in topological order of the changed graph and the analysis of the computed dates
+     * @throws BadRequestException if the changed dependencies create a circular dependency
+     */
+    public Result whatIf(String projectCode, List<Task> tasks, Map<Long, Set<Long>> added, Map<Long, Set<Long>> removed,
+                         Map<Long, LocalDate> starts, Map<Long, Long> durations){
+        DependencyGraph graph = currentGraph(projectCode, tasks);
+
+        Set<Long> changedIds = new HashSet<>(added.keySet());
+        changedIds.addAll(removed.keySet());
+        Map<Long, List<TaskEdgeDTO>> dependencies = new HashMap<>();
+        for (Long taskId : changedIds) {
+            int index = graph.indexOf(taskId);
+            // kept dependencies keep their type and lag
+            Map<Long, TaskEdgeDTO> rows = new LinkedHashMap<>();
+            for (int k = graph.dependencyStart(index); k < graph.dependencyEnd(index); k++) {
+                long dependencyId = graph.idAt(graph.dependencyAt(k));
+                rows.put(dependencyId, new TaskEdgeDTO(taskId, dependencyId, graph.dependencyType(k), graph.dependencyLag(k)));
+            }
+            for (Long dependencyId : added.getOrDefault(taskId, Set.of())) {
+                rows.putIfAbsent(dependencyId, new TaskEdgeDTO(taskId, dependencyId, DependencyType.FS, 0));
+            }
+            rows.keySet().removeAll(removed.getOrDefault(taskId, Set.of()));
+            dependencies.put(taskId, new ArrayList<>(rows.values()));
+        }
+        DependencyGraph scenario = dependencies.isEmpty() ? graph : graph.withDependencies(dependencies);
+        if (scenario.hasLoop()) {
+            log.info("Scenario of project " + projectCode + " has a circular dependency");
+            throw new BadRequestException("This action will result in a circular dependency");
+        }
+
+        CalendarIndex calendar = calendarService.getProjectIndex(projectCode);
+        Task[] byIndex = byIndex(scenario, tasks);
+        int n = byIndex.length;
+        long[] start = new long[n];
+        long[] duration = new long[n];
+        long[] notBefore = new long[n];
+        for (int index = 0; index < n; index++) {
+            Task task = byIndex[index];
+            start[index] = calendar.toDay(starts.getOrDefault(task.getId(), task.getStartDate()));
+            duration[index] = durations.getOrDefault(task.getId(), task.getDuration());
+            notBefore[index] = notBefore(task, calendar);
+        }
+        ScheduleState state = scheduleFull(scenario, start, duration, notBefore);
+
+        return new Result(scenario, sorted(state.order(), byIndex), new ArrayList<>(),
+                ids(scenario, state.criticalPath()), state.analysis(), calendar);
+    }
+
+    /**
+     * Computes how a slip of the task moves the tasks downstream of it. The baseline is the last schedule
+     * of the project with the changes recorded since applied, only when there is none or it cannot be
+     * trusted are all tasks loaded to compute it. Then only the downstream cone of the task is propagated
+     * on a copy of it. Nothing is changed: not the tasks and not the last schedule of the project.
+     *
+     * @param projectCode 6 digit project code
+     * @param taskId the task that slips
+     * @param slipDays working days the end of the task moves out
+     * @return the schedule before the slip, the downstream tasks and their dates after the slip
+     */
+    public Impact impact(String projectCode, long taskId, long slipDays){
+        DependencyGraph graph = graphIndex.getGraph(projectCode);
+        CalendarIndex calendar = calendarService.getProjectIndex(projectCode);
+        LastSchedule last = states.get(projectCode);
+        Update update = last != null && last.calendar == calendar && graph.contains(taskId)
+                ? update(projectCode, last, graph, calendar, recorded(projectCode)) : null;
+        ScheduleState baseline;
+        if (update != null) {
+            baseline = update.state;
+        } else {
+            List<Task> tasks = taskRepository.findByProjectCode(projectCode);
+            graph = currentGraph(projectCode, tasks);
+            baseline = scheduleFull(graph, byIndex(graph, tasks), calendar);
+        }
+
+        int index = graph.indexOf(taskId);
+        int[] downstream = graph.downstream(index);
+        ScheduleState slipped = baseline.copy();
+        if (slipDays > 0) {
+            BitSet seeds = new BitSet(graph.size());
+            slipped.setTask(index, baseline.startOf(index), baseline.endOf(index) + slipDays,
+                    baseline.endOf(index) + slipDays - baseline.startOf(index) + 1);
+            seeds.set(index);
+            slipped.propagate(seeds);
+        }
+        metrics.recordImpact(graph.size(), downstream.length);
+        return new Impact(baseline.analysis(), slipped, downstream, calendar);
+    }
+
+    /**
+     * Levels the tasks of a project against the daily capacity of their resources.
+     * The schedule without resources is computed first, its total float orders the tasks competing
+     * for a resource (least slack first). Start constraints of an earlier leveling are left out, the project
+     * is leveled from its dependencies again. Nothing is changed: not the tasks and not the last schedule.
+     *
+     * @param projectCode 6 digit project code
+     * @param tasks all tasks of the project
+     * @param capacities capacity of every resource used by the tasks, by resource ID
+     * @return the tasks in topological order, the analysis of the leveled dates, the number of tasks
+     *              a resource pushed later and the tasks that start after their dependencies allow
+     * @throws BadRequestException if a task needs more units than its resource has
+     */
+    public Result level(String projectCode, List<Task> tasks, Map<Long, Integer> capacities){
+        DependencyGraph graph = currentGraph(projectCode, tasks);
+        CalendarIndex calendar = calendarService.getProjectIndex(projectCode);
+        Task[] byIndex = byIndex(graph, tasks);
+        int n = byIndex.length;
+        long[] start = new long[n];
+        long[] duration = new long[n];
+        int[] resource = new int[n];
+        int[] units = new int[n];
+        Map<Long, Integer> resourceIndexes = new HashMap<>();
+        int[] capacity = new int[capacities.size()];
+        for (int index = 0; index < n; index++) {
+            Task task = byIndex[index];
+            start[index] = calendar.toDay(task.getStartDate());
+            duration[index] = task.getDuration();
+            resource[index] = ResourceLeveler.NONE;
+            if (task.getResource() != null) {
+                Long resourceId = task.getResource().getId();
+                Integer resourceIndex = resourceIndexes.get(resourceId);
+                if (resourceIndex == null) {
+                    resourceIndex = resourceIndexes.size();
+                    resourceIndexes.put(resourceId, resourceIndex);
+                    capacity[resourceIndex] = capacities.get(resourceId);
+                }
+                resource[index] = resourceIndex;
+                units[index] = task.getResourceUnits() != null ? task.getResourceUnits() : 1;
+            }
+        }
+
+        ScheduleAnalysis unconstrained = scheduleFull(graph, start, duration, null).analysis();
+        long[] slack = new long[n];
+        for (int index = 0; index < n; index++) {
+            slack[index] = unconstrained.totalFloat(index);
+        }
+        ResourceLeveler.Result leveled;
+        try {
+            leveled = ResourceLeveler.level(graph, start, duration, resource, units, capacity, slack);
+        } catch (IllegalArgumentException e) {
+            log.info("Cannot level project " + projectCode + ": " + e.getMessage());
+            throw new BadRequestException(e.getMessage());
+        }
+        ScheduleState state = ScheduleState.of(graph, leveled.start(), leveled.end(), duration);
+        // a schedule run would move these tasks back to their dependency bound, applied they keep their start as a constraint
+        Set<Long> held = new HashSet<>();
+        for (int index = 0; index < n; index++) {
+            if (graph.dependencyStart(index) < graph.dependencyEnd(index)
+                    && leveled.start()[index] > graph.dependencyBound(index, leveled.start(), leveled.end(), duration[index])) {
+                held.add(graph.idAt(index));
+            }
+        }
+
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Leveled project " + projectCode + ": " + leveled.delayed() + " of " + n
+                    + " tasks delayed by " + resourceIndexes.size() + " resources");
+        }
+        return new Result(graph, sorted(state.order(), byIndex), new ArrayList<>(),
+                ids(graph, state.criticalPath()), state.analysis(), calendar, leveled.delayed(), held);
+    }
+
+    private DependencyGraph currentGraph(String projectCode, List<Task> tasks){
+        DependencyGraph graph = graphIndex.getGraph(projectCode);
+        if (!covers(graph, tasks)) {
+            log.info("Dependency graph of project " + projectCode + " is out of date, reloading");
+            graphIndex.evict(projectCode);
+            graph = graphIndex.getGraph(projectCode);
+        }
+        return graph;
+    }
+
+    private Task[] byIndex(DependencyGraph graph, List<Task> tasks){
+        Task[] byIndex = new Task[graph.size()];
+        for (Task task : tasks) {
+            byIndex[graph.indexOf(task.getId())] = task;
+        }
+        return byIndex;
+    }
+
+    private List<Task> sorted(int[] order, Task[] byIndex){
+        List<Task> sortedTasks = new ArrayList<>(byIndex.length);
+        for (int index : order) {
+            sortedTasks.add(byIndex[index]);
+        }
+        return sortedTasks;
+    }
+
+    private List<Long> ids(DependencyGraph graph, int[] indexes){
+        List<Long> ids = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            ids.add(graph.idAt(index));
+        }
+        return ids;
+    }
+
+    private ScheduleState scheduleFull(DependencyGraph graph, Task[] byIndex, CalendarIndex calendar){
+        int n = byIndex.length;
+        long[] start = new long[n];
+        long[] duration = new long[n];
+        long[] notBefore = new long[n];
+        for (int index = 0; index < n; index++) {
+            start[index] = calendar.toDay(byIndex[index].getStartDate());
+            duration[index] = byIndex[index].getDuration();
+            notBefore[index] = notBefore(byIndex[index], calendar);
+        }
+        return scheduleFull(graph, start, duration, notBefore);
+    }
+
+    /**
+     * @param notBefore start constraint of every task, null to schedule from the dependencies only
+     */
+    private ScheduleState scheduleFull(DependencyGraph graph, long[] start, long[] duration, long[] notBefore){
+        ScheduleKernel.Result result = ScheduleKernel.schedule(graph, start, duration, notBefore);
+        return notBefore != null
+                ? ScheduleState.of(graph, result.start(), result.end(), duration, notBefore)
+                : ScheduleState.of(graph, result.start(), result.end(), duration);
+    }
+
+    private static long notBefore(Task task, CalendarIndex calendar){
+        return task.getStartNoEarlierThan() != null ? calendar.toDay(task.getStartNoEarlierThan()) : ScheduleKernel.NO_CONSTRAINT;
+    }
+
+    private static long version(Task task){
+        return task.getVersion() != null ? task.getVersion() : 0;
+    }
+
+    /** moves the task versions over to a newer graph of the same project, new tasks get theirs when they are loaded */
+    private static long[] rebaseVersions(DependencyGraph graph, long[] versions, DependencyGraph newGraph){
+        long[] newVersions = new long[newGraph.size()];
+        for (int i = 0; i < newVersions.length; i++) {
+            int old = graph.indexOf(newGraph.idAt(i));
+            if (old >= 0) {
+                newVersions[i] = versions[old];
+            }
+        }
+        return newVersions;
+    }
+
+    /**
+     * Drops the last schedule of the project and its recorded changes
+     *
+     * @param projectCode 6 digit project code
+     */
+    public void evict(String projectCode){
+        states.remove(projectCode);
+        dirty.remove(projectCode);
+    }
+
+    private boolean covers(DependencyGraph graph, List<Task> tasks){
+        if (graph.size() != tasks.size()) {
+            return false;
+        }
+        for (Task task : tasks) {
+            if (!graph.contains(task.getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class LastSchedule {
+        private final ScheduleState state;
+        private final CalendarIndex calendar;
+        // version of every task when it was last loaded, indexed like the graph of the state
+        private final long[] versions;
+        private final long versionSum;
+
+        private LastSchedule(ScheduleState state, CalendarIndex calendar, long[] versions, long versionSum){
+            this.state = state;
+            this.calendar = calendar;
+            this.versions = versions;
+            this.versionSum = versionSum;
+        }
+
+        /**
+         * @param current number of tasks and sum of their versions in the database
+         * @param dirtyIds tasks recorded as changed since this schedule, null for none
+         * @param dirtyTasks the recorded tasks that still exist
+         * @return true if the recorded changes account for every change of the tasks
+         */
+        private boolean matches(TaskVersionsDTO current, Set<Long> dirtyIds, Collection<Task> dirtyTasks){
+            DependencyGraph graph = state.graph();
+            long count = graph.size();
+            long sum = versionSum;
+            if (dirtyIds != null) {
+                for (Long id : dirtyIds) {
+                    int index = graph.indexOf(id);
+                    if (index >= 0) {
+                        count--;
+                        sum -= versions[index];
+                    }
+                }
+            }
+            for (Task task : dirtyTasks) {
+                count++;
+                sum += version(task);
+            }
+            return count == current.getCount() && sum == current.getVersionSum();
+        }
+    }
+
+    /** the last schedule with the recorded changes applied */
+    private static class Update {
+        private final ScheduleState state;
+        private final long[] versions;
+        private final long versionSum;
+        // the recorded tasks and the tasks new to the graph or with changed dependencies
+        private final Map<Long, Task> loaded;
+        private final int seeds;
+        private final int visited;
+        private final int[] moved;
+
+        private Update(ScheduleState state, long[] versions, long versionSum, Map<Long, Task> loaded, int seeds, int visited, int[] moved){
+            this.state = state;
+            this.versions = versions;
+            this.versionSum = versionSum;
+            this.loaded = loaded;
+            this.seeds = seeds;
+            this.visited = visited;
+            this.moved = moved;
+        }
+    }
+
+    public static class Impact {
+        private final ScheduleAnalysis baseline;
+        private final ScheduleState slipped;
+        private final int[] downstream;
+        private final CalendarIndex calendar;
+
+        public Impact(ScheduleAnalysis baseline, ScheduleState slipped, int[] downstream, CalendarIndex calendar){
+            this.baseline = baseline;
+            this.slipped = slipped;
+            this.downstream = downstream;
+            this.calendar = calendar;
+        }
+
+        public ScheduleAnalysis getBaseline() {return baseline;}
+        public ScheduleState getSlipped() {return slipped;}
+        public int[] getDownstream() {return downstream;}
+        /** @return calendar of the project, turns the day ordinals of the schedules into dates */
+        public CalendarIndex getCalendar() {return calendar;}
+    }
+
+    public static class Result {
+        private final DependencyGraph graph;
+        // in topological order, the moved tasks of a schedule run and every task otherwise
+        private final List<Task> sortedTasks;
+        private final List<Task> changedTasks;
+        private final List<Long> criticalPath;
+        private final ScheduleAnalysis analysis;
+        private final CalendarIndex calendar;
+        private final int delayed;
+        private final Set<Long> held;
+
+        public Result(DependencyGraph graph, List<Task> sortedTasks, List<Task> changedTasks, List<Long> criticalPath,
+                      ScheduleAnalysis analysis, CalendarIndex calendar){
+            this(graph, sortedTasks, changedTasks, criticalPath, analysis, calendar, 0, Set.of());
+        }
+
+        public Result(DependencyGraph graph, List<Task> sortedTasks, List<Task> changedTasks, List<Long> criticalPath,
+                      ScheduleAnalysis analysis, CalendarIndex calendar, int delayed, Set<Long> held){
+            this.graph = graph;
+            this.sortedTasks = sortedTasks;
+            this.changedTasks = changedTasks;
+            this.criticalPath = criticalPath;
+            this.analysis = analysis;
+            this.calendar = calendar;
+            this.delayed = delayed;
+            this.held = held;
+        }
+
+        public DependencyGraph getGraph() {return graph;}
+        public List<Task> getSortedTasks() {return sortedTasks;}
+        public List<Task> getChangedTasks() {return changedTasks;}
+        public List<Long> getCriticalPath() {return criticalPath;}
+        public ScheduleAnalysis getAnalysis() {return analysis;}
+        /** @return calendar of the project, turns the day ordinals of the analysis into dates */
+        public CalendarIndex getCalendar() {return calendar;}
+        /** @return tasks pushed later by a resource, only set by leveling */
+        public int getDelayed() {return delayed;}
+        /** @return IDs of the tasks a resource holds after their dependency bound, only set by leveling */
+        public Set<Long> getHeld() {return held;}
+    }
+}
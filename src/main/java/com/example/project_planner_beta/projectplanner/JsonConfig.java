@@ -0,0 +1,47 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Configuration
+public class JsonConfig {
+
+    // filter IDs of the DTOs that support sparse field selection with ?fields=
+    public static final String TASK_FIELDS = "taskFields";
+    public static final String PROJECT_FIELDS = "projectFields";
+
+    /**
+     * serializes every field unless a response selects fields with {@link #selectFields}
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldsFilter(){
+        return builder -> builder.filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    /**
+     * wraps a response so only the selected fields of the filtered DTO are serialized, the id is always kept
+     *
+     * @param body response body
+     * @param filterId {@link #TASK_FIELDS} or {@link #PROJECT_FIELDS}
+     * @param fields selected fields, null or empty for all fields
+     * @return the wrapped body
+     */
+    public static MappingJacksonValue selectFields(Object body, String filterId, Set<String> fields){
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        SimpleFilterProvider filters = new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+        if (fields != null && !fields.isEmpty()) {
+            Set<String> selected = new HashSet<>(fields);
+            selected.add("id");
+            filters.addFilter(filterId, SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+        }
+        value.setFilters(filters);
+        return value;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.project_planner_beta.projectplanner;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters of the scheduling internals. Service latencies are timed with @Timed on the service methods,
+ * this class records the sizes behind them: graph size, tasks visited and depth reached by cycle checks,
+ * tasks recomputed by propagations,
+ * downstream cones of impact queries and the project code cache counters.
+ */
+@Component
+public class PlannerMetrics {
+
+    private final DistributionSummary graphSize;
+    private final DistributionSummary cycleCheckVisited;
+    private final DistributionSummary cycleCheckDepth;
+    private final DistributionSummary propagationVisited;
+    private final DistributionSummary scheduleMoved;
+    private final DistributionSummary impactDownstream;
+
+    public PlannerMetrics(MeterRegistry registry, ProjectCodeCache projectCodeCache) {
+        this.graphSize = DistributionSummary.builder("planner.graph.size")
+                .description("Tasks in the dependency graph of the project being checked or scheduled")
+                .baseUnit("tasks")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.cycleCheckVisited = DistributionSummary.builder("planner.cycle_check.visited")
+                .description("Tasks visited by one circular dependency check")
+                .baseUnit("tasks")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.cycleCheckDepth = DistributionSummary.builder("planner.cycle_check.depth")
+                .description("Most dependency edges followed from the task by one circular dependency check")
+                .baseUnit("edges")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.propagationVisited = DistributionSummary.builder("planner.schedule.propagation.visited")
+                .description("Tasks recomputed by one schedule run")
+                .baseUnit("tasks")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.scheduleMoved = DistributionSummary.builder("planner.schedule.moved")
+                .description("Tasks whose dates were moved by one schedule run")
+                .baseUnit("tasks")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        this.impactDownstream = DistributionSummary.builder("planner.impact.downstream")
+                .description("Tasks downstream of the task of one impact query")
+                .baseUnit("tasks")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        Gauge.builder("planner.project_cache.size", projectCodeCache, ProjectCodeCache::size)
+                .description("Projects in the project code cache")
+                .register(registry);
+        FunctionCounter.builder("planner.project_cache.hits", projectCodeCache, ProjectCodeCache::hits)
+                .register(registry);
+        FunctionCounter.builder("planner.project_cache.misses", projectCodeCache, ProjectCodeCache::misses)
+                .register(registry);
+        FunctionCounter.builder("planner.project_cache.evictions", projectCodeCache, ProjectCodeCache::evictions)
+                .register(registry);
+    }
+
+    /**
+     * Records one circular dependency check
+     *
+     * @param size tasks in the project graph
+     * @param visited tasks visited by the check
+     * @param depth dependency edges of the deepest path the check followed
+     */
+    public void recordCycleCheck(int size, int visited, int depth){
+        graphSize.record(size);
+        cycleCheckVisited.record(visited);
+        cycleCheckDepth.record(depth);
+    }
+
+    /**
+     * Records one schedule run
+     *
+     * @param size tasks in the project graph
+     * @param visited tasks recomputed
+     * @param moved tasks whose dates changed
+     */
+    public void recordSchedule(int size, int visited, int moved){
+        graphSize.record(size);
+        propagationVisited.record(visited);
+        scheduleMoved.record(moved);
+    }
+
+    /**
+     * Records one downstream impact query
+     *
+     * @param size tasks in the project graph
+     * @param downstream tasks downstream of the queried task
+     */
+    public void recordImpact(int size, int downstream){
+        graphSize.record(size);
+        impactDownstream.record(downstream);
+    }
+}
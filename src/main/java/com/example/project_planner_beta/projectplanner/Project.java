@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import java.util.List;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_project_code", columnNames = "code"))
 // @Data
 public class Project {
 
@@ -19,9 +20,17 @@ public class Project {
     @Column(nullable = false)
     private String code;
 
+    // null for the org default calendar, see CalendarService
+    @Column(name = "calendar_id")
+    private Long calendarId;
+
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Task> tasks;
 
+    // also raised by every dependency change of the project's tasks, see ProjectRepository.lockForDependencyChange
+    @Version
+    private Long version;
+
     //Getters Setters
     public Long getId() {return id;}
     public void setId(Long id) {this.id = id;}
@@ -32,6 +41,12 @@ public class Project {
     public String getCode() {return code;}
     public void setCode(String code) {this.code = code;}
 
+    public Long getCalendarId() {return calendarId;}
+    public void setCalendarId(Long calendarId) {this.calendarId = calendarId;}
+
+    public Long getVersion() {return version;}
+    public void setVersion(Long version) {this.version = version;}
+
     public List<Task> getTasks() {return tasks;}
     public void setTasks(List<Task> task) {this.tasks = tasks;}
 }
@@ -0,0 +1,24 @@
+package com.example.project_planner_beta.projectplanner;
+
+/**
+ * A change of a project published inside the transaction that makes it,
+ * the change feed sends it to subscribers once the transaction commits
+ */
+public class ProjectChangeEvent {
+    private final String projectCode;
+    private final String name;
+    private final Object data;
+
+    public ProjectChangeEvent(String projectCode, String name, Object data){
+        this.projectCode = projectCode;
+        this.name = name;
+        this.data = data;
+    }
+
+    public String getProjectCode() {return projectCode;}
+
+    /** @return SSE event name: task-created, task-updated, task-deleted or schedule */
+    public String getName() {return name;}
+
+    public Object getData() {return data;}
+}
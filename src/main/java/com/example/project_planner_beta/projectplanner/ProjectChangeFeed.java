@@ -0,0 +1,375 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.projectplanner.dto.ScheduleChangeDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Per project feed of task and schedule changes as server-sent events, so clients subscribe once
+ * instead of polling the task list and re-running schedules.
+ *
+ * Writers publish a {@link ProjectChangeEvent} inside their transaction, it is queued after the commit,
+ * so a rolled back change or a retried schedule run is never seen. Every subscriber has its own queue,
+ * drained by the change feed executor, so a slow subscriber never holds up the writer or the other
+ * subscribers. A subscriber that falls further behind than the kept history is disconnected,
+ * it reconnects and catches up from the history or gets a reset. So is a subscriber whose send takes
+ * longer than planner.feed.send-timeout: the blocked write cannot be interrupted, it ends with the write
+ * timeout of the container, so the executor gets one more sender until it returns and the other
+ * subscribers keep getting their events.
+ *
+ * Events are only built for projects with a feed. Every event gets an increasing id and the last events
+ * of a project are kept, up to planner.feed.history task entries (a schedule event counts one per moved task).
+ * A client reconnecting with Last-Event-ID gets the events it missed, or a "reset" event telling it to
+ * read the project again when they are no longer kept. A feed without subscribers is dropped with its
+ * history after the reconnect grace period.
+ */
+@Component
+public class ProjectChangeFeed {
+    private static final Logger log = Logger.getLogger(ProjectChangeFeed.class.getName());
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProjectCodeCache projectCodeCache;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService timer;
+    private final Duration eventsTimeout;
+    private final Duration sendTimeout;
+    private final Duration reconnectGrace;
+    private final int historySize;
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+
+    public ProjectChangeFeed(ApplicationEventPublisher eventPublisher, ProjectCodeCache projectCodeCache,
+                             @Qualifier("changeFeedExecutor") ThreadPoolExecutor executor,
+                             @Qualifier("changeFeedTimer") ScheduledExecutorService timer,
+                             @Value("${planner.feed.events-timeout:30m}") Duration eventsTimeout,
+                             @Value("${planner.feed.send-timeout:10s}") Duration sendTimeout,
+                             @Value("${planner.feed.reconnect-grace:1m}") Duration reconnectGrace,
+                             @Value("${planner.feed.history:10000}") int historySize) {
+        this.eventPublisher = eventPublisher;
+        this.projectCodeCache = projectCodeCache;
+        this.executor = executor;
+        this.timer = timer;
+        this.eventsTimeout = eventsTimeout;
+        this.sendTimeout = sendTimeout;
+        this.reconnectGrace = reconnectGrace;
+        this.historySize = historySize;
+    }
+
+    /**
+     * Publishes a change of the project, sent to subscribers after the current transaction commits
+     *
+     * @param projectCode 6 digit project code
+     * @param name event name
+     * @param data builds the event data, only called if the project has a feed
+     */
+    public void publish(String projectCode, String name, Supplier<Object> data){
+        if (feeds.containsKey(projectCode)) {
+            eventPublisher.publishEvent(new ProjectChangeEvent(projectCode, name, data.get()));
+        }
+    }
+
+    /**
+     * Streams the changes of a project
+     *
+     * @param projectCode 6 digit project code
+     * @param lastEventId id of the last event the client got before reconnecting, null for a new subscription
+     * @return the event stream
+     */
+    public SseEmitter subscribe(String projectCode, Long lastEventId){
+        return subscribe(projectCode, lastEventId, new SseEmitter(eventsTimeout.toMillis()));
+    }
+
+    SseEmitter subscribe(String projectCode, Long lastEventId, SseEmitter emitter){
+        Subscriber subscriber = new Subscriber(emitter);
+        Feed feed;
+        while (true) {
+            feed = feeds.computeIfAbsent(projectCode, code -> new Feed());
+            synchronized (feed) {
+                // a feed dropped or closed between the lookup and the lock is not used again
+                if (feed.closed) {
+                    continue;
+                }
+                if (lastEventId == null) {
+                    subscriber.offer(new Sent(0, null, null, 0));
+                } else if (lastEventId > feed.lastId || lastEventId < feed.firstKept() - 1) {
+                    // the events after it are gone, or the id is from before a restart
+                    subscriber.offer(new Sent(feed.lastId, "reset", projectCode, 1));
+                } else {
+                    for (Sent sent : feed.history) {
+                        if (sent.id > lastEventId) {
+                            subscriber.offer(sent);
+                        }
+                    }
+                }
+                feed.subscribers.add(subscriber);
+                break;
+            }
+        }
+        Feed subscribed = feed;
+        emitter.onCompletion(() -> leave(projectCode, subscribed, subscriber));
+        emitter.onTimeout(() -> leave(projectCode, subscribed, subscriber));
+        emitter.onError(e -> leave(projectCode, subscribed, subscriber));
+
+        // the project may have been deleted after the caller found it, close() invalidates the code first
+        if (projectCodeCache.get(projectCode) == null) {
+            close(projectCode);
+        }
+        log.info("Subscribed to changes of project " + projectCode + ", " + feed.subscribers.size() + " subscribers");
+        return emitter;
+    }
+
+    /**
+     * Queues a published change for the subscribers of its project
+     *
+     * @param event the change, delivered once its transaction committed or right away outside a transaction
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ProjectChangeEvent event){
+        Feed feed = feeds.get(event.getProjectCode());
+        if (feed == null) {
+            return;
+        }
+        // ids are given and queued in order, queueing never waits on a subscriber
+        synchronized (feed) {
+            if (feed.closed) {
+                return;
+            }
+            Sent sent = new Sent(++feed.lastId, event.getName(), event.getData(), weight(event.getData()));
+            feed.history.addLast(sent);
+            feed.historyWeight += sent.weight;
+            while (feed.historyWeight > historySize) {
+                feed.historyWeight -= feed.history.removeFirst().weight;
+            }
+            for (Subscriber subscriber : feed.subscribers) {
+                subscriber.offer(sent);
+            }
+        }
+    }
+
+    /**
+     * Ends the feed of a deleted project, its subscribers get a last "deleted" event
+     *
+     * @param projectCode 6 digit project code
+     */
+    public void close(String projectCode){
+        Feed feed = feeds.remove(projectCode);
+        if (feed == null) {
+            return;
+        }
+        synchronized (feed) {
+            feed.closed = true;
+            Sent deleted = new Sent(++feed.lastId, "deleted", projectCode, 1);
+            for (Subscriber subscriber : feed.subscribers) {
+                subscriber.offer(deleted);
+                subscriber.offer(Sent.COMPLETE);
+            }
+            feed.subscribers.clear();
+            feed.history.clear();
+        }
+    }
+
+    /** @return number of projects with a feed */
+    int feedCount() {return feeds.size();}
+
+    private void leave(String projectCode, Feed feed, Subscriber subscriber){
+        subscriber.closed = true;
+        synchronized (feed) {
+            if (!feed.subscribers.remove(subscriber) || !feed.subscribers.isEmpty() || feed.closed) {
+                return;
+            }
+            feed.idleSince = System.nanoTime();
+        }
+        timer.schedule(() -> dropIfIdle(projectCode, feed), reconnectGrace.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void dropIfIdle(String projectCode, Feed feed){
+        synchronized (feed) {
+            if (feed.closed || !feed.subscribers.isEmpty() || System.nanoTime() - feed.idleSince < reconnectGrace.toNanos()) {
+                return;
+            }
+            feed.closed = true;
+            feed.history.clear();
+            feeds.remove(projectCode, feed);
+        }
+        log.info("Dropped the idle change feed of project " + projectCode);
+    }
+
+    /** grows or shrinks the senders by one, a stalled send does not count */
+    private void resizeSenders(int delta){
+        synchronized (executor) {
+            int size = executor.getCorePoolSize() + delta;
+            // the maximum can never be below the core size
+            if (delta > 0) {
+                executor.setMaximumPoolSize(size);
+                executor.setCorePoolSize(size);
+            } else {
+                executor.setCorePoolSize(size);
+                executor.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private static int weight(Object data){
+        if (data instanceof ScheduleChangeDTO schedule && schedule.getMovedTasks() != null) {
+            return schedule.getMovedTasks().size() + 1;
+        }
+        return 1;
+    }
+
+    private static final class Feed {
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final ArrayDeque<Sent> history = new ArrayDeque<>();
+        private long historyWeight;
+        // ids start from the clock, so ids given out before a restart are lower than every new one
+        private long lastId = System.currentTimeMillis() * 1000;
+        private long idleSince;
+        private boolean closed;
+
+        private long firstKept(){
+            return history.isEmpty() ? lastId + 1 : history.peekFirst().id;
+        }
+    }
+
+    /** one subscription, its events are sent in order by at most one executor thread at a time */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayDeque<Sent> pending = new ArrayDeque<>();
+        private long pendingWeight;
+        private boolean draining;
+        private boolean sending;
+        private boolean stalled;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter){
+            this.emitter = emitter;
+        }
+
+        private void offer(Sent sent){
+            if (closed) {
+                return;
+            }
+            synchronized (this) {
+                pending.addLast(sent);
+                pendingWeight += sent.weight;
+                if (pendingWeight > historySize) {
+                    // too far behind to be caught up here, the client reconnects with its last event id
+                    pending.clear();
+                    pending.addLast(Sent.COMPLETE);
+                    closed = true;
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            executor.execute(this::drain);
+        }
+
+        private void drain(){
+            while (true) {
+                Sent sent;
+                synchronized (this) {
+                    sent = pending.pollFirst();
+                    if (sent == null) {
+                        draining = false;
+                        return;
+                    }
+                    pendingWeight -= sent.weight;
+                }
+                if (sent == Sent.COMPLETE) {
+                    emitter.complete();
+                    return;
+                }
+                boolean sentInTime = send(sent);
+                if (stalled) {
+                    // its events were dropped, it reconnects with its last event id
+                    resizeSenders(-1);
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    if (sentInTime) {
+                        emitter.complete();
+                    }
+                    return;
+                }
+                if (!sentInTime) {
+                    // the client went away, the emitter is completed by the container
+                    closed = true;
+                    synchronized (this) {
+                        pending.clear();
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private boolean send(Sent sent){
+            synchronized (this) {
+                sending = true;
+            }
+            ScheduledFuture<?> timeout = timer.schedule(this::stall, sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            try {
+                emitter.send(sent.name == null
+                        ? SseEmitter.event().comment("subscribed")
+                        : SseEmitter.event().id(String.valueOf(sent.id)).name(sent.name).data(sent.data));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                return false;
+            } finally {
+                timeout.cancel(false);
+                synchronized (this) {
+                    sending = false;
+                }
+            }
+        }
+
+        /** ends the subscriber of a send that takes too long, the emitter stays locked by the send until it returns */
+        private void stall(){
+            synchronized (this) {
+                if (!sending) {
+                    return;
+                }
+                stalled = true;
+                closed = true;
+                pending.clear();
+            }
+            resizeSenders(1);
+            log.info("A change feed send took longer than " + sendTimeout + ", its subscriber is disconnected");
+        }
+    }
+
+    private static final class Sent {
+        // ends the stream of the subscriber that gets it
+        private static final Sent COMPLETE = new Sent(0, "complete", null, 0);
+
+        private final long id;
+        private final String name;
+        private final Object data;
+        private final int weight;
+
+        private Sent(long id, String name, Object data, int weight){
+            this.id = id;
+            this.name = name;
+            this.data = data;
+            this.weight = weight;
+        }
+    }
+}
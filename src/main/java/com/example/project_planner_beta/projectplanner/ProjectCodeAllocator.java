@@ -0,0 +1,96 @@
+package com.example.project_planner_beta.projectplanner;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.logging.Logger;
+
+/**
+ * Hands out project codes without reading the project table.
+ *
+ * Numbers are reserved from the code_sequence row in blocks, so one short transaction serves a
+ * whole block on this node. Each number is mapped to a 6 character code with an affine bijection
+ * modulo 36^6, which makes consecutive numbers look random but can never give the same code twice.
+ */
+@Component
+public class ProjectCodeAllocator {
+    private static final Logger log = Logger.getLogger(ProjectCodeAllocator.class.getName());
+
+    private static final String SEQUENCE_NAME = "project_code";
+    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final int CODE_LENGTH = 6;
+    private static final long CODE_SPACE = 2_176_782_336L; // 36^6
+    // multiplier is coprime with 36^6 (not divisible by 2 or 3), so the mapping is a bijection
+    private static final long MULTIPLIER = 1_000_000_007L;
+    private static final long OFFSET = 1_234_567_891L;
+
+    private final CodeSequenceRepository codeSequenceRepository;
+    private final TransactionTemplate newTransaction;
+    private final int blockSize;
+
+    private long next;
+    private long blockEnd;
+
+    public ProjectCodeAllocator(CodeSequenceRepository codeSequenceRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${planner.project-code.block-size:100}") int blockSize) {
+        this.codeSequenceRepository = codeSequenceRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Allocates the next project code
+     *
+     * @return 6 character project code
+     */
+    public synchronized String nextCode(){
+        if (next >= blockEnd) {
+            next = reserveBlock();
+            blockEnd = next + blockSize;
+        }
+        return encode(next++);
+    }
+
+    /**
+     * Maps a sequence number to its project code
+     *
+     * @param value sequence number, below 36^6
+     * @return 6 character project code
+     */
+    static String encode(long value){
+        if (value < 0 || value >= CODE_SPACE) {
+            throw new IllegalStateException("Project codes are exhausted");
+        }
+        long scrambled = Math.floorMod(value * MULTIPLIER + OFFSET, CODE_SPACE);
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = CHARACTERS.charAt((int) (scrambled % CHARACTERS.length()));
+            scrambled /= CHARACTERS.length();
+        }
+        return new String(code);
+    }
+
+    private long reserveBlock(){
+        try {
+            return newTransaction.execute(status -> takeBlock());
+        } catch (DataIntegrityViolationException e) {
+            // another node created the sequence row at the same time, it exists now
+            return newTransaction.execute(status -> takeBlock());
+        }
+    }
+
+    private long takeBlock(){
+        CodeSequence sequence = codeSequenceRepository.findForUpdate(SEQUENCE_NAME)
+                .orElseGet(() -> codeSequenceRepository.saveAndFlush(new CodeSequence(SEQUENCE_NAME, 0L)));
+        long start = sequence.getNextValue();
+        sequence.setNextValue(start + blockSize);
+        log.info("Reserved project codes " + start + " to " + (start + blockSize - 1));
+        return start;
+    }
+}
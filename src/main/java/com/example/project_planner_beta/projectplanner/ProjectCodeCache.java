@@ -0,0 +1,157 @@
+package com.example.project_planner_beta.projectplanner;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of project code to project ID, name and calendar ID.
+ * Entries are evicted least recently used first once the cache is full, and expire after the TTL
+ * so changes made by another node are picked up. Unknown codes are not cached.
+ * Until then a project deleted on another node is still found here, a write that fails on it
+ * calls {@link #reload(String)} to find out.
+ */
+@Component
+public class ProjectCodeCache {
+
+    private final ProjectRepository projectRepository;
+    private final TransactionTemplate newTransaction;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ProjectCodeCache(ProjectRepository projectRepository, PlatformTransactionManager transactionManager,
+                            @Value("${planner.project-cache.max-size:10000}") int maxSize,
+                            @Value("${planner.project-cache.ttl:10m}") Duration ttl) {
+        this.projectRepository = projectRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.newTransaction.setReadOnly(true);
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Gets the project with the code, loading it on a miss
+     *
+     * @param code 6 digit project code
+     * @return the cached project, or null if no project has the code
+     */
+    public CachedProject get(String code){
+        if (code == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(code);
+            if (entry != null) {
+                if (now - entry.loadedAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return entry.project;
+                }
+                entries.remove(code);
+                evictions.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        long generation = invalidations.get();
+        Project project = projectRepository.findByCode(code);
+        if (project == null) {
+            return null;
+        }
+        CachedProject cached = new CachedProject(project.getId(), project.getCode(), project.getName(),
+                project.getCalendarId());
+
+        synchronized (entries) {
+            // an invalidation during the load may have made the loaded project stale
+            if (generation == invalidations.get()) {
+                entries.put(code, new Entry(cached, now));
+                Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+                while (entries.size() > maxSize && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Drops the cached project and loads it again in a new transaction,
+     * so it can be called after a statement of the current one failed
+     *
+     * @param code 6 digit project code
+     * @return the project, or null if no project has the code any more
+     */
+    public CachedProject reload(String code){
+        invalidate(code);
+        return newTransaction.execute(status -> get(code));
+    }
+
+    /**
+     * Removes the project with the code from the cache
+     *
+     * @param code 6 digit project code
+     */
+    public void invalidate(String code){
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(code);
+        }
+    }
+
+    public int size(){
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hits() {return hits.get();}
+    public long misses() {return misses.get();}
+    public long evictions() {return evictions.get();}
+
+    public static class CachedProject {
+        private final Long id;
+        private final String code;
+        private final String name;
+        private final Long calendarId;
+
+        public CachedProject(Long id, String code, String name, Long calendarId){
+            this.id = id;
+            this.code = code;
+            this.name = name;
+            this.calendarId = calendarId;
+        }
+
+        public Long getId() {return id;}
+        public String getCode() {return code;}
+        public String getName() {return name;}
+        /** @return working calendar of the project, null for the org default */
+        public Long getCalendarId() {return calendarId;}
+    }
+
+    private static class Entry {
+        private final CachedProject project;
+        private final long loadedAt;
+
+        private Entry(CachedProject project, long loadedAt){
+            this.project = project;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
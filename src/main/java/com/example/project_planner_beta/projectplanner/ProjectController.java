@@ -1,49 +1,116 @@
 package com.example.project_planner_beta.projectplanner;
 
 import com.example.project_planner_beta.common.BadRequestException;
+import com.example.project_planner_beta.projectplanner.dto.AllSchedulesDTO;
+import com.example.project_planner_beta.projectplanner.dto.CacheStatsDTO;
 import com.example.project_planner_beta.projectplanner.dto.ProjectDTO;
+import com.example.project_planner_beta.projectplanner.dto.ProjectImportDTO;
 import com.example.project_planner_beta.projectplanner.dto.ProjectScheduleDTO;
+import com.example.project_planner_beta.projectplanner.dto.ScheduleJobDTO;
+import com.example.project_planner_beta.projectplanner.dto.WhatIfRequestDTO;
+import com.example.project_planner_beta.projectplanner.dto.WhatIfScheduleDTO;
 import com.example.project_planner_beta.projectplanner.tools.ProjectMapper;
+import com.example.project_planner_beta.projectplanner.tools.ProjectTransferFormat;
+import com.example.project_planner_beta.projectplanner.tools.ScheduleJobMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 @RestController
 @RequestMapping("/api/projects")
 public class ProjectController {
 
+    private static final Set<String> FIELDS = Set.of("id", "name", "code", "calendarId", "tasks");
+
     private final ProjectService projectService;
     private final TaskService taskService;
+    private final ProjectScheduleRunner projectScheduleRunner;
+    private final ScheduleJobService scheduleJobService;
+    private final ProjectTransferService projectTransferService;
+    private final ProjectChangeFeed projectChangeFeed;
 
-    public ProjectController(ProjectService projectService, TaskService taskService) {
+    public ProjectController(ProjectService projectService, TaskService taskService, ProjectScheduleRunner projectScheduleRunner,
+                             ScheduleJobService scheduleJobService, ProjectTransferService projectTransferService,
+                             ProjectChangeFeed projectChangeFeed) {
         this.projectService = projectService;
         this.taskService = taskService;
+        this.projectScheduleRunner = projectScheduleRunner;
+        this.scheduleJobService = scheduleJobService;
+        this.projectTransferService = projectTransferService;
+        this.projectChangeFeed = projectChangeFeed;
     }
 
     /**
      * creates new project
      *
-     * @param project The project data (only name is required for the payload)
+     * @param project The project data (only name is required for the payload, calendarId is optional)
      * @return the created project
      */
     @PostMapping()
     public Project createProject( @RequestBody Project project){
-        return projectService.createProject(project.getName());
+        return projectService.createProject(project.getName(), project.getCalendarId());
+    }
+
+    /**
+     * sets the working calendar of a project, task dates move on its next schedule
+     *
+     * @param id id of project
+     * @param calendarId id of the calendar, not given for the org default
+     * @return the project without its tasks
+     */
+    @PutMapping("/{id}/calendar")
+    public ProjectDTO setProjectCalendar(@PathVariable Long id, @RequestParam(required = false) Long calendarId){
+        return ProjectMapper.toSummaryDTO(projectService.setCalendar(id, calendarId));
     }
 
     /**
-     * retrieves all project
+     * retrieves all project, or one page at a time
      *
-     * @return a list of projects
+     * @param limit size of the page, all projects if not given
+     * @param after cursor from the X-Next-Cursor header of the previous page
+     * @param fields fields of every project to return (id, name, code, calendarId, tasks), comma separated,
+     *               the tasks are not read unless selected
+     * @return a list of projects in ID order, X-Next-Cursor header if there is a next page
      */
     @GetMapping
-    public List<ProjectDTO> getAllProjects(){
+    public ResponseEntity<MappingJacksonValue> getAllProjects(@RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) Long after,
+                                                              @RequestParam(required = false) Set<String> fields){
+        if (fields != null && !FIELDS.containsAll(fields)) {
+            throw new BadRequestException("Unknown field, fields can be " + String.join(",", new TreeSet<>(FIELDS)));
+        }
+        boolean withTasks = fields == null || fields.contains("tasks");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        List<ProjectDTO> result;
 
-        List<Project> project = projectService.getAllProjects();
-        return ProjectMapper.toDTOList(project);
+        if (limit == null && after == null && withTasks) {
+            List<Project> project = projectService.getAllProjects();
+            result = ProjectMapper.toDTOList(project, projectService.getAllDependencies());
+        } else {
+            List<Project> projects = projectService.getProjectsPage(after, limit, withTasks);
+            if (limit != null && projects.size() > limit) {
+                projects = projects.subList(0, limit);
+                response.header(TaskController.NEXT_CURSOR, String.valueOf(projects.get(limit - 1).getId()));
+            }
+            result = withTasks
+                    ? ProjectMapper.toDTOList(projects, projectService.getDependenciesByCodes(
+                            projects.stream().map(Project::getCode).toList()))
+                    : projects.stream().map(ProjectMapper::toSummaryDTO).toList();
+        }
+        return response.body(JsonConfig.selectFields(result, JsonConfig.PROJECT_FIELDS, fields));
     }
 
     /**
@@ -54,31 +121,188 @@ public class ProjectController {
      */
     @GetMapping("/{id}")
     public ProjectDTO getProjectDetails(@PathVariable Long id){
+        Project project = projectService.getProjectWithTasks(id)
+                .orElseThrow(() -> new BadRequestException("No project found"));
+        return ProjectMapper.toDTO(project, projectService.getDependenciesByCode(project.getCode()));
+    }
+
+    /**
+     * streams the changes of a project as server-sent events once they are committed:
+     * task-created (all fields), task-updated (changed fields only), task-deleted (taskId),
+     * schedule (new project dates and the dates of the moved tasks of a saved schedule or leveling run),
+     * deleted when the project is deleted. A client reconnecting with Last-Event-ID gets the events it
+     * missed, or a reset event when it has to read the project again.
+     *
+     * @param id id of project
+     * @param lastEventId id of the last event received, sent by EventSource when it reconnects
+     * @return event stream of the project
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getProjectEvents(@PathVariable Long id,
+                                       @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId){
         Project project = projectService.getProjectById(id)
                 .orElseThrow(() -> new BadRequestException("No project found"));
-        return ProjectMapper.toDTO(project);
+        return projectChangeFeed.subscribe(project.getCode(), lastEventId);
     }
 
     /**
      * generates a schedule for a single project by its ID
      *
      * @param id id of project
-     * @return a map containing a list of task in order according to its start dates and end dates
-     *              and the duration of project in days
+     * @return the tasks moved by the schedule in topological order, the duration of project in days
+     *              and its critical path, {@code /{id}/schedule/analysis} lists every task
      */
     @PostMapping("/schedule/{id}")
     public ProjectScheduleDTO scheduleProject(@PathVariable Long id){
-        return taskService.generateSchedule(id);
+        return projectScheduleRunner.generateSchedule(id);
+    }
+
+    /**
+     * computes the schedule of a project without saving it, with the critical path analysis of every task
+     *
+     * @param id id of project
+     * @return tasks in order with their stored dates, early/late start and finish, total/free float and critical flag,
+     *              the duration, start, finish, critical path and critical tasks of the project
+     */
+    @GetMapping("/{id}/schedule/analysis")
+    public ProjectScheduleDTO analyzeProjectSchedule(@PathVariable Long id){
+        return taskService.analyzeSchedule(id);
+    }
+
+    /**
+     * computes the schedule a project would get with the proposed changes, nothing is saved
+     *
+     * @param id id of project
+     * @param request new start dates, durations and added/removed dependencies by task ID
+     * @return the changed schedule with the analysis of every task, the baseline duration and finish,
+     *              and the tasks whose dates or critical flag differ from the baseline
+     */
+    @PostMapping("/{id}/schedule/what-if")
+    public WhatIfScheduleDTO whatIfProjectSchedule(@PathVariable Long id, @RequestBody WhatIfRequestDTO request){
+        return taskService.whatIfSchedule(id, request);
+    }
+
+    /**
+     * levels the schedule of a project so no resource is used over its daily capacity
+     *
+     * @param id id of project
+     * @param apply true to save the leveled dates, by default they are only returned
+     * @return tasks in order with their leveled dates, the number of tasks delayed by resources
+     *              and, when applied, the number of tasks saved
+     */
+    @PostMapping("/schedule/{id}/level")
+    public ProjectScheduleDTO levelProjectSchedule(@PathVariable Long id, @RequestParam(defaultValue = "false") boolean apply){
+        return taskService.levelSchedule(id, apply);
+    }
+
+    /**
+     * queues a schedule of a single project on the background workers, a request for a project
+     * that is already waiting in the queue gets the waiting job
+     *
+     * @param id id of project
+     * @return 202 with the job, poll the Location header or subscribe to its /events
+     */
+    @PostMapping("/schedule/{id}/async")
+    public ResponseEntity<ScheduleJobDTO> scheduleProjectAsync(@PathVariable Long id){
+        return accepted(scheduleJobService.submitProject(id));
     }
 
     /**
-     * generates a schedule for all projects
-     * @return a list of map containing a  list of tasks in order according to its start dates and end dates
+     * queues a schedule of all projects on the background workers
+     *
+     * @return 202 with the job, poll the Location header or subscribe to its /events
+     */
+    @PostMapping("/schedule/all/async")
+    public ResponseEntity<ScheduleJobDTO> scheduleAllProjectsAsync(){
+        return accepted(scheduleJobService.submitAll());
+    }
+
+    private ResponseEntity<ScheduleJobDTO> accepted(ScheduleJob job){
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/schedule/jobs/" + job.getId()))
+                .body(ScheduleJobMapper.toDTO(job, false));
+    }
+
+    /**
+     * generates a schedule for all projects, projects are scheduled in parallel
+     * @return schedules: a list of map containing a  list of tasks in order according to its start dates and end dates
      *              and the duration of project in days
+     *         failures: the projects that could not be scheduled and the reason
      */
     @PostMapping("/schedule/all")
-    public List<ProjectScheduleDTO> scheduleAllProjects(){
-        return taskService.generateAllSchedule();
+    public AllSchedulesDTO scheduleAllProjects(){
+        return projectScheduleRunner.generateAllSchedule();
+    }
+
+    /**
+     * generates a schedule for all projects and streams it as newline delimited JSON while projects are computed
+     *
+     * @return one line per project: {type: project, projectId, projectName, projectDuration, criticalPath}
+     *              followed by one line per moved task in order: {type: task, projectId, ...task details}
+     *              or one line per project that could not be scheduled: {type: failure, projectId, message}
+     */
+    @PostMapping(value = "/schedule/all/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllSchedules(){
+        StreamingResponseBody body = projectScheduleRunner::streamAllSchedules;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * exports a project with its tasks and dependencies as a file, streamed while the rows are read
+     *
+     * @param id id of project
+     * @param format csv or binary
+     * @return the file, see CsvProjectFormat and BinaryProjectFormat for the records
+     */
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportProject(@PathVariable Long id, @RequestParam(defaultValue = "csv") String format){
+        ProjectTransferFormat transferFormat = transferFormat(format);
+        Project project = projectService.getProjectById(id)
+                .orElseThrow(() -> new BadRequestException("No project found"));
+        StreamingResponseBody body = out -> projectTransferService.exportProject(project, transferFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(transferFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"project-" + project.getCode() + "." + transferFormat.extension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * creates a project from an exported file, the request body is read as a stream
+     *
+     * @param format csv or binary
+     * @param name name of the new project, the name in the file if not given
+     * @param calendarId working calendar of the new project, the org default if not given
+     * @param body the file
+     * @return 201 with the ID and code of the new project and its number of tasks and dependencies
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ProjectImportDTO> importProject(@RequestParam(defaultValue = "csv") String format,
+                                                         @RequestParam(required = false) String name,
+                                                         @RequestParam(required = false) Long calendarId,
+                                                         InputStream body) throws IOException {
+        ProjectImportDTO result = projectTransferService.importProject(body, transferFormat(format), name, calendarId);
+        return ResponseEntity.created(URI.create("/api/projects/" + result.getProjectId())).body(result);
+    }
+
+    private ProjectTransferFormat transferFormat(String format){
+        ProjectTransferFormat transferFormat = ProjectTransferFormat.named(format);
+        if (transferFormat == null) {
+            throw new BadRequestException("Unknown format " + format + ", format can be csv or binary");
+        }
+        return transferFormat;
+    }
+
+    /**
+     * retrieves the statistics of the project code cache
+     *
+     * @return size, hits, misses and evictions of the cache
+     */
+    @GetMapping("/cache/stats")
+    public CacheStatsDTO getProjectCodeCacheStats(){
+        return projectService.getProjectCodeCacheStats();
     }
 
     /**
@@ -1,6 +1,15 @@
 package com.example.project_planner_beta.projectplanner;
 
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 
 public interface ProjectRepository extends JpaRepository<Project, Long> {
@@ -12,4 +21,69 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
      * @return a project with the code
      */
     Project findByCode(String code);
+
+    /**
+     * retrieves the project and raises its version when the transaction commits,
+     * so two transactions changing dependencies of the same project cannot both commit
+     *
+     * @param code unique 6 character string
+     * @return a project with the code
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select p from Project p where p.code = :code")
+    Project lockForDependencyChange(@Param("code") String code);
+
+    /**
+     * retrieves the IDs of all projects
+     *
+     * @return project IDs in ascending order
+     */
+    @Query("select p.id from Project p order by p.id")
+    List<Long> findAllIds();
+
+    /**
+     * retrieves the next page of project IDs after the given ID
+     *
+     * @param afterId last project ID of the previous page, 0 for the first page
+     * @param pageable size of the page
+     * @return project IDs in ascending order
+     */
+    @Query("select p.id from Project p where p.id > :afterId order by p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * retrieves all projects with their tasks in one query
+     *
+     * @return list of projects
+     */
+    @Query("select distinct p from Project p left join fetch p.tasks")
+    List<Project> findAllWithTasks();
+
+    /**
+     * retrieves the projects with their tasks in one query
+     *
+     * @param ids IDs of the projects
+     * @return projects in ascending ID order
+     */
+    @Query("select distinct p from Project p left join fetch p.tasks where p.id in :ids order by p.id")
+    List<Project> findAllWithTasksByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * retrieves the next page of projects after the given ID, without their tasks
+     *
+     * @param afterId last project ID of the previous page, 0 for the first page
+     * @param pageable size of the page, unpaged for all remaining projects
+     * @return projects in ascending ID order
+     */
+    @Query("select p from Project p where p.id > :afterId order by p.id")
+    List<Project> findPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * retrieves a project with its tasks in one query
+     *
+     * @param id id of the project
+     * @return an optional if project is found
+     */
+    @Query("select p from Project p left join fetch p.tasks where p.id = :id")
+    Optional<Project> findByIdWithTasks(@Param("id") Long id);
 }
@@ -0,0 +1,207 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.common.BadRequestException;
+import com.example.project_planner_beta.projectplanner.dto.AllSchedulesDTO;
+import com.example.project_planner_beta.projectplanner.dto.ProjectScheduleDTO;
+import com.example.project_planner_beta.projectplanner.dto.ScheduleFailureDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+
+/**
+ * Schedules all projects in parallel on the schedule executor.
+ * Every project is scheduled in its own transaction, so one failing project does not
+ * roll back or stop the others. A project losing a version check against a concurrent task
+ * update is scheduled again.
+ */
+@Service
+public class ProjectScheduleRunner {
+    private static final Logger log = Logger.getLogger(ProjectScheduleRunner.class.getName());
+
+    // project IDs read per query while streaming
+    private static final int ID_PAGE = 1000;
+
+    private final TaskService taskService;
+    private final ProjectRepository projectRepository;
+    private final ExecutorService scheduleExecutor;
+    private final ObjectMapper objectMapper;
+    private final ConflictRetry conflictRetry;
+
+    public ProjectScheduleRunner(TaskService taskService, ProjectRepository projectRepository,
+                                 @Qualifier("scheduleExecutor") ExecutorService scheduleExecutor,
+                                 ObjectMapper objectMapper, ConflictRetry conflictRetry) {
+        this.taskService = taskService;
+        this.projectRepository = projectRepository;
+        this.scheduleExecutor = scheduleExecutor;
+        this.objectMapper = objectMapper;
+        this.conflictRetry = conflictRetry;
+    }
+
+    /**
+     * Generates a schedule for all projects in the database
+     *
+     * @return the schedules of the projects and the projects that failed with the reason
+     */
+    @Timed(value = "planner.schedule.all", description = "Time to schedule all projects", histogram = true)
+    public AllSchedulesDTO generateAllSchedule(){
+        List<Long> projectIds = projectRepository.findAllIds();
+        if(projectIds.isEmpty()){
+            throw new BadRequestException("No projects found");
+        }
+
+        List<CompletableFuture<ProjectScheduleDTO>> futures = new ArrayList<>(projectIds.size());
+        for (Long projectId : projectIds) {
+            futures.add(CompletableFuture.supplyAsync(() -> generateSchedule(projectId), scheduleExecutor));
+        }
+
+        List<ProjectScheduleDTO> schedules = new ArrayList<>();
+        List<ScheduleFailureDTO> failures = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                schedules.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.info("Failed to schedule project ID: " + projectIds.get(i) + ". " + cause.getMessage());
+                failures.add(new ScheduleFailureDTO(projectIds.get(i), cause.getMessage()));
+            }
+        }
+
+        log.info("Scheduled " + schedules.size() + " projects, " + failures.size() + " failed");
+        return new AllSchedulesDTO(schedules, failures);
+    }
+
+    /**
+     * Generates a schedule for all projects and writes them as newline delimited JSON while they are computed.
+     * Project IDs are read page by page. No more projects are scheduled at a time than the schedule executor
+     * runs in parallel, and every schedule is written as soon as it is done and then dropped, so only
+     * the schedules being computed are held in memory.
+     * Every project is written as one "project" line followed by one "task" line per task the schedule moved, in order,
+     * or as one "failure" line if it could not be scheduled. Projects come in the order they finish.
+     *
+     * @param out response stream
+     */
+    @Timed(value = "planner.schedule.all.stream", description = "Time to stream the schedules of all projects", histogram = true)
+    public void streamAllSchedules(OutputStream out) throws IOException {
+        int scheduled = 0;
+        int failed = 0;
+        int running = 0;
+        int maxRunning = scheduleExecutor instanceof ForkJoinPool pool ? pool.getParallelism() : Runtime.getRuntime().availableProcessors();
+        CompletionService<Outcome> done = new ExecutorCompletionService<>(scheduleExecutor);
+
+        List<Long> projectIds = projectRepository.findIdsAfter(0L, PageRequest.of(0, ID_PAGE));
+        int next = 0;
+        while (running > 0 || next < projectIds.size()) {
+            if (next < projectIds.size() && running < maxRunning) {
+                Long projectId = projectIds.get(next++);
+                done.submit(() -> schedule(projectId));
+                running++;
+                if (next == projectIds.size() && projectIds.size() == ID_PAGE) {
+                    projectIds = projectRepository.findIdsAfter(projectId, PageRequest.of(0, ID_PAGE));
+                    next = 0;
+                }
+                continue;
+            }
+
+            Outcome outcome = take(done);
+            running--;
+            if (outcome.schedule != null) {
+                writeSchedule(out, outcome.schedule);
+                scheduled++;
+            } else {
+                writeLine(out, objectMapper.createObjectNode()
+                        .put("type", "failure")
+                        .put("projectId", outcome.projectId)
+                        .put("message", outcome.message));
+                failed++;
+            }
+            out.flush();
+        }
+
+        log.info("Streamed " + scheduled + " project schedules, " + failed + " failed");
+    }
+
+    /**
+     * Generates the schedule of one project in its own transaction,
+     * scheduling it again if it conflicts with a concurrent task update
+     *
+     * @param projectId id of the project
+     * @return the schedule of the project
+     */
+    public ProjectScheduleDTO generateSchedule(Long projectId){
+        return conflictRetry.run("Schedule of project ID=" + projectId, () -> taskService.generateSchedule(projectId));
+    }
+
+    private Outcome schedule(Long projectId){
+        try {
+            return new Outcome(projectId, generateSchedule(projectId), null);
+        } catch (RuntimeException e) {
+            log.info("Failed to schedule project ID: " + projectId + ". " + e.getMessage());
+            return new Outcome(projectId, null, e.getMessage());
+        }
+    }
+
+    private static Outcome take(CompletionService<Outcome> done) throws IOException {
+        try {
+            return done.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while streaming schedules", e);
+        } catch (ExecutionException e) {
+            // schedule() catches every failure of a project
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void writeSchedule(OutputStream out, ProjectScheduleDTO schedule) throws IOException {
+        ObjectNode header = objectMapper.createObjectNode()
+                .put("type", "project")
+                .put("projectId", schedule.getProjectId())
+                .put("projectName", schedule.getProjectName())
+                .put("projectDuration", schedule.getProjectDuration());
+        header.set("criticalPath", objectMapper.valueToTree(schedule.getCriticalPath()));
+        writeLine(out, header);
+
+        for (TaskDTO task : schedule.getTasks()) {
+            ObjectNode line = objectMapper.createObjectNode()
+                    .put("type", "task")
+                    .put("projectId", schedule.getProjectId());
+            line.setAll((ObjectNode) objectMapper.valueToTree(task));
+            writeLine(out, line);
+        }
+    }
+
+    private void writeLine(OutputStream out, ObjectNode line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+    }
+
+    /** the schedule of one project, or why it failed */
+    private static final class Outcome {
+        private final Long projectId;
+        private final ProjectScheduleDTO schedule;
+        private final String message;
+
+        private Outcome(Long projectId, ProjectScheduleDTO schedule, String message){
+            this.projectId = projectId;
+            this.schedule = schedule;
+            this.message = message;
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.example.project_planner_beta.projectplanner;
 
 import com.example.project_planner_beta.common.BadRequestException;
+import com.example.project_planner_beta.projectplanner.dto.CacheStatsDTO;
+import com.example.project_planner_beta.projectplanner.dto.DependencyDTO;
+import com.example.project_planner_beta.projectplanner.tools.TaskMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -10,59 +17,128 @@ import java.util.logging.Logger;
 @Service
 public class ProjectService {
     private static final Logger log = Logger.getLogger(ProjectService.class.getName());
+    private static final int MAX_CODE_ATTEMPTS = 5;
     @Autowired
     private ProjectRepository projectRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private DependencyGraphIndex graphIndex;
+    @Autowired
+    private IncrementalScheduler incrementalScheduler;
+    @Autowired
+    private ProjectCodeCache projectCodeCache;
+    @Autowired
+    private ProjectCodeAllocator projectCodeAllocator;
+    @Autowired
+    private CalendarService calendarService;
+    @Autowired
+    private ProjectChangeFeed changeFeed;
+    @Value("${planner.listing.max-limit:1000}")
+    private int maxPageSize;
 
     /**
      * Create a project
      * @param name name of the project
+     * @param calendarId working calendar of the project, null for the org default
      * @return created project
+     * @throws BadRequestException if the calendar does not exist
      */
-    public Project createProject(String name){
-        Project project = new Project();
-        project.setName(name);
-        project.setCode(generateProjectCode());
-        project.setTasks(null);
+    public Project createProject(String name, Long calendarId){
+        if (calendarId != null) {
+            calendarService.getCalendar(calendarId);
+        }
+        for (int attempt = 1; ; attempt++) {
+            Project project = new Project();
+            project.setName(name);
+            project.setCalendarId(calendarId);
+            project.setCode(generateProjectCode());
+            project.setTasks(null);
 
-        Project savedProject = projectRepository.save(project);
-        log.info("Project ID=" + savedProject.getId() + " created");
-        return savedProject;
+            try {
+                Project savedProject = projectRepository.save(project);
+                projectCodeCache.invalidate(savedProject.getCode());
+                log.info("Project ID=" + savedProject.getId() + " created");
+                return savedProject;
+            } catch (DataIntegrityViolationException e) {
+                // only codes generated before the allocator existed can collide with the unique index
+                if (attempt == MAX_CODE_ATTEMPTS) {
+                    throw e;
+                }
+                log.info("Project code " + project.getCode() + " is already used, retrying");
+            }
+        }
     }
 
     /**
-     * generate project code upon project creation
+     * generate project code upon project creation, codes come from the allocator
+     * so no query is needed to check if the code is taken
      *
      * @return 6 digit string for project code
      */
     public String generateProjectCode() {
-        String characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789" ;
-        Random random = new Random();
-        String code;
-
-
-        do{
-            StringBuilder builder = new StringBuilder();
-            for (int i = 0; i < 6; i++) {
-                builder.append(characters.charAt(random.nextInt(characters.length())));
-            }
-            code = builder.toString();
-        } while (projectRepository.findByCode(code) != null);
-
+        String code = projectCodeAllocator.nextCode();
         log.info("Generated code: " + code);
         return code;
     }
 
     /**
-     * Returns a list of all project in database
+     * Returns a list of all project in database, tasks are loaded with the same query
      *
      * @return list of all projects
      */
     public List<Project> getAllProjects() {
-        List<Project> projectList = projectRepository.findAll();
+        List<Project> projectList = projectRepository.findAllWithTasks();
         log.info("Retrieved " + projectList.size() + " projects");
         return projectList;
     }
 
+    /**
+     * Returns one page of projects in ID order
+     *
+     * @param afterId last project ID of the previous page, null for the first page
+     * @param limit size of the page, null for all projects
+     * @param withTasks true to load the tasks of the projects with the same query
+     * @return the projects of the page, plus one more project if there is a next page
+     * @throws BadRequestException if the limit is out of range
+     */
+    public List<Project> getProjectsPage(Long afterId, Integer limit, boolean withTasks) {
+        long after = afterId == null ? 0L : afterId;
+        Pageable page = pageRequest(limit);
+        List<Project> projectList = withTasks
+                ? projectRepository.findAllWithTasksByIds(projectRepository.findIdsAfter(after, page))
+                : projectRepository.findPage(after, page);
+        log.info("Retrieved " + projectList.size() + " projects after ID: " + afterId);
+        return projectList;
+    }
+
+    /**
+     * @param limit size of the page, null for no limit
+     * @return a page one row larger than the limit, so the caller can tell if there is a next page
+     */
+    private Pageable pageRequest(Integer limit){
+        if (limit == null) {
+            return Pageable.unpaged();
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("Limit must be between 1 and " + maxPageSize);
+        }
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * Gets the dependencies of every task of the projects with one query
+     *
+     * @param codes 6 digit project codes
+     * @return (id, name) of the dependencies grouped by task ID
+     */
+    public Map<Long, List<DependencyDTO>> getDependenciesByCodes(Collection<String> codes) {
+        if (codes.isEmpty()) {
+            return new HashMap<>();
+        }
+        return TaskMapper.groupDependencies(taskRepository.findDependencyNamesByProjectCodes(codes));
+    }
+
     /**
      * get project details using its ID
      *
@@ -73,6 +149,58 @@ public class ProjectService {
         return projectRepository.findById(id);
     }
 
+    /**
+     * get project details and its tasks using its ID with one query
+     *
+     * @param id id of the project
+     * @return an optional if project is found
+     */
+    public Optional<Project> getProjectWithTasks(Long id) {
+        return projectRepository.findByIdWithTasks(id);
+    }
+
+    /**
+     * Gets the dependencies of every task with one query
+     *
+     * @return (id, name) of the dependencies grouped by task ID
+     */
+    public Map<Long, List<DependencyDTO>> getAllDependencies() {
+        return TaskMapper.groupDependencies(taskRepository.findAllDependencyNames());
+    }
+
+    /**
+     * Gets the dependencies of every task under the project with one query
+     *
+     * @param code 6 digit project code
+     * @return (id, name) of the dependencies grouped by task ID
+     */
+    public Map<Long, List<DependencyDTO>> getDependenciesByCode(String code) {
+        return TaskMapper.groupDependencies(taskRepository.findDependencyNamesByProjectCode(code));
+    }
+
+    /**
+     * Changes the working calendar of a project. Durations of its tasks stay the same number of
+     * working days, the next schedule moves their dates to the new calendar.
+     *
+     * @param id project id
+     * @param calendarId the new calendar, null for the org default
+     * @return the project without its tasks
+     * @throws BadRequestException if the project or the calendar does not exist
+     */
+    public Project setCalendar(Long id, Long calendarId) {
+        Project project = projectRepository.findById(id).orElseThrow(() -> new BadRequestException("Project not found."));
+        if (calendarId != null) {
+            calendarService.getCalendar(calendarId);
+        }
+        project.setCalendarId(calendarId);
+        Project savedProject = projectRepository.save(project);
+        // the cached project carries the calendar ID, the last schedule was computed on the old calendar
+        projectCodeCache.invalidate(savedProject.getCode());
+        incrementalScheduler.evict(savedProject.getCode());
+        log.info("Project ID=" + id + " uses calendar " + (calendarId != null ? "ID=" + calendarId : "default"));
+        return savedProject;
+    }
+
     /**
      * deletes a project from database using its ID
      * @param id project id
@@ -81,6 +209,20 @@ public class ProjectService {
         log.info("Deleting Project ID: "+ id);
         Project project = projectRepository.findById(id).orElseThrow(() -> new BadRequestException("Project not found."));
         projectRepository.deleteById(project.getId());
+        projectCodeCache.invalidate(project.getCode());
+        graphIndex.evict(project.getCode());
+        incrementalScheduler.evict(project.getCode());
+        changeFeed.close(project.getCode());
+    }
+
+    /**
+     * Returns the hit/miss statistics of the project code cache
+     *
+     * @return size, hits, misses and evictions of the cache
+     */
+    public CacheStatsDTO getProjectCodeCacheStats() {
+        return new CacheStatsDTO(projectCodeCache.size(), projectCodeCache.hits(),
+                projectCodeCache.misses(), projectCodeCache.evictions());
     }
 
     /**
@@ -90,13 +232,8 @@ public class ProjectService {
      * @return list of tasks under the project
      */
     public List<Task> getTaskByCode(String code) {
-        Project project = projectRepository.findByCode(code);
-        if (project == null) {
-            return Collections.emptyList();
-        }
-
-        List<Task> tasks = project.getTasks();
+        List<Task> tasks = taskRepository.findByProjectCode(code);
         log.info("Retrieved " + tasks.size() + " tasks");
-        return tasks != null ? tasks : Collections.emptyList();
+        return tasks;
     }
 }
@@ -0,0 +1,285 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.common.BadRequestException;
+import com.example.project_planner_beta.projectplanner.dto.ProjectImportDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
+import com.example.project_planner_beta.projectplanner.dto.TransferTaskDTO;
+import com.example.project_planner_beta.projectplanner.tools.CalendarIndex;
+import com.example.project_planner_beta.projectplanner.tools.DependencyGraph;
+import com.example.project_planner_beta.projectplanner.tools.ProjectTransferFormat;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Export and import of whole projects as files, see {@link ProjectTransferFormat} for the formats.
+ *
+ * Both directions stream. The export reads the task and dependency rows with JDBC and writes them
+ * as they come, the import parses the request body record by record, writes tasks with JDBC batches
+ * every {@link #CHUNK} tasks and keeps the dependency rows in primitive arrays until the end of the file,
+ * where they are mapped to the new task IDs, checked for loops and inserted in one pass.
+ */
+@Service
+public class ProjectTransferService {
+    private static final Logger log = Logger.getLogger(ProjectTransferService.class.getName());
+    // tasks written per round of JDBC batches while a file is read
+    private static final int CHUNK = 5000;
+    // lag or lead of a dependency in working days, the same bound as the task API
+    private static final int MAX_LAG = 36500;
+
+    private final ProjectService projectService;
+    private final ResourceService resourceService;
+    private final CalendarService calendarService;
+    private final DependencyGraphIndex graphIndex;
+    private final TaskBatchReader taskBatchReader;
+    private final TaskBatchWriter taskBatchWriter;
+    private final int maxTasks;
+
+    public ProjectTransferService(ProjectService projectService, ResourceService resourceService, CalendarService calendarService,
+                                  DependencyGraphIndex graphIndex, TaskBatchReader taskBatchReader, TaskBatchWriter taskBatchWriter,
+                                  @Value("${planner.transfer.max-tasks:200000}") int maxTasks) {
+        this.projectService = projectService;
+        this.resourceService = resourceService;
+        this.calendarService = calendarService;
+        this.graphIndex = graphIndex;
+        this.taskBatchReader = taskBatchReader;
+        this.taskBatchWriter = taskBatchWriter;
+        this.maxTasks = maxTasks;
+    }
+
+    /**
+     * Writes a project with its tasks and dependency rows
+     *
+     * @param project the project to export
+     * @param format format of the file
+     * @param out stream the file is written to, it is not closed
+     */
+    @Transactional
+    @Timed(value = "planner.project.export", description = "Time to export one project", histogram = true)
+    public void exportProject(Project project, ProjectTransferFormat format, OutputStream out) throws IOException {
+        ProjectTransferFormat.Writer writer = format.writer(out);
+        int[] counts = new int[2];
+        try {
+            writer.project(project.getName());
+            taskBatchReader.forEachTask(project.getCode(), task -> {
+                try {
+                    writer.task(task);
+                    counts[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            taskBatchReader.forEachDependency(project.getCode(), dependency -> {
+                try {
+                    writer.dependency(dependency);
+                    counts[1]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            // the client went away
+            throw e.getCause();
+        }
+        log.info("Exported project ID=" + project.getId() + " with " + counts[0] + " tasks and " + counts[1] + " dependencies");
+    }
+
+    /**
+     * Creates a project from a file, nothing is saved unless the whole file is valid
+     *
+     * @param in the file
+     * @param format format of the file
+     * @param name name of the new project, null for the name in the file
+     * @param calendarId working calendar of the new project, null for the org default
+     * @return the new project with its number of tasks and dependencies
+     * @throws BadRequestException if the file is broken, a task is invalid, a resource does not exist,
+     *                              a dependency points to a task missing from the file, or dependencies loop
+     * @throws IOException if the upload cannot be read to its end, nothing is saved
+     */
+    // a read error of the upload is checked, it has to roll back the chunks written so far as well
+    @Transactional(rollbackOn = IOException.class)
+    @Timed(value = "planner.project.import", description = "Time to import one project", histogram = true)
+    public ProjectImportDTO importProject(InputStream in, ProjectTransferFormat format, String name, Long calendarId) throws IOException {
+        Import handler = new Import(name, calendarId);
+        try {
+            format.read(in, handler);
+        } catch (IllegalArgumentException e) {
+            log.info("Failed to import project: " + e.getMessage());
+            throw new BadRequestException(e.getMessage());
+        }
+        int dependencies = handler.finish();
+        Project project = handler.project;
+        log.info("Imported project ID=" + project.getId() + " with " + handler.count + " tasks and " + dependencies + " dependencies");
+        return new ProjectImportDTO(project.getId(), project.getCode(), handler.count, dependencies);
+    }
+
+    /** saves the records of one file while it is read */
+    private final class Import implements ProjectTransferFormat.Handler {
+        private final String name;
+        private final Long calendarId;
+        private Project project;
+        private CalendarIndex calendar;
+        private final Map<String, Resource> resources = new HashMap<>();
+
+        // file task ID -> index, the new ID of every index once its chunk is written
+        private final Map<Long, Integer> indexes = new HashMap<>();
+        private long[] newIds = new long[1024];
+        private final List<Task> pending = new ArrayList<>(CHUNK);
+        private int count;
+
+        private long[] from = new long[1024];
+        private long[] to = new long[1024];
+        private DependencyType[] types = new DependencyType[1024];
+        private int[] lags = new int[1024];
+        private int edgeCount;
+
+        Import(String name, Long calendarId){
+            this.name = name;
+            this.calendarId = calendarId;
+        }
+
+        @Override
+        public void project(String fileName){
+            String projectName = name != null ? name : fileName;
+            if (projectName == null || projectName.isBlank()) {
+                throw new BadRequestException("Project name is required");
+            }
+            project = projectService.createProject(projectName, calendarId);
+            calendar = calendarService.getIndex(calendarId);
+            // nobody can read the graph of the new project before the import commits
+            graphIndex.lock(project.getCode());
+            for (Resource resource : resourceService.getAllResources()) {
+                resources.put(resource.getName(), resource);
+            }
+        }
+
+        @Override
+        public void task(TransferTaskDTO item){
+            String label = "ID=" + item.getId();
+            if (item.getId() == null || item.getName() == null || item.getName().isBlank()
+                    || item.getStartDate() == null || item.getEndDate() == null) {
+                throw new BadRequestException("Task " + label + " requires id, name, startDate and endDate");
+            }
+            if (count == maxTasks) {
+                throw new BadRequestException("Cannot import more than " + maxTasks + " tasks");
+            }
+            if (indexes.putIfAbsent(item.getId(), count) != null) {
+                throw new BadRequestException("Duplicate task " + label);
+            }
+            if (item.getEndDate().isBefore(item.getStartDate())) {
+                throw new BadRequestException("Task " + label + ": end date cannot be before start date");
+            }
+            long duration = calendar.workingDays(item.getStartDate(), item.getEndDate());
+            if (duration < 1) {
+                throw new BadRequestException("Task " + label + " needs at least one working day between start date and end date");
+            }
+
+            Task task = new Task();
+            task.setName(item.getName());
+            task.setProjectCode(project.getCode());
+            task.setStartDate(item.getStartDate());
+            task.setEndDate(item.getEndDate());
+            task.setDuration(duration);
+            task.setProject(project);
+            task.setStatus(item.getStatus() != null ? item.getStatus() : TaskStatus.NOT_STARTED);
+            if (item.getResourceName() != null) {
+                Resource resource = resources.get(item.getResourceName());
+                if (resource == null) {
+                    throw new BadRequestException("Resource " + item.getResourceName() + " of task " + label + " does not exist");
+                }
+                task.setResource(resource);
+            }
+            resourceService.validateUnits(task.getResource(), item.getResourceUnits());
+            task.setResourceUnits(item.getResourceUnits());
+            pending.add(task);
+            count++;
+            if (pending.size() == CHUNK) {
+                flush();
+            }
+        }
+
+        @Override
+        public void dependency(TaskEdgeDTO dependency){
+            if (dependency.getLag() < -MAX_LAG || dependency.getLag() > MAX_LAG) {
+                throw new BadRequestException("Lag of dependency " + dependency.getTaskId() + " -> " + dependency.getDependencyId()
+                        + " must be between -" + MAX_LAG + " and " + MAX_LAG + " days");
+            }
+            if (edgeCount == from.length) {
+                from = Arrays.copyOf(from, edgeCount * 2);
+                to = Arrays.copyOf(to, edgeCount * 2);
+                types = Arrays.copyOf(types, edgeCount * 2);
+                lags = Arrays.copyOf(lags, edgeCount * 2);
+            }
+            from[edgeCount] = dependency.getTaskId();
+            to[edgeCount] = dependency.getDependencyId();
+            types[edgeCount] = dependency.getType();
+            lags[edgeCount] = dependency.getLag();
+            edgeCount++;
+        }
+
+        /** writes the pending tasks and keeps their new IDs */
+        private void flush(){
+            taskBatchWriter.insertTasks(pending);
+            if (newIds.length < count) {
+                newIds = Arrays.copyOf(newIds, Math.max(count, newIds.length * 2));
+            }
+            int first = count - pending.size();
+            for (int i = 0; i < pending.size(); i++) {
+                newIds[first + i] = pending.get(i).getId();
+            }
+            pending.clear();
+        }
+
+        /**
+         * Writes the last tasks and the dependency rows
+         *
+         * @return number of dependency rows written
+         */
+        int finish(){
+            flush();
+            // one pass maps every row to the new IDs, the graph checks loops and drops repeated rows
+            for (int i = 0; i < edgeCount; i++) {
+                from[i] = newId(from[i], "Task");
+                to[i] = newId(to[i], "Dependency");
+                if (from[i] == to[i]) {
+                    throw new BadRequestException("Task cannot depend on itself");
+                }
+            }
+            DependencyGraph graph = DependencyGraph.build(Arrays.copyOf(newIds, count), from, to, types, lags, edgeCount);
+            if (graph.hasLoop()) {
+                log.info("Imported dependencies form a loop");
+                throw new BadRequestException("This action will result in a circular dependency");
+            }
+            List<TaskEdgeDTO> rows = new ArrayList<>(graph.edgeCount());
+            for (int i = 0; i < graph.size(); i++) {
+                for (int k = graph.dependencyStart(i); k < graph.dependencyEnd(i); k++) {
+                    rows.add(new TaskEdgeDTO(graph.idAt(i), graph.idAt(graph.dependencyAt(k)),
+                            graph.dependencyType(k), graph.dependencyLag(k)));
+                }
+            }
+            taskBatchWriter.insertDependencies(rows);
+            return rows.size();
+        }
+
+        private long newId(long fileId, String role){
+            Integer index = indexes.get(fileId);
+            if (index == null) {
+                throw new BadRequestException(role + " ID=" + fileId + " of a dependency is not in the file");
+            }
+            return newIds[index];
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.project_planner_beta.projectplanner;
+
+import jakarta.persistence.*;
+
+/**
+ * A person or pool that tasks are assigned to, it can give capacity units of work per day
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_resource_name", columnNames = "name"))
+public class Resource {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private Integer capacity;
+
+    public Resource() {}
+
+    //Getters Setters
+    public Long getId() {return id;}
+    public void setId(Long id) {this.id = id;}
+
+    public String getName() {return name;}
+    public void setName(String name) {this.name = name;}
+
+    public Integer getCapacity() {return capacity;}
+    public void setCapacity(Integer capacity) {this.capacity = capacity;}
+}
@@ -0,0 +1,63 @@
+package com.example.project_planner_beta.projectplanner;
+
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/resources")
+public class ResourceController {
+
+    private final ResourceService resourceService;
+
+    public ResourceController(ResourceService resourceService) {
+        this.resourceService = resourceService;
+    }
+
+    /**
+     * creates a resource tasks can be assigned to
+     *
+     * @param resource {
+     *      name: unique name of the person or pool
+     *      capacity: units of work it can give per day
+     *   }
+     * @return created resource
+     */
+    @PostMapping
+    public Resource createResource(@RequestBody Resource resource){
+        return resourceService.createResource(resource.getName(), resource.getCapacity());
+    }
+
+    /**
+     * retrieves all resources
+     *
+     * @return list of resources
+     */
+    @GetMapping
+    public List<Resource> getAllResources(){
+        return resourceService.getAllResources();
+    }
+
+    /**
+     * retrieves a resource by its ID
+     *
+     * @param id id of the resource
+     * @return the resource
+     */
+    @GetMapping("/{id}")
+    public Resource getResource(@PathVariable Long id){
+        return resourceService.getResource(id);
+    }
+
+    /**
+     * changes the name and capacity of a resource
+     *
+     * @param id id of the resource
+     * @param resource new name and capacity
+     * @return the updated resource
+     */
+    @PutMapping("/{id}")
+    public Resource updateResource(@PathVariable Long id, @RequestBody Resource resource){
+        return resourceService.updateResource(id, resource.getName(), resource.getCapacity());
+    }
+}
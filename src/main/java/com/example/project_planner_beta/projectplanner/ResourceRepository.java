@@ -0,0 +1,14 @@
+package com.example.project_planner_beta.projectplanner;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ResourceRepository extends JpaRepository<Resource, Long> {
+
+    /**
+     * retrieves a resource by its unique name
+     *
+     * @param name name of the resource
+     * @return the resource, null if there is none
+     */
+    Resource findByName(String name);
+}
@@ -0,0 +1,119 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.common.BadRequestException;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+@Service
+public class ResourceService {
+    private static final Logger log = Logger.getLogger(ResourceService.class.getName());
+    @Autowired private ResourceRepository resourceRepository;
+    @Autowired private TaskRepository taskRepository;
+
+    /**
+     * Creates a resource
+     *
+     * @param name unique name of the resource
+     * @param capacity units the resource can give per day
+     * @return the saved resource
+     * @throws BadRequestException if the name is empty or taken, or the capacity is less than 1
+     */
+    @Transactional
+    public Resource createResource(String name, Integer capacity){
+        validate(name, capacity);
+        if (resourceRepository.findByName(name) != null) {
+            log.info("Resource " + name + " already exists");
+            throw new BadRequestException("Resource " + name + " already exists");
+        }
+        Resource resource = new Resource();
+        resource.setName(name);
+        resource.setCapacity(capacity);
+        Resource saved = resourceRepository.save(resource);
+        log.info("Resource ID=" + saved.getId() + " created");
+        return saved;
+    }
+
+    /**
+     * Changes the name and capacity of a resource
+     *
+     * @param id id of the resource
+     * @param name unique name of the resource
+     * @param capacity units the resource can give per day
+     * @return the saved resource
+     * @throws BadRequestException if the resource does not exist, the name is empty or taken,
+     *                              or the capacity is less than 1 or than the units a task uses
+     */
+    @Transactional
+    public Resource updateResource(Long id, String name, Integer capacity){
+        validate(name, capacity);
+        Resource resource = getResource(id);
+        Resource named = resourceRepository.findByName(name);
+        if (named != null && !named.getId().equals(id)) {
+            log.info("Resource " + name + " already exists");
+            throw new BadRequestException("Resource " + name + " already exists");
+        }
+        Integer maxUnits = taskRepository.findMaxResourceUnits(id);
+        if (maxUnits != null && maxUnits > capacity) {
+            log.info("Resource ID=" + id + " has tasks using " + maxUnits + " units");
+            throw new BadRequestException("A task uses " + maxUnits + " units of the resource, capacity cannot be lower");
+        }
+        resource.setName(name);
+        resource.setCapacity(capacity);
+        log.info("Resource ID=" + id + " updated");
+        return resourceRepository.save(resource);
+    }
+
+    /**
+     * Gets a resource by its ID
+     *
+     * @param id id of the resource
+     * @return the resource
+     * @throws BadRequestException if the resource does not exist
+     */
+    public Resource getResource(Long id){
+        return resourceRepository.findById(id).orElseThrow(() -> {
+            log.info("Resource with ID= " + id + " not found");
+            return new BadRequestException("Resource with ID=" + id + " does not exist");
+        });
+    }
+
+    /**
+     * @return all resources
+     */
+    public List<Resource> getAllResources(){
+        return resourceRepository.findAll();
+    }
+
+    /**
+     * Checks the units a task uses of its resource
+     *
+     * @param resource resource of the task, can be null
+     * @param units units per day, null for 1
+     * @throws BadRequestException if units are given without a resource, are less than 1 or more than the capacity
+     */
+    public void validateUnits(Resource resource, Integer units){
+        if (units == null) {
+            return;
+        }
+        if (resource == null) {
+            throw new BadRequestException("Resource units require a resource");
+        }
+        if (units < 1 || units > resource.getCapacity()) {
+            throw new BadRequestException("Resource units must be between 1 and the capacity " + resource.getCapacity()
+                    + " of resource " + resource.getName());
+        }
+    }
+
+    private void validate(String name, Integer capacity){
+        if (name == null || name.isBlank()) {
+            throw new BadRequestException("Resource name is required");
+        }
+        if (capacity == null || capacity < 1) {
+            throw new BadRequestException("Resource capacity must be at least 1");
+        }
+    }
+}
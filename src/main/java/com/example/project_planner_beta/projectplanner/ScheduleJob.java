@@ -0,0 +1,57 @@
+package com.example.project_planner_beta.projectplanner;
+
+import java.time.Instant;
+
+/**
+ * A schedule request running in the background, kept in memory by {@link ScheduleJobService}.
+ * A job schedules one project, or all projects when projectId is null.
+ */
+public class ScheduleJob {
+
+    private final String id;
+    private final Long projectId;
+    private final Instant submittedAt;
+
+    private ScheduleJobStatus status = ScheduleJobStatus.QUEUED;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Object result;
+    private String error;
+
+    public ScheduleJob(String id, Long projectId, Instant submittedAt){
+        this.id = id;
+        this.projectId = projectId;
+        this.submittedAt = submittedAt;
+    }
+
+    synchronized void start(Instant now){
+        status = ScheduleJobStatus.RUNNING;
+        startedAt = now;
+    }
+
+    synchronized void succeed(Object result, Instant now){
+        this.result = result;
+        status = ScheduleJobStatus.SUCCEEDED;
+        finishedAt = now;
+    }
+
+    synchronized void fail(String error, Instant now){
+        this.error = error;
+        status = ScheduleJobStatus.FAILED;
+        finishedAt = now;
+    }
+
+    public synchronized boolean isFinished(){
+        return status == ScheduleJobStatus.SUCCEEDED || status == ScheduleJobStatus.FAILED;
+    }
+
+    //Getters
+    public String getId() {return id;}
+    public Long getProjectId() {return projectId;}
+    public Instant getSubmittedAt() {return submittedAt;}
+    public synchronized ScheduleJobStatus getStatus() {return status;}
+    public synchronized Instant getStartedAt() {return startedAt;}
+    public synchronized Instant getFinishedAt() {return finishedAt;}
+    public synchronized Object getResult() {return result;}
+    public synchronized String getError() {return error;}
+}
@@ -0,0 +1,49 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.projectplanner.dto.ScheduleJobDTO;
+import com.example.project_planner_beta.projectplanner.tools.ScheduleJobMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/schedule/jobs")
+public class ScheduleJobController {
+
+    private final ScheduleJobService scheduleJobService;
+
+    public ScheduleJobController(ScheduleJobService scheduleJobService) {
+        this.scheduleJobService = scheduleJobService;
+    }
+
+    /**
+     * retrieves the status of a schedule job, and its result once it succeeded
+     *
+     * @param id id of the job
+     * @return id, projectId (null for all projects), status, timestamps, result or error
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ScheduleJobDTO> getJob(@PathVariable String id){
+        return scheduleJobService.getJob(id)
+                .map(job -> ResponseEntity.ok(ScheduleJobMapper.toDTO(job, true)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * streams the status of a schedule job as server-sent "status" events,
+     * the stream ends with the event of the finished job
+     *
+     * @param id id of the job
+     * @return event stream of the job
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getJobEvents(@PathVariable String id){
+        return scheduleJobService.getJob(id)
+                .map(job -> ResponseEntity.ok(scheduleJobService.subscribe(job)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.common.ServiceUnavailableException;
+import com.example.project_planner_beta.projectplanner.dto.ScheduleJobDTO;
+import com.example.project_planner_beta.projectplanner.tools.ScheduleJobMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Runs schedule requests in the background on the bounded schedule job pool, so request threads
+ * only submit and read jobs.
+ *
+ * A request for a project (or for all projects) that already has a job waiting in the queue joins
+ * that job instead of adding another one. Once a job starts, new requests get a new job, since the
+ * tasks may change while it runs. Finished jobs are kept for the retention period, clients poll them
+ * or subscribe to their server-sent events. Expired jobs are purged on a fixed delay, and only the
+ * last planner.jobs.max-finished finished jobs are kept, so their results cannot pile up between purges.
+ */
+@Service
+public class ScheduleJobService {
+    private static final Logger log = Logger.getLogger(ScheduleJobService.class.getName());
+
+    private static final String ALL_PROJECTS = "all";
+
+    private final ProjectScheduleRunner projectScheduleRunner;
+    private final ExecutorService scheduleJobExecutor;
+    private final Duration retention;
+    private final Duration eventsTimeout;
+    private final int maxFinished;
+
+    private final Map<String, ScheduleJob> jobs = new ConcurrentHashMap<>();
+    // finished jobs, oldest first
+    private final ConcurrentLinkedQueue<ScheduleJob> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishedCount = new AtomicInteger();
+    // job waiting in the queue per project ID, or "all"
+    private final Map<String, ScheduleJob> queued = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> listeners = new ConcurrentHashMap<>();
+
+    public ScheduleJobService(ProjectScheduleRunner projectScheduleRunner,
+                              @Qualifier("scheduleJobExecutor") ExecutorService scheduleJobExecutor,
+                              @Value("${planner.jobs.retention:1h}") Duration retention,
+                              @Value("${planner.jobs.events-timeout:30m}") Duration eventsTimeout,
+                              @Value("${planner.jobs.max-finished:1000}") int maxFinished) {
+        this.projectScheduleRunner = projectScheduleRunner;
+        this.scheduleJobExecutor = scheduleJobExecutor;
+        this.retention = retention;
+        this.eventsTimeout = eventsTimeout;
+        this.maxFinished = maxFinished;
+    }
+
+    /**
+     * Queues a schedule of one project
+     *
+     * @param projectId id of the project
+     * @return the new job, or the job already waiting for the project
+     * @throws ServiceUnavailableException if the job queue is full
+     */
+    public ScheduleJob submitProject(Long projectId){
+        return submit(String.valueOf(projectId), projectId, () -> projectScheduleRunner.generateSchedule(projectId));
+    }
+
+    /**
+     * Queues a schedule of all projects
+     *
+     * @return the new job, or the all projects job already waiting
+     * @throws ServiceUnavailableException if the job queue is full
+     */
+    public ScheduleJob submitAll(){
+        return submit(ALL_PROJECTS, null, projectScheduleRunner::generateAllSchedule);
+    }
+
+    /**
+     * Gets a job that was submitted within the retention period and is one of the last finished jobs kept
+     *
+     * @param jobId id of the job
+     * @return an optional if the job is found
+     */
+    public Optional<ScheduleJob> getJob(String jobId){
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Streams the status of the job: one "status" event now, one when it starts running and a last one
+     * with the result when it finishes, after which the stream is completed
+     *
+     * @param job the job to follow
+     * @return the event stream
+     */
+    public SseEmitter subscribe(ScheduleJob job){
+        SseEmitter emitter = new SseEmitter(eventsTimeout.toMillis());
+        List<SseEmitter> emitters = listeners.computeIfAbsent(job.getId(), id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+
+        if (job.isFinished()) {
+            // the job may have finished before the emitter was registered
+            complete(job);
+        } else {
+            send(emitter, ScheduleJobMapper.toDTO(job, false));
+        }
+        return emitter;
+    }
+
+    private ScheduleJob submit(String target, Long projectId, Supplier<Object> work){
+        ScheduleJob[] created = new ScheduleJob[1];
+        ScheduleJob job = queued.computeIfAbsent(target, key -> {
+            created[0] = new ScheduleJob(UUID.randomUUID().toString(), projectId, Instant.now());
+            return created[0];
+        });
+        if (created[0] == null) {
+            log.info("Schedule request for " + target + " joined queued job " + job.getId());
+            return job;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            scheduleJobExecutor.execute(() -> run(target, job, work));
+        } catch (RejectedExecutionException e) {
+            queued.remove(target, job);
+            job.fail("Schedule job queue is full", Instant.now());
+            finish(job);
+            throw new ServiceUnavailableException("Too many schedule jobs are waiting, please try again later");
+        }
+        log.info("Queued schedule job " + job.getId() + " for " + target);
+        return job;
+    }
+
+    private void run(String target, ScheduleJob job, Supplier<Object> work){
+        // requests from now on need a new run, the tasks may change while this one computes
+        queued.remove(target, job);
+        job.start(Instant.now());
+        publish(job);
+        try {
+            job.succeed(work.get(), Instant.now());
+        } catch (RuntimeException e) {
+            log.info("Schedule job " + job.getId() + " failed. " + e.getMessage());
+            job.fail(e.getMessage(), Instant.now());
+        }
+        finish(job);
+    }
+
+    /** keeps the finished job for polling, the oldest finished jobs over the limit are dropped with their results */
+    private void finish(ScheduleJob job){
+        finished.add(job);
+        finishedCount.incrementAndGet();
+        int dropped = 0;
+        while (finishedCount.get() > maxFinished) {
+            ScheduleJob oldest = finished.poll();
+            if (oldest == null) {
+                break;
+            }
+            finishedCount.decrementAndGet();
+            jobs.remove(oldest.getId());
+            dropped++;
+        }
+        if (dropped > 0) {
+            log.info("Dropped " + dropped + " finished schedule jobs over the limit of " + maxFinished);
+        }
+        complete(job);
+    }
+
+    private void publish(ScheduleJob job){
+        List<SseEmitter> emitters = listeners.get(job.getId());
+        if (emitters != null) {
+            ScheduleJobDTO dto = ScheduleJobMapper.toDTO(job, false);
+            for (SseEmitter emitter : emitters) {
+                send(emitter, dto);
+            }
+        }
+    }
+
+    private void complete(ScheduleJob job){
+        // removing the list makes sure only one thread sends the last event
+        List<SseEmitter> emitters = listeners.remove(job.getId());
+        if (emitters != null) {
+            ScheduleJobDTO dto = ScheduleJobMapper.toDTO(job, true);
+            for (SseEmitter emitter : emitters) {
+                send(emitter, dto);
+                emitter.complete();
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, ScheduleJobDTO dto){
+        try {
+            emitter.send(SseEmitter.event().name("status").data(dto));
+        } catch (IOException | IllegalStateException e) {
+            // the client went away, the emitter is completed by the container
+        }
+    }
+
+    /**
+     * Drops the jobs that finished before the retention period, with their results
+     */
+    @Scheduled(fixedDelayString = "${planner.jobs.purge-interval:1m}")
+    void purgeExpired(){
+        Instant cutoff = Instant.now().minus(retention);
+        // finished in order, so the expired jobs are at the head
+        ScheduleJob oldest;
+        while ((oldest = finished.peek()) != null && oldest.getFinishedAt().isBefore(cutoff)) {
+            if (finished.remove(oldest)) {
+                finishedCount.decrementAndGet();
+                jobs.remove(oldest.getId());
+            }
+        }
+    }
+
+    /** @return number of jobs kept, queued, running or finished */
+    int jobCount() {return jobs.size();}
+}
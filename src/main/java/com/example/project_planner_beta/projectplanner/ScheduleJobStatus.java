@@ -0,0 +1,8 @@
+package com.example.project_planner_beta.projectplanner;
+
+public enum ScheduleJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -0,0 +1,92 @@
+package com.example.project_planner_beta.projectplanner;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableScheduling
+public class SchedulerConfig {
+
+    /**
+     * pool used to schedule several projects at once
+     *
+     * @param parallelism number of projects scheduled at the same time, keep it below the connection pool size
+     * @return bounded fork join pool
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService scheduleExecutor(@Value("${planner.schedule.parallelism:0}") int parallelism){
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+
+    /**
+     * pool running the background schedule jobs, a full queue rejects new jobs.
+     * The workers are virtual threads when spring.threads.virtual.enabled is set on Java 21+,
+     * the number of workers still bounds the jobs running at the same time.
+     *
+     * @param workers number of jobs running at the same time
+     * @param queueCapacity number of jobs waiting for a worker
+     * @return bounded thread pool, with its queue and run times published as metrics
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService scheduleJobExecutor(@Value("${planner.jobs.workers:2}") int workers,
+                                               @Value("${planner.jobs.queue-capacity:100}") int queueCapacity,
+                                               MeterRegistry registry, Environment environment){
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("schedule-job-").getVirtualThreadFactory()
+                : new CustomizableThreadFactory("schedule-job-");
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        return ExecutorServiceMetrics.monitor(registry, executor, "scheduleJobExecutor");
+    }
+
+    /**
+     * pool sending the project change feed events, so writers only queue them.
+     * Holds at most one drain task per subscriber, a subscriber stalled on a slow connection
+     * holds one sender until planner.feed.send-timeout ends it,
+     * virtual threads when spring.threads.virtual.enabled is set on Java 21+.
+     *
+     * @param senders number of subscribers written to at the same time
+     * @return thread pool, grown by the change feed while a send is stalled
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor changeFeedExecutor(@Value("${planner.feed.senders:4}") int senders,
+                                              Environment environment){
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("change-feed-").getVirtualThreadFactory()
+                : new CustomizableThreadFactory("change-feed-");
+        return new ThreadPoolExecutor(senders, senders, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    }
+
+    /**
+     * timer of the project change feed, ends sends that stall and drops feeds left without subscribers.
+     * Its own thread, so it keeps running while every sender waits on a slow connection.
+     *
+     * @return single thread scheduled pool, cancelled timers are removed right away
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService changeFeedTimer(){
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("change-feed-timer-"));
+        // one timer per send, most are cancelled
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.project_planner_beta.projectplanner;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * Statements run on other threads (the schedule executor) or through JdbcTemplate are not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    /** starts counting on the current thread */
+    public static void start(){
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * stops counting on the current thread
+     *
+     * @return statements prepared since start
+     */
+    public static int stop(){
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+}
@@ -8,6 +8,11 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_project_code_id", columnList = "project_code, id"),
+        @Index(name = "idx_task_project_id", columnList = "project_id"),
+        @Index(name = "idx_task_resource_id", columnList = "resource_id")
+})
 // @Data
 public class Task {
 
@@ -33,17 +38,34 @@ public class Task {
     @Column(nullable = false)
     private LocalDate endDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
     private Project project;
 
-    @ManyToMany(fetch = FetchType.LAZY)
-    @JoinTable(
+    // resource the task is assigned to and the units of it the task uses per day, 1 if not given
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "resource_id")
+    private Resource resource;
+
+    private Integer resourceUnits;
+
+    // set when an applied leveling holds the task after its dependencies, schedule runs do not start it earlier
+    private LocalDate startNoEarlierThan;
+
+    // the only mapping of the task_dependencies rows, every row carries its type and lag
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(
             name = "task_dependencies",
             joinColumns = @JoinColumn(name = "task_id"),
-            inverseJoinColumns = @JoinColumn(name = "dependency_id")
+            indexes = {
+                    @Index(name = "idx_task_dependencies_task", columnList = "task_id"),
+                    @Index(name = "idx_task_dependencies_dependency", columnList = "dependency_id")
+            }
     )
-    private Set<Task> dependencies = new HashSet<>();
+    private Set<TaskDependency> dependencies = new HashSet<>();
+
+    @Version
+    private Long version;
 
     public Task() {}
 
@@ -66,8 +88,8 @@ public class Task {
     public LocalDate getEndDate() {return endDate;}
     public void setEndDate(LocalDate endDate) {this.endDate = endDate;}
 
-    public Set<Task> getDependencies() {return dependencies;}
-    public void setDependencies(Set<Task> dependencies) {this.dependencies = dependencies;}
+    public Set<TaskDependency> getDependencies() {return dependencies;}
+    public void setDependencies(Set<TaskDependency> dependencies) {this.dependencies = dependencies;}
 
     public TaskStatus getStatus() {return status;}
     public void setStatus(TaskStatus status) {this.status = status;}
@@ -75,4 +97,16 @@ public class Task {
     public Project getProject() {return project;}
     public void setProject(Project project) {this.project = project;}
 
+    public Long getVersion() {return version;}
+    public void setVersion(Long version) {this.version = version;}
+
+    public Resource getResource() {return resource;}
+    public void setResource(Resource resource) {this.resource = resource;}
+
+    public Integer getResourceUnits() {return resourceUnits;}
+    public void setResourceUnits(Integer resourceUnits) {this.resourceUnits = resourceUnits;}
+
+    public LocalDate getStartNoEarlierThan() {return startNoEarlierThan;}
+    public void setStartNoEarlierThan(LocalDate startNoEarlierThan) {this.startNoEarlierThan = startNoEarlierThan;}
+
 }
@@ -0,0 +1,67 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
+import com.example.project_planner_beta.projectplanner.dto.TransferTaskDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.function.Consumer;
+
+/**
+ * Reads every task and dependency row of a project with plain JDBC, one row at a time,
+ * so an export never holds the project in memory or in the persistence context.
+ */
+@Repository
+public class TaskBatchReader {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_TASKS =
+            "select t.id, t.name, t.status, t.start_date, t.end_date, r.name, t.resource_units "
+                    + "from task t left join resource r on r.id = t.resource_id where t.project_code = ? order by t.id";
+    private static final String SELECT_DEPENDENCIES =
+            "select d.task_id, d.dependency_id, d.dependency_type, d.lag_days "
+                    + "from task_dependencies d join task t on t.id = d.task_id where t.project_code = ? "
+                    + "order by d.task_id, d.dependency_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskBatchReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Streams the tasks of a project in ID order
+     *
+     * @param projectCode 6 digit project code
+     * @param consumer gets every task, the DTO is not reused
+     */
+    public void forEachTask(String projectCode, Consumer<TransferTaskDTO> consumer){
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_TASKS);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setString(1, projectCode);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(new TransferTaskDTO(rs.getLong(1), rs.getString(2),
+                TaskStatus.valueOf(rs.getString(3)), rs.getDate(4).toLocalDate(), rs.getDate(5).toLocalDate(),
+                rs.getString(6), rs.getObject(7, Integer.class))));
+    }
+
+    /**
+     * Streams the dependency rows of a project ordered by task and dependency ID
+     *
+     * @param projectCode 6 digit project code
+     * @param consumer gets every row with its type and lag
+     */
+    public void forEachDependency(String projectCode, Consumer<TaskEdgeDTO> consumer){
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_DEPENDENCIES);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setString(1, projectCode);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(new TaskEdgeDTO(rs.getLong(1), rs.getLong(2),
+                DependencyType.valueOf(rs.getString(3)), rs.getInt(4))));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes many tasks with JDBC batches instead of one statement per entity.
+ * Task IDs are generated by the database (IDENTITY), which Hibernate cannot batch,
+ * so the generated keys are read back from each batch here.
+ * Runs inside the caller's transaction.
+ */
+@Repository
+public class TaskBatchWriter {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_TASK =
+            "insert into task (name, project_code, duration, status, start_date, end_date, project_id, resource_id, resource_units, version) "
+                    + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_DEPENDENCY =
+            "insert into task_dependencies (task_id, dependency_id, dependency_type, lag_days) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the tasks and sets their generated IDs
+     *
+     * @param tasks new tasks, all fields except the ID and dependencies must be set
+     */
+    public void insertTasks(List<Task> tasks){
+        for (int from = 0; from < tasks.size(); from += BATCH_SIZE) {
+            List<Task> chunk = tasks.subList(from, Math.min(from + BATCH_SIZE, tasks.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT_TASK, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Task task = chunk.get(i);
+                            ps.setString(1, task.getName());
+                            ps.setString(2, task.getProjectCode());
+                            ps.setLong(3, task.getDuration());
+                            ps.setString(4, task.getStatus().name());
+                            ps.setDate(5, Date.valueOf(task.getStartDate()));
+                            ps.setDate(6, Date.valueOf(task.getEndDate()));
+                            ps.setLong(7, task.getProject().getId());
+                            ps.setObject(8, task.getResource() != null ? task.getResource().getId() : null, Types.BIGINT);
+                            ps.setObject(9, task.getResourceUnits(), Types.INTEGER);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    },
+                    keyHolder);
+
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < chunk.size(); i++) {
+                Number id = (Number) keys.get(i).values().iterator().next();
+                chunk.get(i).setId(id.longValue());
+                chunk.get(i).setVersion(0L);
+            }
+        }
+    }
+
+    /**
+     * Inserts dependency rows with their type and lag
+     *
+     * @param rows one row per (task, dependency) pair of saved tasks, a missing type or lag is FS with no lag
+     */
+    public void insertDependencies(List<TaskEdgeDTO> rows){
+        jdbcTemplate.batchUpdate(INSERT_DEPENDENCY, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.getTaskId());
+            ps.setLong(2, row.getDependencyId());
+            ps.setString(3, row.getType() != null ? row.getType().name() : DependencyType.FS.name());
+            ps.setInt(4, row.getLag() != null ? row.getLag() : 0);
+        });
+    }
+}
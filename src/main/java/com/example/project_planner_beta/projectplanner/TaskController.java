@@ -1,36 +1,114 @@
 package com.example.project_planner_beta.projectplanner;
 
 import com.example.project_planner_beta.common.BadRequestException;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchRequestDTO;
 import com.example.project_planner_beta.projectplanner.dto.CreateTaskRequestDTO;
+import com.example.project_planner_beta.projectplanner.dto.DependencyDTO;
+import com.example.project_planner_beta.projectplanner.dto.DependencyLinkDTO;
 import com.example.project_planner_beta.projectplanner.dto.TaskDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskImpactDTO;
 import com.example.project_planner_beta.projectplanner.dto.UpdateTaskRequestDTO;
 import com.example.project_planner_beta.projectplanner.tools.TaskMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
 
+    // header carrying the cursor of the next page, absent on the last page
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+    private static final Set<String> FIELDS = Set.of(
+            "id", "name", "projectCode", "duration", "status", "startDate", "endDate", "dependencies", "version",
+            "resourceId", "resourceUnits", "startNoEarlierThan");
+
     @Autowired
     private TaskService taskService;
 
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private ConflictRetry conflictRetry;
+
+    @Autowired
+    private ResourceService resourceService;
+
     /**
-     * retrieves all tasks under a project by its project code
+     * retrieves the tasks under a project by its project code, all of them or one page at a time
      *
      * @param projectCode unique code of a project
-     * @return list of task under a project
+     * @param limit size of the page, all tasks if not given
+     * @param after cursor from the X-Next-Cursor header of the previous page
+     * @param status statuses to include, comma separated
+     * @param from only tasks ending on or after this date (YYYY-MM-DD)
+     * @param to only tasks starting on or before this date (YYYY-MM-DD)
+     * @param fields fields of every task to return, comma separated, the dependencies are not read unless selected
+     * @return list of task under a project in ID order, X-Next-Cursor header if there is a next page
      */
     @GetMapping("/code/{projectCode}")
-    public List<TaskDTO> getTasksByCode(@PathVariable String projectCode){
-        List<Task> tasks = taskService.getTasksByProjectCode(projectCode);
-        return TaskMapper.toDTOList(tasks);
+    public ResponseEntity<MappingJacksonValue> getTasksByCode(@PathVariable String projectCode,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) Long after,
+                                                              @RequestParam(required = false) List<TaskStatus> status,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                              @RequestParam(required = false) Set<String> fields){
+        checkFields(fields);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        List<Task> tasks;
+        Map<Long, List<DependencyDTO>> dependencies = new HashMap<>();
+        boolean withDependencies = fields == null || fields.contains("dependencies");
+
+        if (limit == null && after == null && status == null && from == null && to == null) {
+            tasks = taskService.getTasksByProjectCode(projectCode);
+            if (withDependencies) {
+                dependencies = taskService.getDependenciesByProjectCode(projectCode);
+            }
+        } else {
+            tasks = taskService.getTasksPage(projectCode, status, from, to, after, limit);
+            if (limit != null && tasks.size() > limit) {
+                tasks = tasks.subList(0, limit);
+                response.header(NEXT_CURSOR, String.valueOf(tasks.get(limit - 1).getId()));
+            }
+            if (withDependencies) {
+                dependencies = taskService.getDependenciesByTaskIds(tasks.stream().map(Task::getId).toList());
+            }
+        }
+        List<TaskDTO> result = TaskMapper.toDTOList(tasks, dependencies);
+        return response.body(JsonConfig.selectFields(result, JsonConfig.TASK_FIELDS, fields));
+    }
+
+    /**
+     * maps one task, its dependencies are read with their type and lag
+     */
+    private TaskDTO toDTO(Task task){
+        return TaskMapper.toDTO(task, taskService.getDependenciesByTaskIds(List.of(task.getId()))
+                .getOrDefault(task.getId(), new ArrayList<>()));
+    }
+
+    /**
+     * loads the dependencies of a request with the type and lag of their link
+     */
+    private Set<TaskDependency> dependencies(Map<Long, DependencyLinkDTO> links){
+        Set<TaskDependency> dependencies = new HashSet<>();
+        for (Task dependency : taskRepository.findAllById(links.keySet())) {
+            DependencyLinkDTO link = links.get(dependency.getId());
+            dependencies.add(new TaskDependency(dependency, link.getType(), link.getLag()));
+        }
+        return dependencies;
+    }
+
+    private void checkFields(Set<String> fields){
+        if (fields != null && !FIELDS.containsAll(fields)) {
+            throw new BadRequestException("Unknown field, fields can be " + String.join(",", new TreeSet<>(FIELDS)));
+        }
     }
 
     /**
@@ -42,6 +120,9 @@ public class TaskController {
      *      startDate: YYYY-MM-DD
      *      endDate: YYYY-MM-DD
      *      dependencyIds: [ id of a task to be added as dependency ]
+     *      dependencyLinks: [ { dependencyId, type: FS|SS|FF|SF, lag: working days, negative for a lead } ]
+     *      resourceId: id of the resource doing the task, optional
+     *      resourceUnits: units of the resource used per day, 1 if not given
      *   }
      * @return created task
      */
@@ -52,21 +133,47 @@ public class TaskController {
         task.setProjectCode(request.getProjectCode());
         task.setStartDate(request.getStartDate());
         task.setEndDate(request.getEndDate());
+        if (request.getResourceId() != null) {
+            task.setResource(resourceService.getResource(request.getResourceId()));
+        }
+        task.setResourceUnits(request.getResourceUnits());
 
-        Set<Long> dependencyIds = request.getDependencyIds() !=null
-                ? new HashSet<>(request.getDependencyIds())
-                :Collections.emptySet();
-        if(!dependencyIds.isEmpty()){
+        Map<Long, DependencyLinkDTO> links = taskService.dependencyLinks(request.getDependencyIds(), request.getDependencyLinks());
+        if(!links.isEmpty()){
             // checks if ids are valid on adding dependency
-            taskService.dependencyIdChecker(dependencyIds);
-            List<Task> dependencies = taskRepository.findAllById(dependencyIds);
-            task.setDependencies(new HashSet<>(dependencies));
+            taskService.dependencyIdChecker(links.keySet());
+            task.setDependencies(dependencies(links));
         }
 
 
         Task createdTask = taskService.createTask(task);
 
-        return ResponseEntity.ok(TaskMapper.toDTO(createdTask));
+        return ResponseEntity.ok(toDTO(createdTask));
+    }
+
+    /**
+     * creates many tasks of one project at once
+     *
+     * @param request {
+     *      projectCode: unique code of a project where the tasks will be under
+     *      tasks: [ {
+     *          key: temporary key other tasks of the batch use to depend on this task
+     *          name: name of task
+     *          startDate: YYYY-MM-DD
+     *          endDate: YYYY-MM-DD
+     *          dependencyIds: [ id of an existing task to be added as dependency ]
+     *          dependencyKeys: [ key of a task of the batch to be added as dependency ]
+     *          dependencyLinks: [ { dependencyId or dependencyKey, type: FS|SS|FF|SF, lag: working days } ]
+     *      } ]
+     *   }
+     * @return created tasks in the order of the request
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskDTO>> createTasks(@RequestBody CreateTaskBatchRequestDTO request) {
+        List<Task> createdTasks = taskService.createTasks(request);
+        Map<Long, List<DependencyDTO>> dependencies = taskService.getDependenciesByTaskIds(
+                createdTasks.stream().map(Task::getId).toList());
+        return ResponseEntity.ok(TaskMapper.toDTOList(createdTasks, dependencies));
     }
 
     /**
@@ -79,6 +186,9 @@ public class TaskController {
      *            startDate: YYYY-MM-DD
      *            endDate: YYYY-MM-DD
      *            dependencyIds: [ id of a task to be added as dependency ]
+     *            dependencyLinks: [ { dependencyId, type: FS|SS|FF|SF, lag: working days, negative for a lead } ]
+     *            resourceId: id of the resource doing the task, none if not given
+     *            resourceUnits: units of the resource used per day, 1 if not given
      *         }
      * @return the updated task
      */
@@ -93,20 +203,22 @@ public class TaskController {
         savedtask.setStartDate(updatedTask.getStartDate());
         savedtask.setEndDate(updatedTask.getEndDate());
         savedtask.setStatus(updatedTask.getStatus());
+        savedtask.setVersion(updatedTask.getVersion());
+        if (updatedTask.getResourceId() != null) {
+            savedtask.setResource(resourceService.getResource(updatedTask.getResourceId()));
+        }
+        savedtask.setResourceUnits(updatedTask.getResourceUnits());
 
-        Set<Long> dependencyIds = updatedTask.getDependencyIds() !=null
-                ? new HashSet<>(updatedTask.getDependencyIds())
-                :Collections.emptySet();
-        if(!dependencyIds.isEmpty()){
+        Map<Long, DependencyLinkDTO> links = taskService.dependencyLinks(updatedTask.getDependencyIds(), updatedTask.getDependencyLinks());
+        if(!links.isEmpty()){
             // checks if ids are valid on adding dependency
-            taskService.dependencyIdChecker(dependencyIds);
-            List<Task> dependencies = taskRepository.findAllById(dependencyIds);
-            savedtask.setDependencies(new HashSet<>(dependencies));
+            taskService.dependencyIdChecker(links.keySet());
+            savedtask.setDependencies(dependencies(links));
         }
 
-        Task saved = taskService.updateTask(id, savedtask);
+        Task saved = conflictRetry.run("Update of task ID=" + id, () -> taskService.updateTask(id, savedtask));
 
-        return ResponseEntity.ok(TaskMapper.toDTO(saved));
+        return ResponseEntity.ok(toDTO(saved));
     }
 
     /**
@@ -120,7 +232,20 @@ public class TaskController {
         Task task = taskService.getTaskDetails(id)
                 .orElseThrow(() -> new BadRequestException("Cannot find task"));
 
-        return TaskMapper.toDTO(task);
+        return toDTO(task);
+    }
+
+    /**
+     * retrieves every task depending on the task, directly or through other tasks, and how a slip moves them
+     *
+     * @param id id of the task
+     * @param slipDays days the task finishes late, 0 to only list the downstream tasks
+     * @return the downstream tasks nearest first with their dates before and after the slip,
+     *              the floats of the task and the delay of the project finish
+     */
+    @GetMapping("/{id}/impact")
+    public TaskImpactDTO getTaskImpact(@PathVariable Long id, @RequestParam(defaultValue = "1") long slipDays){
+        return taskService.getTaskImpact(id, slipDays);
     }
 
     /**
@@ -0,0 +1,61 @@
+package com.example.project_planner_beta.projectplanner;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * A row of the task_dependencies table: one dependency of a task with its type and lag.
+ * The rows are only mapped as the elements of {@link Task#getDependencies()}, so a row is inserted
+ * with its type and lag, and a row whose type or lag changes is replaced.
+ */
+@Embeddable
+public class TaskDependency {
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "dependency_id", nullable = false)
+    private Task dependency;
+
+    @Column(name = "dependency_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private DependencyType type = DependencyType.FS;
+
+    // working days, negative for a lead
+    @Column(name = "lag_days", nullable = false)
+    private Integer lag = 0;
+
+    public TaskDependency() {}
+
+    public TaskDependency(Task dependency, DependencyType type, Integer lag){
+        this.dependency = dependency;
+        this.type = type;
+        this.lag = lag;
+    }
+
+    public Task getDependency() {return dependency;}
+    public void setDependency(Task dependency) {this.dependency = dependency;}
+
+    public DependencyType getType() {return type;}
+    public void setType(DependencyType type) {this.type = type;}
+
+    public Integer getLag() {return lag;}
+    public void setLag(Integer lag) {this.lag = lag;}
+
+    // the ID of a lazy dependency is read without loading it
+    @Override
+    public boolean equals(Object o){
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskDependency other)) {
+            return false;
+        }
+        return Objects.equals(dependency.getId(), other.dependency.getId())
+                && type == other.type && Objects.equals(lag, other.lag);
+    }
+
+    @Override
+    public int hashCode(){
+        return Objects.hash(dependency.getId(), type, lag);
+    }
+}
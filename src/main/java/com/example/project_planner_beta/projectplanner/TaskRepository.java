@@ -1,7 +1,14 @@
 package com.example.project_planner_beta.projectplanner;
 
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskVersionsDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
@@ -12,5 +19,89 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @return list of tasks
      */
     List<Task> findByProjectCode(String projectCode);
+
+    /**
+     * counts the tasks of the project and sums their versions in one row
+     * @param projectCode unique 6 digit character string
+     * @return number of tasks and sum of their versions
+     */
+    @Query("select new com.example.project_planner_beta.projectplanner.dto.TaskVersionsDTO(count(t), coalesce(sum(t.version), 0L)) " +
+            "from Task t where t.projectCode = :projectCode")
+    TaskVersionsDTO countVersions(@Param("projectCode") String projectCode);
+
+    /**
+     * checks if the project has any task
+     * @param projectCode unique 6 digit character string
+     * @return true if at least one task belongs to the project
+     */
+    boolean existsByProjectCode(String projectCode);
+
+    /**
+     * retrieves the next page of tasks of the project after the given ID, filtered by status and dates
+     * @param projectCode unique 6 digit character string
+     * @param afterId last task ID of the previous page, 0 for the first page
+     * @param statuses statuses to include
+     * @param from only tasks ending on or after this date, null for no lower bound
+     * @param to only tasks starting on or before this date, null for no upper bound
+     * @param pageable size of the page, unpaged for all remaining tasks
+     * @return tasks in ascending ID order
+     */
+    @Query("select t from Task t where t.projectCode = :projectCode and t.id > :afterId and t.status in :statuses " +
+            "and (:from is null or t.endDate >= :from) and (:to is null or t.startDate <= :to) order by t.id")
+    List<Task> findPage(@Param("projectCode") String projectCode, @Param("afterId") Long afterId,
+                        @Param("statuses") Collection<TaskStatus> statuses,
+                        @Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    /**
+     * retrieves the (id, name, type, lag) of every dependency of the given tasks in one query
+     * @param taskIds IDs of the tasks
+     * @return one row per dependency
+     */
+    @Query("select new com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO(t.id, d.id, d.name, l.type, l.lag) " +
+            "from Task t join t.dependencies l join l.dependency d where t.id in :taskIds")
+    List<TaskEdgeDTO> findDependencyNamesByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * retrieves the (id, name, type, lag) of every dependency of the tasks of the projects in one query
+     * @param projectCodes unique 6 digit character strings
+     * @return one row per dependency
+     */
+    @Query("select new com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO(t.id, d.id, d.name, l.type, l.lag) " +
+            "from Task t join t.dependencies l join l.dependency d where t.projectCode in :projectCodes")
+    List<TaskEdgeDTO> findDependencyNamesByProjectCodes(@Param("projectCodes") Collection<String> projectCodes);
+
+    /**
+     * retrieves the most units of the resource any task uses
+     * @param resourceId id of the resource
+     * @return the highest units, null if no task uses the resource
+     */
+    @Query("select max(coalesce(t.resourceUnits, 1)) from Task t where t.resource.id = :resourceId")
+    Integer findMaxResourceUnits(@Param("resourceId") Long resourceId);
+
+    /**
+     * retrieves every task ID of the project together with its dependency IDs, types and lags in one query
+     * @param projectCode unique 6 digit character string
+     * @return one row per dependency, tasks without dependencies have a null dependency ID
+     */
+    @Query("select new com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO(t.id, l.dependency.id, l.type, l.lag) " +
+            "from Task t left join t.dependencies l where t.projectCode = :projectCode")
+    List<TaskEdgeDTO> findDependencyEdgesByProjectCode(@Param("projectCode") String projectCode);
+
+    /**
+     * retrieves the (id, name, type, lag) of every dependency of the tasks of the project in one query
+     * @param projectCode unique 6 digit character string
+     * @return one row per dependency
+     */
+    @Query("select new com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO(t.id, d.id, d.name, l.type, l.lag) " +
+            "from Task t join t.dependencies l join l.dependency d where t.projectCode = :projectCode")
+    List<TaskEdgeDTO> findDependencyNamesByProjectCode(@Param("projectCode") String projectCode);
+
+    /**
+     * retrieves the (id, name, type, lag) of every dependency of every task in one query
+     * @return one row per dependency
+     */
+    @Query("select new com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO(t.id, d.id, d.name, l.type, l.lag) " +
+            "from Task t join t.dependencies l join l.dependency d")
+    List<TaskEdgeDTO> findAllDependencyNames();
 }
 
@@ -1,86 +1,340 @@
 package com.example.project_planner_beta.projectplanner;
 
 import com.example.project_planner_beta.common.BadRequestException;
+import com.example.project_planner_beta.common.ConflictException;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchItemDTO;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchRequestDTO;
+import com.example.project_planner_beta.projectplanner.dto.DependencyDTO;
+import com.example.project_planner_beta.projectplanner.dto.DependencyLinkDTO;
+import com.example.project_planner_beta.projectplanner.dto.DownstreamTaskDTO;
 import com.example.project_planner_beta.projectplanner.dto.ProjectScheduleDTO;
+import com.example.project_planner_beta.projectplanner.dto.ScheduleChangeDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskChangeDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskImpactDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskShiftDTO;
+import com.example.project_planner_beta.projectplanner.dto.WhatIfChangeDTO;
+import com.example.project_planner_beta.projectplanner.dto.WhatIfRequestDTO;
+import com.example.project_planner_beta.projectplanner.dto.WhatIfScheduleDTO;
+import com.example.project_planner_beta.projectplanner.tools.CalendarIndex;
+import com.example.project_planner_beta.projectplanner.tools.DependencyGraph;
+import com.example.project_planner_beta.projectplanner.tools.ScheduleAnalysis;
+import com.example.project_planner_beta.projectplanner.tools.ScheduleState;
 import com.example.project_planner_beta.projectplanner.tools.TaskMapper;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 @Service
 public class TaskService {
     private static final Logger log = Logger.getLogger(TaskService.class.getName());
+    // lag or lead of a dependency in working days, about a hundred years
+    private static final int MAX_LAG = 36500;
+    // slip of a task in working days, the same bound as a lag
+    private static final long MAX_SLIP = MAX_LAG;
     @Autowired private TaskRepository taskRepository;
     @Autowired private ProjectRepository projectRepository;
+    @Autowired private DependencyGraphIndex graphIndex;
+    @Autowired private IncrementalScheduler incrementalScheduler;
+    @Autowired private TaskBatchWriter taskBatchWriter;
+    @Autowired private ProjectCodeCache projectCodeCache;
+    @Autowired private ResourceService resourceService;
+    @Autowired private ResourceRepository resourceRepository;
+    @Autowired private CalendarService calendarService;
+    @Autowired private ProjectChangeFeed changeFeed;
+    @Value("${planner.tasks.batch.max-size:10000}") private int maxBatchSize;
+    @Value("${planner.listing.max-limit:1000}") private int maxPageSize;
 
     /**
      * Creates and saves a new task
      *
-     * @param task The task to be created
+     * @param task The task to be created, its dependencies carry their type and lag
      * @return The saved task with generated ID
      * @throws BadRequestException if the project does not exist, dates are invalid,
      *                              or dependencies belong to a different project or create circular dependency.
      */
     @Transactional
+    @Timed(value = "planner.task.create", description = "Time to create one task", histogram = true)
     public Task createTask(Task task) {
 
         log.info("Creating new task: name:" + task.getName() + ", projectCode: " + task.getProjectCode());
 
-        Project project = projectRepository.findByCode(task.getProjectCode());
-        if (project == null) {
+        ProjectCodeCache.CachedProject cachedProject = projectCodeCache.get(task.getProjectCode());
+        if (cachedProject == null) {
             log.info("Failed to create task. Project with code "+ task.getProjectCode() +" does not exist");
             throw new BadRequestException("Project with code " + task.getProjectCode() + " does not exist");
         }
 
         validateDates(task.getStartDate(), task.getEndDate());
+        resourceService.validateUnits(task.getResource(), task.getResourceUnits());
 
-        task.setProjectCode(project.getCode());
-        task.setDuration(durationCalculator(task.getStartDate(), task.getEndDate()));
+        // a reference is enough to set the project_id, the project itself is not loaded
+        Project project = projectRepository.getReferenceById(cachedProject.getId());
+        task.setProjectCode(cachedProject.getCode());
+        CalendarIndex calendar = calendarService.getIndex(cachedProject.getCalendarId());
+        task.setDuration(durationCalculator(task.getStartDate(), task.getEndDate(), calendar));
         task.setProject(project);
         task.setStatus(TaskStatus.NOT_STARTED); // default status
 
-        Task savedTask = taskRepository.save(task);
+        // the dependency rows are inserted with the task, with their type and lag
+        Task savedTask;
+        try {
+            savedTask = taskRepository.save(task);
+        } catch (DataIntegrityViolationException e) {
+            throw projectGone(cachedProject.getCode(), e);
+        }
+        Set<Long> dependencyIds = dependencyIds(savedTask.getDependencies());
 
-        if(savedTask.getDependencies() != null && !savedTask.getDependencies().isEmpty()){
+        if(!dependencyIds.isEmpty()){
 
-            // check if start date of task is after the end date of task dependencies
-            validateDependencyDates(task);
+            // check if start date of task is within the bounds of its dependencies
+            validateDependencyDates(task.getStartDate(), task.getDuration(), savedTask.getDependencies(), calendar);
 
-            log.info("Validating " + savedTask.getDependencies().size() + " task dependencies for task ID= " + savedTask.getId());
+            if (log.isLoggable(Level.FINE)) {
+                log.fine("Validating " + savedTask.getDependencies().size() + " task dependencies for task ID= " + savedTask.getId());
+            }
 
-            Set<Task> dependencies = savedTask.getDependencies();
-            for (Task dep: dependencies){
+            for (TaskDependency link : savedTask.getDependencies()){
+                Task dep = link.getDependency();
                 if (!task.getProjectCode().equals(dep.getProjectCode())) {
                     log.info("Failed to add task dependencies. Project code does not match " + dep.getProjectCode() +" : " + task.getProjectCode() );
                     throw new BadRequestException("All dependencies must belong to the same project");
                 }
-                if (willLoop(task, dep)) {
-                    log.info("This action will result in a circular dependency");
-                    throw new BadRequestException("This action will result in a circular dependency");
-                }
+            }
+            lockDependencyChange(cachedProject.getCode());
+            if (graphIndex.willLoop(cachedProject.getCode(), savedTask.getId(), dependencyIds)) {
+                log.info("This action will result in a circular dependency");
+                throw new BadRequestException("This action will result in a circular dependency");
             }
         }
+        graphIndex.setDependencies(cachedProject.getCode(), savedTask.getId(), dependencyRows(savedTask));
+        incrementalScheduler.tasksChanged(cachedProject.getCode(), List.of(savedTask.getId()));
+        changeFeed.publish(cachedProject.getCode(), "task-created", () -> TaskMapper.toCreatedDTO(savedTask));
 
         log.info("Task saved with ID= " + savedTask.getId());
         return savedTask;
     }
 
+    /**
+     * A project deleted on another node stays in the project cache until its entry expires,
+     * inserting its tasks then fails on the project foreign key
+     *
+     * @param e the failed insert
+     * @return a BadRequestException if the project no longer exists, the failure otherwise
+     */
+    private RuntimeException projectGone(String projectCode, DataIntegrityViolationException e){
+        if (projectCodeCache.reload(projectCode) != null) {
+            return e;
+        }
+        log.info("Failed to create tasks. Project with code " + projectCode + " was deleted");
+        return new BadRequestException("Project with code " + projectCode + " does not exist");
+    }
+
+    /**
+     * Creates many tasks of one project in a single transaction.
+     * Tasks can depend on existing tasks by ID and on each other by their key.
+     * The whole batch is validated in memory before anything is written.
+     *
+     * @param request project code and the tasks to be created
+     * @return the saved tasks with generated IDs, in the order of the request
+     * @throws BadRequestException if the project does not exist, a task is incomplete or has invalid dates,
+     *                              a dependency is unknown or belongs to a different project,
+     *                              or the dependencies create a circular dependency.
+     */
+    @Transactional
+    @Timed(value = "planner.task.create.batch", description = "Time to create a batch of tasks", histogram = true)
+    public List<Task> createTasks(CreateTaskBatchRequestDTO request){
+        List<CreateTaskBatchItemDTO> items = request.getTasks();
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("No tasks to create");
+        }
+        if (items.size() > maxBatchSize) {
+            throw new BadRequestException("Cannot create more than " + maxBatchSize + " tasks at once");
+        }
+        log.info("Creating " + items.size() + " tasks for projectCode: " + request.getProjectCode());
+
+        ProjectCodeCache.CachedProject cachedProject = projectCodeCache.get(request.getProjectCode());
+        if (cachedProject == null) {
+            log.info("Failed to create tasks. Project with code "+ request.getProjectCode() +" does not exist");
+            throw new BadRequestException("Project with code " + request.getProjectCode() + " does not exist");
+        }
+
+        Project project = projectRepository.getReferenceById(cachedProject.getId());
+        CalendarIndex calendar = calendarService.getIndex(cachedProject.getCalendarId());
+
+        // index the keys and collect the existing dependencies
+        int n = items.size();
+        Map<String, Integer> keys = new HashMap<>();
+        Set<Long> existingIds = new HashSet<>();
+        List<Map<Long, DependencyLinkDTO>> idLinks = new ArrayList<>(n);
+        List<Map<String, DependencyLinkDTO>> keyLinks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            CreateTaskBatchItemDTO item = items.get(i);
+            if (item.getName() == null || item.getStartDate() == null || item.getEndDate() == null) {
+                throw new BadRequestException("Task " + label(item, i) + " requires name, startDate and endDate");
+            }
+            validateDates(item.getStartDate(), item.getEndDate());
+            if (item.getKey() != null && keys.put(item.getKey(), i) != null) {
+                throw new BadRequestException("Duplicate task key " + item.getKey());
+            }
+            // a link points to an existing task by ID or to a task of the batch by key
+            List<DependencyLinkDTO> byId = new ArrayList<>();
+            List<DependencyLinkDTO> byKey = new ArrayList<>();
+            if (item.getDependencyLinks() != null) {
+                for (DependencyLinkDTO link : item.getDependencyLinks()) {
+                    if ((link.getDependencyId() == null) == (link.getDependencyKey() == null)) {
+                        throw new BadRequestException("Dependency link of task " + label(item, i) + " needs either dependencyId or dependencyKey");
+                    }
+                    (link.getDependencyId() != null ? byId : byKey).add(link);
+                }
+            }
+            idLinks.add(mergeLinks(item.getDependencyIds(), byId, DependencyLinkDTO::getDependencyId));
+            keyLinks.add(mergeLinks(item.getDependencyKeys(), byKey, DependencyLinkDTO::getDependencyKey));
+            existingIds.addAll(idLinks.get(i).keySet());
+        }
+
+        Map<Long, Resource> resources = new HashMap<>();
+        for (CreateTaskBatchItemDTO item : items) {
+            if (item.getResourceId() != null) {
+                resources.put(item.getResourceId(), null);
+            }
+        }
+        for (Resource resource : resourceRepository.findAllById(resources.keySet())) {
+            resources.put(resource.getId(), resource);
+        }
+
+        Map<Long, Task> existing = new HashMap<>();
+        for (Task dep : taskRepository.findAllById(existingIds)) {
+            if (!cachedProject.getCode().equals(dep.getProjectCode())) {
+                throw new BadRequestException("All dependencies must belong to the same project");
+            }
+            existing.put(dep.getId(), dep);
+        }
+
+        // resolve every dependency and check dates in one pass, batch tasks get IDs 1..n in the graph
+        List<Task> tasks = new ArrayList<>(n);
+        long[] nodes = new long[n];
+        long[] from = new long[n];
+        long[] to = new long[n];
+        int edgeCount = 0;
+        for (int i = 0; i < n; i++) {
+            CreateTaskBatchItemDTO item = items.get(i);
+            Task task = new Task();
+            task.setName(item.getName());
+            task.setProjectCode(cachedProject.getCode());
+            task.setStartDate(item.getStartDate());
+            task.setEndDate(item.getEndDate());
+            task.setDuration(durationCalculator(item.getStartDate(), item.getEndDate(), calendar));
+            task.setProject(project);
+            task.setStatus(TaskStatus.NOT_STARTED); // default status
+            if (item.getResourceId() != null) {
+                Resource resource = resources.get(item.getResourceId());
+                if (resource == null) {
+                    throw new BadRequestException("Resource with ID=" + item.getResourceId() + " does not exist");
+                }
+                task.setResource(resource);
+            }
+            resourceService.validateUnits(task.getResource(), item.getResourceUnits());
+            task.setResourceUnits(item.getResourceUnits());
+            tasks.add(task);
+            nodes[i] = i + 1;
+
+            for (DependencyLinkDTO link : idLinks.get(i).values()) {
+                Task dep = existing.get(link.getDependencyId());
+                if (dep == null) {
+                    throw new BadRequestException("Cannot add dependency. ID=" + link.getDependencyId() + " is invalid");
+                }
+                validateDependencyDate(item.getStartDate(), task.getDuration(), dep.getStartDate(), dep.getEndDate(),
+                        link.getType(), link.getLag(), calendar);
+            }
+            for (DependencyLinkDTO link : keyLinks.get(i).values()) {
+                Integer dep = keys.get(link.getDependencyKey());
+                if (dep == null) {
+                    throw new BadRequestException("Cannot add dependency. Key=" + link.getDependencyKey() + " is invalid");
+                }
+                CreateTaskBatchItemDTO depItem = items.get(dep);
+                validateDependencyDate(item.getStartDate(), task.getDuration(), depItem.getStartDate(), depItem.getEndDate(),
+                        link.getType(), link.getLag(), calendar);
+                if (edgeCount == from.length) {
+                    from = Arrays.copyOf(from, edgeCount * 2);
+                    to = Arrays.copyOf(to, edgeCount * 2);
+                }
+                from[edgeCount] = i + 1;
+                to[edgeCount] = dep + 1;
+                edgeCount++;
+            }
+        }
+
+        // existing tasks never depend on new ones, so a loop can only be inside the batch
+        if (DependencyGraph.build(nodes, from, to, edgeCount).hasLoop()) {
+            log.info("This action will result in a circular dependency");
+            throw new BadRequestException("This action will result in a circular dependency");
+        }
+
+        if (edgeCount > 0 || !existing.isEmpty()) {
+            lockDependencyChange(cachedProject.getCode());
+        } else {
+            graphIndex.lock(cachedProject.getCode());
+        }
+        try {
+            taskBatchWriter.insertTasks(tasks);
+        } catch (DataIntegrityViolationException e) {
+            throw projectGone(cachedProject.getCode(), e);
+        }
+
+        Map<Long, List<TaskEdgeDTO>> graphChanges = new HashMap<>();
+        List<TaskEdgeDTO> rows = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Task task = tasks.get(i);
+            Set<TaskDependency> dependencies = new HashSet<>();
+            for (DependencyLinkDTO link : idLinks.get(i).values()) {
+                dependencies.add(new TaskDependency(existing.get(link.getDependencyId()), link.getType(), link.getLag()));
+            }
+            for (DependencyLinkDTO link : keyLinks.get(i).values()) {
+                dependencies.add(new TaskDependency(tasks.get(keys.get(link.getDependencyKey())), link.getType(), link.getLag()));
+            }
+            task.setDependencies(dependencies);
+            List<TaskEdgeDTO> taskRows = dependencyRows(task);
+            graphChanges.put(task.getId(), taskRows);
+            rows.addAll(taskRows);
+        }
+        taskBatchWriter.insertDependencies(rows);
+        graphIndex.setDependencies(cachedProject.getCode(), graphChanges);
+        incrementalScheduler.tasksChanged(cachedProject.getCode(), graphChanges.keySet());
+        for (Task task : tasks) {
+            changeFeed.publish(cachedProject.getCode(), "task-created",
+                    () -> TaskMapper.toCreatedDTO(task));
+        }
+
+        log.info("Created " + n + " tasks for projectCode: " + cachedProject.getCode());
+        return tasks;
+    }
+
     /**
      * Updates an existing task by its ID.
      *
      * @param taskId The id of the task to be updated
-     * @param updatedTask New task data
+     * @param updatedTask New task data, its dependencies carry their type and lag
      * @return The updated and saved task
      * @throws BadRequestException if the task does not exist
      *                              invalid dates
      *                              circular dependencies are detected
+     * @throws ConflictException if a version is given and the task was changed since that version
      */
     @Transactional
+    @Timed(value = "planner.task.update", description = "Time to update one task", histogram = true)
     public Task updateTask(Long taskId, Task updatedTask) {
 
         log.info("Updating task ID= " + taskId);
@@ -90,6 +344,11 @@ public class TaskService {
                     return new BadRequestException("Task not found");
                 });
 
+        if (updatedTask.getVersion() != null && !updatedTask.getVersion().equals(existingRecord.getVersion())) {
+            log.info("Task with ID= " + taskId + " was changed since version " + updatedTask.getVersion());
+            throw new ConflictException("Task was changed by someone else, reload it and try again");
+        }
+
         //check if same project code
         if(!Objects.equals(updatedTask.getProjectCode(), existingRecord.getProjectCode())){
             log.info("Cannot change project code");
@@ -99,7 +358,8 @@ public class TaskService {
         // check if dependency is DONE
         if(updatedTask.getStatus() == TaskStatus.IN_PROGRESS || updatedTask.getStatus() == TaskStatus.DONE){
             if(updatedTask.getDependencies()!= null && !updatedTask.getDependencies().isEmpty()) {
-                for(Task dep: existingRecord.getDependencies()){
+                for(TaskDependency link: existingRecord.getDependencies()){
+                    Task dep = link.getDependency();
 
                     if(dep.getStatus() == TaskStatus.NOT_STARTED || dep.getStatus() == TaskStatus.IN_PROGRESS){
                         log.info("Cannot start task until dependencies are DONE");
@@ -111,36 +371,69 @@ public class TaskService {
         }
 
         validateDates(updatedTask.getStartDate(), updatedTask.getEndDate());
+        resourceService.validateUnits(updatedTask.getResource(), updatedTask.getResourceUnits());
+
+        Set<Long> dependencyIds = dependencyIds(updatedTask.getDependencies());
+        // rows are equal with the same dependency, type and lag
+        boolean dependenciesChanged = !updatedTask.getDependencies().equals(existingRecord.getDependencies());
+        CalendarIndex calendar = calendarService.getProjectIndex(existingRecord.getProjectCode());
+
+        // the fields before the update, the change feed only gets the changed ones
+        TaskChangeDTO before = TaskMapper.toMovedDTO(existingRecord);
+        before.setName(existingRecord.getName());
+        before.setStatus(statusName(existingRecord));
 
         existingRecord.setName(updatedTask.getName());
+        if (!updatedTask.getStartDate().equals(existingRecord.getStartDate())) {
+            // a task moved by hand is no longer held at its leveled start
+            existingRecord.setStartNoEarlierThan(null);
+        }
         existingRecord.setStartDate(updatedTask.getStartDate());
         existingRecord.setEndDate(updatedTask.getEndDate());
-        existingRecord.setDuration(durationCalculator(updatedTask.getStartDate(), updatedTask.getEndDate()));
+        existingRecord.setDuration(durationCalculator(updatedTask.getStartDate(), updatedTask.getEndDate(), calendar));
         existingRecord.setStatus(updatedTask.getStatus());
+        existingRecord.setResource(updatedTask.getResource());
+        existingRecord.setResourceUnits(updatedTask.getResourceUnits());
+
+        // only dependency changes lock the project, edits of different tasks do not wait on each other
+        if (dependenciesChanged) {
+            lockDependencyChange(existingRecord.getProjectCode());
+        }
 
-        if (updatedTask.getDependencies() != null && !updatedTask.getDependencies().isEmpty()) {
+        if (!dependencyIds.isEmpty()) {
 
-            //check if start date of task is after the end date of task dependencies
-            validateDependencyDates(updatedTask);
+            //check if start date of task is within the bounds of its dependencies
+            validateDependencyDates(updatedTask.getStartDate(), existingRecord.getDuration(), updatedTask.getDependencies(), calendar);
 
-            for (Task dep : updatedTask.getDependencies()) {
+            for (TaskDependency link : updatedTask.getDependencies()) {
+                Task dep = link.getDependency();
 
                 if (!updatedTask.getProjectCode().equals(dep.getProjectCode())) {
                     log.info("All dependencies must belong to the same project");
                     throw new BadRequestException("All dependencies must belong to the same project");
                 }
-                if (willLoop(existingRecord, dep)) {
-                    log.info("This action will result in a circular dependency");
-                    throw new BadRequestException("This action will result in a circular dependency");
-                }
             }
 
-            existingRecord.setDependencies(updatedTask.getDependencies());
-        } else {
-            existingRecord.setDependencies(updatedTask.getDependencies());
+            // unchanged dependencies cannot create a new loop
+            if (dependenciesChanged && graphIndex.willLoop(existingRecord.getProjectCode(), existingRecord.getId(), dependencyIds)) {
+                log.info("This action will result in a circular dependency");
+                throw new BadRequestException("This action will result in a circular dependency");
+            }
         }
+        // changed in place, so only removed and added rows are written, a row with a new type or lag is replaced
+        Set<TaskDependency> dependencies = existingRecord.getDependencies();
+        dependencies.retainAll(updatedTask.getDependencies());
+        dependencies.addAll(updatedTask.getDependencies());
 
         Task savedTask = taskRepository.save(existingRecord);
+        if (dependenciesChanged) {
+            graphIndex.setDependencies(savedTask.getProjectCode(), savedTask.getId(), dependencyRows(savedTask));
+        }
+        incrementalScheduler.tasksChanged(savedTask.getProjectCode(), List.of(savedTask.getId()));
+        TaskChangeDTO change = changes(before, savedTask, dependenciesChanged);
+        if (change != null) {
+            changeFeed.publish(savedTask.getProjectCode(), "task-updated", () -> change);
+        }
 
         log.info("Task updated with ID= " + savedTask.getId());
         return savedTask;
@@ -159,15 +452,170 @@ public class TaskService {
     }
 
     /**
-     * Deletes a task by its ID
+     * Gets one page of the tasks under the project in ID order, filtered by status and dates.
+     * The page is read with the (project_code, id) index, so every page costs the same.
+     *
+     * @param code code from project code
+     * @param statuses statuses to include, null or empty for all
+     * @param from only tasks ending on or after this date, can be null
+     * @param to only tasks starting on or before this date, can be null
+     * @param afterId last task ID of the previous page, null for the first page
+     * @param limit size of the page, null for all tasks
+     * @return the tasks of the page, plus one more task if there is a next page
+     * @throws BadRequestException if the limit is out of range or the date range is empty
+     */
+    public List<Task> getTasksPage(String code, Collection<TaskStatus> statuses, LocalDate from, LocalDate to,
+                                   Long afterId, Integer limit){
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BadRequestException("Date range cannot end before it starts");
+        }
+        Collection<TaskStatus> included = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(TaskStatus.class)
+                : statuses;
+        List<Task> tasks = taskRepository.findPage(code, afterId == null ? 0L : afterId, included, from, to, pageRequest(limit));
+        log.info("Retrieved " + tasks.size() + " tasks using project code: " + code + " after ID: " + afterId);
+        return tasks;
+    }
+
+    /**
+     * Gets the dependencies of the given tasks with one query
+     *
+     * @param taskIds IDs of the tasks
+     * @return (id, name) of the dependencies grouped by task ID
+     */
+    public Map<Long, List<DependencyDTO>> getDependenciesByTaskIds(Collection<Long> taskIds){
+        if (taskIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return TaskMapper.groupDependencies(taskRepository.findDependencyNamesByTaskIds(taskIds));
+    }
+
+    /**
+     * @param limit size of the page, null for no limit
+     * @return a page one row larger than the limit, so the caller can tell if there is a next page
+     */
+    private Pageable pageRequest(Integer limit){
+        if (limit == null) {
+            return Pageable.unpaged();
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("Limit must be between 1 and " + maxPageSize);
+        }
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * Gets the dependencies of every task under the project with one query
+     *
+     * @param code code from project code
+     * @return (id, name) of the dependencies grouped by task ID
+     */
+    public Map<Long, List<DependencyDTO>> getDependenciesByProjectCode(String code){
+        return TaskMapper.groupDependencies(taskRepository.findDependencyNamesByProjectCode(code));
+    }
+
+    /**
+     * Deletes a task by its ID. The task is first removed from the dependencies of the tasks depending on it,
+     * which are found from the reverse edges of the project graph.
      *
      * @param id the ID of the task to be deleted
      */
+    @Transactional
     public void deleteTaskById(Long id){
+        Optional<Task> found = taskRepository.findById(id);
+        if (found.isPresent()) {
+            Task task = found.get();
+            lockDependencyChange(task.getProjectCode());
+            List<Long> dependentIds = graphIndex.dependentIds(task.getProjectCode(), id);
+            if (!dependentIds.isEmpty()) {
+                for (Task dependent : taskRepository.findAllById(dependentIds)) {
+                    dependent.getDependencies().removeIf(dep -> dep.getDependency().getId().equals(id));
+                }
+                log.info("Removed task ID=" + id + " from the dependencies of " + dependentIds.size() + " tasks");
+            }
+            graphIndex.removeTask(task.getProjectCode(), id);
+            // the dependents lost a dependency row, their versions go up as well
+            List<Long> changedIds = new ArrayList<>(dependentIds);
+            changedIds.add(id);
+            incrementalScheduler.tasksChanged(task.getProjectCode(), changedIds);
+            changeFeed.publish(task.getProjectCode(), "task-deleted", () -> new TaskChangeDTO(id));
+        }
         taskRepository.deleteById(id);
         log.info("Task with ID=" + id + " is deleted");
     }
 
+    /**
+     * Finds every task downstream of the task and how a slip of the task moves them.
+     * The downstream tasks come from the reverse edges of the project graph, only they are propagated
+     * from the last schedule of the project and only they are loaded.
+     *
+     * @param taskId the task that slips
+     * @param slipDays working days the end of the task moves out, 0 to only list the downstream tasks
+     * @return the downstream tasks with their dates before and after the slip, the floats of the task
+     *              and the project finish before and after the slip
+     * @throws BadRequestException if the task does not exist or the slip is negative or more than {@link #MAX_SLIP} days
+     */
+    @Timed(value = "planner.task.impact", description = "Time to compute the downstream impact of one task", histogram = true)
+    public TaskImpactDTO getTaskImpact(Long taskId, long slipDays){
+        if (slipDays < 0) {
+            throw new BadRequestException("Slip days cannot be negative");
+        }
+        if (slipDays > MAX_SLIP) {
+            throw new BadRequestException("Slip days cannot be more than " + MAX_SLIP);
+        }
+        Task task = taskRepository.findById(taskId).orElseThrow(() -> {
+            log.info("Task with ID= " + taskId + " not found");
+            return new BadRequestException("Task not found");
+        });
+        IncrementalScheduler.Impact impact = incrementalScheduler.impact(task.getProjectCode(), taskId, slipDays);
+
+        ScheduleAnalysis baseline = impact.getBaseline();
+        ScheduleState slipped = impact.getSlipped();
+        CalendarIndex calendar = impact.getCalendar();
+        DependencyGraph graph = baseline.graph();
+        List<Long> downstreamIds = new ArrayList<>(impact.getDownstream().length);
+        for (int i : impact.getDownstream()) {
+            downstreamIds.add(graph.idAt(i));
+        }
+        Map<Long, Task> byId = new HashMap<>();
+        for (Task t : taskRepository.findAllById(downstreamIds)) {
+            byId.put(t.getId(), t);
+        }
+
+        int index = graph.indexOf(taskId);
+        long newFinish = Math.max(baseline.projectFinish(), slipped.endOf(index));
+        List<DownstreamTaskDTO> downstream = new ArrayList<>(impact.getDownstream().length);
+        for (int i : impact.getDownstream()) {
+            Task t = byId.get(graph.idAt(i));
+            if (t == null) {
+                // deleted after the impact was computed
+                continue;
+            }
+            DownstreamTaskDTO dto = new DownstreamTaskDTO(t.getId(), t.getName(), t.getStatus());
+            boolean direct = false;
+            for (int k = graph.dependencyStart(i); k < graph.dependencyEnd(i) && !direct; k++) {
+                direct = graph.dependencyAt(k) == index;
+            }
+            dto.setDirect(direct);
+            dto.setCritical(baseline.isCritical(i));
+            dto.setStartDate(calendar.toDate(baseline.earlyStart(i)));
+            dto.setEndDate(calendar.toDate(baseline.earlyFinish(i)));
+            dto.setNewStartDate(calendar.toDate(slipped.startOf(i)));
+            dto.setNewEndDate(calendar.toDate(slipped.endOf(i)));
+            dto.setShift(slipped.startOf(i) - baseline.earlyStart(i));
+            downstream.add(dto);
+            newFinish = Math.max(newFinish, slipped.endOf(i));
+        }
+
+        TaskImpactDTO result = new TaskImpactDTO(taskId, task.getName(), slipDays, downstream);
+        result.setTotalFloat(baseline.totalFloat(index));
+        result.setFreeFloat(baseline.freeFloat(index));
+        result.setProjectFinish(calendar.toDate(baseline.projectFinish()));
+        result.setNewProjectFinish(calendar.toDate(newFinish));
+        result.setProjectDelay(newFinish - baseline.projectFinish());
+        return result;
+    }
+
     /**
      * Displays the task details by ID
      *
@@ -179,196 +627,450 @@ public class TaskService {
     }
 
     /**
-     * Checker for circular dependency
+     * Locks the project for a dependency change: the project graph is locked on this node and the project
+     * version is raised on commit, so a concurrent dependency change on another node fails its version check
      *
-     * @param task The task being checked
-     * @param dependency The dependency to be checked
-     * @return true if circular dependency is detected, false if not
+     * @param projectCode project code of the changed tasks
      */
-    private boolean willLoop(Task task, Task dependency){
-        Set<Long> visited = new HashSet<>();
-        return isDependentOn(dependency, task.getId(), visited);
+    private void lockDependencyChange(String projectCode){
+        // queue behind the writers of this node first, so they do not conflict with each other
+        graphIndex.lock(projectCode);
+        Project project = projectRepository.lockForDependencyChange(projectCode);
+        graphIndex.lockForDependencyChange(projectCode, project.getVersion());
     }
 
     /**
-     * Recursive checker for circular dependency
-     * @param current dependency that is being checked
-     * @param targetId ID of parent task where the dependency task being added
-     * @param visited list of IDs that are checked
-     * @return true if circular dependency is detected, false if none is detected
+     * Merges the plain dependency IDs and the typed dependency links of a create or update request
+     *
+     * @param dependencyIds IDs of dependencies that are FS without lag, can be null
+     * @param links dependencies with a type and lag, can be null
+     * @return type and lag of every dependency by its ID, in the order of the request
+     * @throws BadRequestException if a link has no dependency ID or its lag is out of range
      */
-    private boolean isDependentOn(Task current, Long targetId, Set<Long> visited){
+    public Map<Long, DependencyLinkDTO> dependencyLinks(List<Long> dependencyIds, List<DependencyLinkDTO> links){
+        if (links != null) {
+            for (DependencyLinkDTO link : links) {
+                if (link.getDependencyId() == null) {
+                    throw new BadRequestException("Dependency link needs a dependencyId");
+                }
+            }
+        }
+        return mergeLinks(dependencyIds, links, DependencyLinkDTO::getDependencyId);
+    }
 
-        log.info("Checking task dependency ID=" + current.getId() + "for potential dependency looping. IDS visited: " + visited);
-        if(current.getId().equals(targetId)){
-            return true;
+    /**
+     * Gives every plain dependency and every link a type and lag, a link wins over a plain dependency
+     */
+    private <K> Map<K, DependencyLinkDTO> mergeLinks(List<K> plain, List<DependencyLinkDTO> links,
+                                                     Function<DependencyLinkDTO, K> key){
+        Map<K, DependencyLinkDTO> merged = new LinkedHashMap<>();
+        if (plain != null) {
+            for (K dependency : plain) {
+                merged.put(dependency, link(dependency, DependencyType.FS, 0));
+            }
         }
-        if(visited.contains(current.getId())){
-            log.info("no circular dependency detected");
-            return false;
+        if (links != null) {
+            for (DependencyLinkDTO link : links) {
+                int lag = link.getLag() != null ? link.getLag() : 0;
+                if (lag < -MAX_LAG || lag > MAX_LAG) {
+                    throw new BadRequestException("Lag of a dependency must be between -" + MAX_LAG + " and " + MAX_LAG + " days");
+                }
+                merged.put(key.apply(link), link(key.apply(link), link.getType() != null ? link.getType() : DependencyType.FS, lag));
+            }
         }
-        visited.add(current.getId());
+        return merged;
+    }
 
+    private static DependencyLinkDTO link(Object dependency, DependencyType type, int lag){
+        DependencyLinkDTO link = new DependencyLinkDTO(null, type, lag);
+        if (dependency instanceof Long id) {
+            link.setDependencyId(id);
+        } else {
+            link.setDependencyKey((String) dependency);
+        }
+        return link;
+    }
 
-        for (Task dep : current.getDependencies()){
-            if(isDependentOn(dep, targetId, visited)){
-                log.info("circular dependency detected");
-                return true;
-            }
+    /**
+     * Turns the dependencies of a saved task into rows of the dependency graph
+     */
+    private List<TaskEdgeDTO> dependencyRows(Task task){
+        List<TaskEdgeDTO> rows = new ArrayList<>(task.getDependencies().size());
+        for (TaskDependency dep : task.getDependencies()) {
+            rows.add(new TaskEdgeDTO(task.getId(), dep.getDependency().getId(), dep.getType(), dep.getLag()));
         }
+        return rows;
+    }
 
-        log.info("no circular dependency detected");
-        return false;
+    /**
+     * Collects the IDs of the dependencies
+     *
+     * @param dependencies dependencies of a task, can be null
+     * @return set of dependency IDs
+     */
+    private Set<Long> dependencyIds(Set<TaskDependency> dependencies){
+        Set<Long> ids = new HashSet<>();
+        if (dependencies != null) {
+            for (TaskDependency dep : dependencies) {
+                ids.add(dep.getDependency().getId());
+            }
+        }
+        return ids;
     }
 
     /**
      * generates a schedule for the project using its ID
      *
      * @param projectId id of the project
-     * @return a map containing array of task in order, duration of the project in days
+     * @return the tasks the run moved in topological order, duration and critical path of the whole project,
+     *              number of tasks written
      */
     @Transactional
+    @Timed(value = "planner.schedule.generate", description = "Time to schedule one project", histogram = true)
     public ProjectScheduleDTO generateSchedule(Long projectId){
         Project project = projectRepository.findById(projectId).orElseThrow(() -> {
             log.info("Cannot find project with ID: " + projectId);
             return new BadRequestException("Cannot find project with ID: " + projectId);
         });
 
-        List<Task> tasks = project.getTasks();
-        if(tasks == null || tasks.isEmpty()){
+        if(!taskRepository.existsByProjectCode(project.getCode())){
             log.info("Project with ID: " + projectId + " has no tasks. Cannot generate a schedule");
             throw new BadRequestException("Project with ID: " + projectId + " has no tasks. Cannot generate a schedule");
         }
 
-        List<Task> sortedTasks = sortTask(tasks);
-
-        //adjust dates of task depends on the sorting
-        for(Task task: sortedTasks){
-            if(task.getDependencies() != null && !task.getDependencies().isEmpty()){
-                LocalDate latestEnd = task.getDependencies()
-                        .stream()
-                        .map(Task::getEndDate)
-                        .max(LocalDate::compareTo)
-                        .orElse(task.getStartDate());
+        // only the tasks moved since the last schedule are written, as batched updates on flush
+        IncrementalScheduler.Result result = incrementalScheduler.schedule(project.getCode());
+        List<Task> changedTasks = result.getChangedTasks();
+        taskRepository.saveAll(changedTasks);
+        log.info("Scheduled project ID: " + projectId + ", " + changedTasks.size() + " of "
+                + result.getGraph().size() + " tasks changed");
+
+        ProjectScheduleDTO schedule = toSchedule(project, result);
+        schedule.setChangedTasks(changedTasks.size());
+        publishSchedule(project, schedule, changedTasks);
+        return schedule;
+    }
 
+    /**
+     * computes the schedule and critical path analysis of the project from the stored tasks without writing anything.
+     * Task dates are returned as stored, the computed dates are the early start and finish of every task.
+     *
+     * @param projectId id of the project
+     * @return the tasks in order with their early/late dates and floats, the duration and critical tasks of the project
+     */
+    public ProjectScheduleDTO analyzeSchedule(Long projectId){
+        Project project = findProjectWithTasks(projectId);
+        return toSchedule(project, incrementalScheduler.analyze(project.getCode(), project.getTasks()));
+    }
 
-                LocalDate newStart = latestEnd.plusDays(1);
-                LocalDate newEnd = newStart.plusDays(task.getDuration() - 1);
+    /**
+     * schedules the project with proposed changes applied to an in-memory copy, nothing is written.
+     * The baseline is the schedule of the stored tasks, the same as {@link #analyzeSchedule(Long)}.
+     *
+     * @param projectId id of the project
+     * @param request new start dates, durations and added/removed dependencies by task ID
+     * @return the schedule with the changes, the baseline duration and finish, and every task that moved
+     *              or became critical or non-critical
+     * @throws BadRequestException if the project does not exist or has no tasks, a task or dependency is not
+     *                              in the project, a duration is less than 1 day or the changes create a circular dependency
+     */
+    @Timed(value = "planner.schedule.what-if", description = "Time to schedule a what-if scenario", histogram = true)
+    public WhatIfScheduleDTO whatIfSchedule(Long projectId, WhatIfRequestDTO request){
+        List<WhatIfChangeDTO> changes = request.getChanges();
+        if (changes == null || changes.isEmpty()) {
+            throw new BadRequestException("No changes to apply");
+        }
+        Project project = findProjectWithTasks(projectId);
+        List<Task> tasks = project.getTasks();
+        Set<Long> taskIds = new HashSet<>();
+        for (Task task : tasks) {
+            taskIds.add(task.getId());
+        }
 
-                task.setStartDate(newStart);
-                task.setEndDate(newEnd);
+        Map<Long, Set<Long>> added = new HashMap<>();
+        Map<Long, Set<Long>> removed = new HashMap<>();
+        Map<Long, LocalDate> starts = new HashMap<>();
+        Map<Long, Long> durations = new HashMap<>();
+        for (WhatIfChangeDTO change : changes) {
+            Long taskId = change.getTaskId();
+            if (taskId == null || !taskIds.contains(taskId)) {
+                throw new BadRequestException("Task ID=" + taskId + " is not in project " + project.getCode());
+            }
+            if (change.getStartDate() != null) {
+                starts.put(taskId, change.getStartDate());
+            }
+            if (change.getDuration() != null) {
+                if (change.getDuration() < 1) {
+                    throw new BadRequestException("Duration of task ID=" + taskId + " must be at least 1 day");
+                }
+                durations.put(taskId, change.getDuration());
+            }
+            if (change.getAddDependencyIds() != null) {
+                for (Long id : change.getAddDependencyIds()) {
+                    if (!taskIds.contains(id)) {
+                        throw new BadRequestException("Cannot add dependency. ID=" + id + " is invalid");
+                    }
+                    added.computeIfAbsent(taskId, key -> new HashSet<>()).add(id);
+                }
+            }
+            if (change.getRemoveDependencyIds() != null) {
+                removed.computeIfAbsent(taskId, key -> new HashSet<>()).addAll(change.getRemoveDependencyIds());
             }
         }
 
-        taskRepository.saveAll(sortedTasks);
-        LocalDate minStart = sortedTasks.stream()
-                .map(Task::getStartDate)
-                .min(LocalDate::compareTo)
-                .orElseThrow(() -> {
-                    log.info("Error on getting earliest start date");
-                    return new BadRequestException("Error on getting earliest start date");
-                });
-
-        LocalDate maxEnd = sortedTasks.stream()
-                .map(Task::getEndDate)
-                .max(LocalDate::compareTo)
-                .orElseThrow(() -> {
-                    log.info("Error on getting latest end date");
-                    return new BadRequestException("Error on getting latest end date");
-                });
-
-        long totalDays = ChronoUnit.DAYS.between(minStart, maxEnd) + 1;
-
-        //Map<String, Object> response = new HashMap<>();
-        //response.put("tasks", TaskMapper.toDTOList(sortedTasks));
-        //response.put("projectDuration", totalDays);
-
-        //return response;
+        IncrementalScheduler.Result baseline = incrementalScheduler.analyze(project.getCode(), tasks);
+        IncrementalScheduler.Result scenario = incrementalScheduler.whatIf(project.getCode(), tasks,
+                added, removed, starts, durations);
+
+        // the tasks of the scenario carry its computed dates instead of the stored ones
+        ProjectScheduleDTO schedule = toSchedule(project, scenario);
+        ScheduleAnalysis before = baseline.getAnalysis();
+        ScheduleAnalysis after = scenario.getAnalysis();
+        CalendarIndex calendar = baseline.getCalendar();
+        List<TaskShiftDTO> shifts = new ArrayList<>();
+        for (TaskDTO dto : schedule.getTasks()) {
+            int index = after.graph().indexOf(dto.getId());
+            int baselineIndex = before.graph().indexOf(dto.getId());
+            dto.setStartDate(dto.getEarlyStart());
+            dto.setEndDate(dto.getEarlyFinish());
+            dto.setDuration(after.earlyFinish(index) - after.earlyStart(index) + 1);
+
+            long startShift = after.earlyStart(index) - before.earlyStart(baselineIndex);
+            long endShift = after.earlyFinish(index) - before.earlyFinish(baselineIndex);
+            boolean baselineCritical = before.isCritical(baselineIndex);
+            if (startShift != 0 || endShift != 0 || baselineCritical != after.isCritical(index)) {
+                TaskShiftDTO shift = new TaskShiftDTO(dto.getId(), dto.getName());
+                shift.setBaselineStart(calendar.toDate(before.earlyStart(baselineIndex)));
+                shift.setBaselineEnd(calendar.toDate(before.earlyFinish(baselineIndex)));
+                shift.setStartDate(dto.getStartDate());
+                shift.setEndDate(dto.getEndDate());
+                shift.setStartShift(startShift);
+                shift.setEndShift(endShift);
+                shift.setBaselineCritical(baselineCritical);
+                shift.setCritical(after.isCritical(index));
+                shifts.add(shift);
+            }
+        }
 
-        return new ProjectScheduleDTO(
-                project.getId(),
-                project.getName(),
-                totalDays,
-                TaskMapper.toDTOList(sortedTasks)
-        );
+        long baselineDuration = before.projectFinish() - before.projectStart() + 1;
+        WhatIfScheduleDTO result = new WhatIfScheduleDTO(schedule, shifts);
+        result.setBaselineDuration(baselineDuration);
+        result.setBaselineFinish(calendar.toDate(before.projectFinish()));
+        result.setDurationChange(schedule.getProjectDuration() - baselineDuration);
+        log.info("Computed what-if schedule of project ID: " + projectId + " with " + changes.size()
+                + " changes, " + shifts.size() + " tasks moved");
+        return result;
     }
 
     /**
-     * Generates a schedule for all projects in the database
+     * levels the schedule of the project so no resource is used over its daily capacity.
+     * Tasks compete for a resource by their slack in the schedule without resources, least slack first.
+     * Applied, a task a resource holds after its dependencies keeps its leveled start as a start constraint,
+     * so later schedule runs do not move it back. Leveling again replaces the constraints of every task.
      *
-     * @return A list of map containing id of project, name of project, tasks under it, and project duration
+     * @param projectId id of the project
+     * @param apply true to save the leveled dates, false to only return them
+     * @return the tasks in order with their leveled dates and analysis, the number of tasks delayed by
+     *              a resource and, when applied, the number of tasks written
+     * @throws BadRequestException if the project does not exist or has no tasks
      */
     @Transactional
-    public List<ProjectScheduleDTO> generateAllSchedule(){
-        List<Project> projects = projectRepository.findAll();
-        if(projects == null || projects.isEmpty()){
-            throw new BadRequestException("No projects found");
-        }
-
-        List<ProjectScheduleDTO> allSchedules = new ArrayList<>();
+    @Timed(value = "planner.schedule.level", description = "Time to level one project", histogram = true)
+    public ProjectScheduleDTO levelSchedule(Long projectId, boolean apply){
+        Project project = findProjectWithTasks(projectId);
+        List<Task> tasks = project.getTasks();
 
-        for(Project project: projects){
+        Set<Long> resourceIds = new HashSet<>();
+        for (Task task : tasks) {
+            if (task.getResource() != null) {
+                resourceIds.add(task.getResource().getId());
+            }
+        }
+        Map<Long, Integer> capacities = new HashMap<>();
+        for (Resource resource : resourceRepository.findAllById(resourceIds)) {
+            capacities.put(resource.getId(), resource.getCapacity());
+        }
 
-            allSchedules.add(generateSchedule(project.getId()));
+        if (apply) {
+            graphIndex.lock(project.getCode());
+        }
+        IncrementalScheduler.Result result = incrementalScheduler.level(project.getCode(), tasks, capacities);
+        ScheduleAnalysis analysis = result.getAnalysis();
+        CalendarIndex calendar = result.getCalendar();
+
+        List<Task> changedTasks = new ArrayList<>();
+        if (apply) {
+            for (Task task : tasks) {
+                int index = analysis.graph().indexOf(task.getId());
+                LocalDate start = calendar.toDate(analysis.earlyStart(index));
+                LocalDate end = calendar.toDate(analysis.earlyFinish(index));
+                LocalDate notBefore = result.getHeld().contains(task.getId()) ? start : null;
+                if (!start.equals(task.getStartDate()) || !end.equals(task.getEndDate())
+                        || !Objects.equals(notBefore, task.getStartNoEarlierThan())) {
+                    task.setStartDate(start);
+                    task.setEndDate(end);
+                    task.setStartNoEarlierThan(notBefore);
+                    changedTasks.add(task);
+                }
+            }
+            taskRepository.saveAll(changedTasks);
+            List<Long> changedIds = new ArrayList<>(changedTasks.size());
+            for (Task task : changedTasks) {
+                changedIds.add(task.getId());
+            }
+            incrementalScheduler.tasksChanged(project.getCode(), changedIds);
         }
 
-        return allSchedules;
+        // the leveled dates are the early dates of the analysis
+        ProjectScheduleDTO schedule = toSchedule(project, result);
+        for (TaskDTO dto : schedule.getTasks()) {
+            dto.setStartDate(dto.getEarlyStart());
+            dto.setEndDate(dto.getEarlyFinish());
+        }
+        schedule.setDelayedTasks(result.getDelayed());
+        if (apply) {
+            schedule.setChangedTasks(changedTasks.size());
+            publishSchedule(project, schedule, changedTasks);
+        }
+        log.info("Leveled project ID: " + projectId + ", " + result.getDelayed() + " of " + tasks.size()
+                + " tasks delayed by resources" + (apply ? ", " + changedTasks.size() + " tasks changed" : ""));
+        return schedule;
     }
 
     /**
-     * sorts the task by its date
-     * 
-     * @param tasks list of tasks under the project
-     * @return list of tasks in order
+     * publishes the tasks moved by a saved schedule run to the change feed, a run that moved nothing is not published
      */
-    private  List<Task> sortTask(List<Task> tasks){
-        List<Task> result = new ArrayList<>();
-        Set<Task> visited = new HashSet<>();
+    private void publishSchedule(Project project, ProjectScheduleDTO schedule, List<Task> changedTasks){
+        if (changedTasks.isEmpty()) {
+            return;
+        }
+        changeFeed.publish(project.getCode(), "schedule", () -> {
+            List<TaskChangeDTO> moved = new ArrayList<>(changedTasks.size());
+            for (Task task : changedTasks) {
+                moved.add(TaskMapper.toMovedDTO(task));
+            }
+            return new ScheduleChangeDTO(project.getId(), schedule.getProjectDuration(), schedule.getProjectStart(),
+                    schedule.getProjectFinish(), moved);
+        });
+    }
 
-        for(Task task : tasks){
-            sortDependencies(task, visited, result);
+    /**
+     * @param before name, status and dates of the task before the update
+     * @param task the updated task
+     * @param dependenciesChanged true if the dependencies, their types or lags changed
+     * @return the changed fields for the change feed, null if none of them changed
+     */
+    private TaskChangeDTO changes(TaskChangeDTO before, Task task, boolean dependenciesChanged){
+        TaskChangeDTO change = new TaskChangeDTO(task.getId());
+        boolean changed = false;
+        if (!Objects.equals(before.getName(), task.getName())) {
+            change.setName(task.getName());
+            changed = true;
+        }
+        if (!Objects.equals(before.getStatus(), statusName(task))) {
+            change.setStatus(statusName(task));
+            changed = true;
+        }
+        if (!Objects.equals(before.getStartDate(), task.getStartDate()) || !Objects.equals(before.getEndDate(), task.getEndDate())) {
+            change.setStartDate(task.getStartDate());
+            change.setEndDate(task.getEndDate());
+            changed = true;
         }
+        if (dependenciesChanged) {
+            change.setDependencies(TaskMapper.toDependencyDTOList(task.getDependencies()));
+            changed = true;
+        }
+        return changed ? change : null;
+    }
 
-        return result;
+    /** an update may leave the status of a task empty */
+    private static String statusName(Task task){
+        return task.getStatus() != null ? task.getStatus().name() : null;
     }
 
     /**
-     * a recursive function for sorting the task based on its dependencies
+     * loads the project and all of its tasks in one query
      *
-     * @param task task being checked
-     * @param visited list of IDs checked
-     * @param result sorted task
+     * @param projectId id of the project
+     * @return the project with its tasks
+     * @throws BadRequestException if the project does not exist or has no tasks
      */
-    private void sortDependencies(Task task, Set<Task> visited, List<Task> result){
+    private Project findProjectWithTasks(Long projectId){
+        Project project = projectRepository.findByIdWithTasks(projectId).orElseThrow(() -> {
+            log.info("Cannot find project with ID: " + projectId);
+            return new BadRequestException("Cannot find project with ID: " + projectId);
+        });
 
-        //avoid infinite recursion
-        if(visited.contains(task)){
-            return;
+        List<Task> tasks = project.getTasks();
+        if(tasks == null || tasks.isEmpty()){
+            log.info("Project with ID: " + projectId + " has no tasks. Cannot compute a schedule");
+            throw new BadRequestException("Project with ID: " + projectId + " has no tasks. Cannot compute a schedule");
         }
+        return project;
+    }
 
-        visited.add(task);
-
-        // check for dependencies
-        if(task.getDependencies() != null){
-            for(Task dep:task.getDependencies()){
-                sortDependencies(dep, visited, result);
+    /**
+     * maps a schedule run, the project duration is the number of working days from the earliest start
+     * to the latest finish of the computed dates. The critical tasks come from the analysis of every task,
+     * also when the result only holds the moved tasks
+     */
+    private ProjectScheduleDTO toSchedule(Project project, IncrementalScheduler.Result result){
+        List<Task> sortedTasks = result.getSortedTasks();
+        ScheduleAnalysis analysis = result.getAnalysis();
+        long totalDays = analysis.projectFinish() - analysis.projectStart() + 1;
+
+        Map<Long, List<DependencyDTO>> dependencies;
+        if (sortedTasks.size() < result.getGraph().size()) {
+            // only the moved tasks are loaded, the names of their dependencies are read with one query
+            List<Long> taskIds = new ArrayList<>(sortedTasks.size());
+            for (Task task : sortedTasks) {
+                taskIds.add(task.getId());
+            }
+            dependencies = getDependenciesByTaskIds(taskIds);
+        } else {
+            dependencies = TaskMapper.groupDependencies(result.getGraph(), sortedTasks);
+        }
+        List<TaskDTO> taskDTOs = TaskMapper.toDTOList(sortedTasks, dependencies);
+        for (TaskDTO dto : taskDTOs) {
+            TaskMapper.setAnalysis(dto, analysis, result.getCalendar());
+        }
+        List<Long> criticalTasks = new ArrayList<>();
+        for (int index : result.getGraph().topologicalOrder()) {
+            if (analysis.isCritical(index)) {
+                criticalTasks.add(result.getGraph().idAt(index));
             }
         }
 
-        //adds the deepest dependency task first
-        result.add(task);
+        ProjectScheduleDTO schedule = new ProjectScheduleDTO(
+                project.getId(),
+                project.getName(),
+                totalDays,
+                taskDTOs
+        );
+        schedule.setCriticalPath(result.getCriticalPath());
+        schedule.setCriticalTasks(criticalTasks);
+        schedule.setProjectStart(result.getCalendar().toDate(analysis.projectStart()));
+        schedule.setProjectFinish(result.getCalendar().toDate(analysis.projectFinish()));
+        return schedule;
     }
 
     /**
-     * Calculates the duration of the task
+     * Calculates the duration of the task in working days of the project calendar
      *
      * @param start start date (YYYY-MM-DD)
      * @param end end date (YYYY-MM-DD)
+     * @param calendar calendar of the project
      * @return long duration of task
+     * @throws BadRequestException if there is no working day from start to end
      */
-    private long durationCalculator(LocalDate start, LocalDate end){
-        // start date counts as day 1
-        return ChronoUnit.DAYS.between(start, end) + 1;
+    private long durationCalculator(LocalDate start, LocalDate end, CalendarIndex calendar){
+        // start date counts as day 1 if it is a working day
+        long days = calendar.workingDays(start, end);
+        if (days < 1) {
+            log.info("No working day between " + start + " and " + end);
+            throw new BadRequestException("Task needs at least one working day between start date and end date");
+        }
+        return days;
     }
 
     /**
@@ -378,7 +1080,10 @@ public class TaskService {
      * @param end end date (YYYY-MM-DD)
      */
     private void validateDates(LocalDate start, LocalDate end) {
-        log.info("Validating dates: start=" + start + ", end=" + end );
+        // called once per task of a batch
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Validating dates: start=" + start + ", end=" + end);
+        }
         if (end.isBefore(start)) {
             log.info("End date cannot be before start date");
             throw new BadRequestException("End date cannot be before start date");
@@ -390,23 +1095,49 @@ public class TaskService {
     }
 
     /**
-     * Check if the start date of parent task is after the end date of dependency task
-     * @param task task to be checked for dependency dates
+     * Check if the start date of a task is within the bound of every dependency
+     * @param start start date of the task
+     * @param duration duration of the task in working days
+     * @param dependencies dependencies of the task with their type and lag
+     * @param calendar calendar of the project
      */
-    private void validateDependencyDates(Task task){
-        LocalDate parentStart = task.getStartDate().minusDays(1);
-        LocalDate dependencyEnd = task.getDependencies().stream()
-                .map(Task::getEndDate)
-                .max(LocalDate::compareTo)
-                .orElseThrow(() -> {
-                    log.info("Error on getting latest end date");
-                    return new BadRequestException("Error on getting latest end date");
-                });
+    private void validateDependencyDates(LocalDate start, long duration, Set<TaskDependency> dependencies, CalendarIndex calendar){
+        for (TaskDependency link : dependencies) {
+            Task dep = link.getDependency();
+            validateDependencyDate(start, duration, dep.getStartDate(), dep.getEndDate(), link.getType(), link.getLag(), calendar);
+        }
+    }
 
-        if(parentStart.isBefore(dependencyEnd)){
+    /**
+     * Check if the start date of a task is within the bound of one dependency, counted in working days
+     * @param start start date of the task
+     * @param duration duration of the task in working days
+     * @param dependencyStart start date of the dependency
+     * @param dependencyEnd end date of the dependency
+     * @param type type of the dependency
+     * @param lag lag of the dependency in working days
+     * @param calendar calendar of the project
+     */
+    private void validateDependencyDate(LocalDate start, long duration, LocalDate dependencyStart, LocalDate dependencyEnd,
+                                        DependencyType type, int lag, CalendarIndex calendar){
+        long bound = type.earliestStart(calendar.toDay(dependencyStart), calendar.endDay(dependencyEnd), lag, duration);
+        if (calendar.toDay(start) >= bound) {
+            return;
+        }
+        if (type == DependencyType.FS && lag == 0) {
             log.info("Cannot add dependency. Cannot set start date before the dependency task's end date.");
             throw new BadRequestException("Cannot add dependency. Cannot set start date before the dependency task's end date.");
         }
+        log.info("Cannot add dependency. " + type + " dependency with lag " + lag + " needs a start date on or after " + calendar.toDate(bound));
+        throw new BadRequestException("Cannot add dependency. " + type + " dependency with lag " + lag
+                + " needs a start date on or after " + calendar.toDate(bound));
+    }
+
+    /**
+     * Describes a task of a batch in error messages
+     */
+    private String label(CreateTaskBatchItemDTO item, int position){
+        return item.getKey() != null ? item.getKey() : "#" + (position + 1);
     }
 
     /**
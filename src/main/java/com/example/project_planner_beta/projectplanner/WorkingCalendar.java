@@ -0,0 +1,58 @@
+package com.example.project_planner_beta.projectplanner;
+
+import jakarta.persistence.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Working days of a project: the days of the week that are not worked, holidays,
+ * and dates that are worked even though they fall on the weekend
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_working_calendar_name", columnNames = "name"))
+public class WorkingCalendar {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "working_calendar_weekend", joinColumns = @JoinColumn(name = "calendar_id"))
+    @Column(name = "day_of_week", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Set<DayOfWeek> weekend = new HashSet<>();
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "working_calendar_holiday", joinColumns = @JoinColumn(name = "calendar_id"))
+    @Column(name = "holiday", nullable = false)
+    private Set<LocalDate> holidays = new HashSet<>();
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "working_calendar_working_day", joinColumns = @JoinColumn(name = "calendar_id"))
+    @Column(name = "working_day", nullable = false)
+    private Set<LocalDate> workingDays = new HashSet<>();
+
+    public WorkingCalendar() {}
+
+    //Getters Setters
+    public Long getId() {return id;}
+    public void setId(Long id) {this.id = id;}
+
+    public String getName() {return name;}
+    public void setName(String name) {this.name = name;}
+
+    public Set<DayOfWeek> getWeekend() {return weekend;}
+    public void setWeekend(Set<DayOfWeek> weekend) {this.weekend = weekend;}
+
+    public Set<LocalDate> getHolidays() {return holidays;}
+    public void setHolidays(Set<LocalDate> holidays) {this.holidays = holidays;}
+
+    public Set<LocalDate> getWorkingDays() {return workingDays;}
+    public void setWorkingDays(Set<LocalDate> workingDays) {this.workingDays = workingDays;}
+}
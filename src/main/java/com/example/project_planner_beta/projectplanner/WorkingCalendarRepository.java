@@ -0,0 +1,14 @@
+package com.example.project_planner_beta.projectplanner;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface WorkingCalendarRepository extends JpaRepository<WorkingCalendar, Long> {
+
+    /**
+     * retrieves a calendar by its unique name
+     *
+     * @param name name of the calendar
+     * @return the calendar, null if there is none
+     */
+    WorkingCalendar findByName(String name);
+}
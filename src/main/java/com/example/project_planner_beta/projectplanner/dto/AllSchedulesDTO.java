@@ -0,0 +1,19 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import java.util.List;
+
+public class AllSchedulesDTO {
+    private List<ProjectScheduleDTO> schedules;
+    private List<ScheduleFailureDTO> failures;
+
+    public AllSchedulesDTO(List<ProjectScheduleDTO> schedules, List<ScheduleFailureDTO> failures){
+        this.schedules = schedules;
+        this.failures = failures;
+    }
+
+    public List<ProjectScheduleDTO> getSchedules() {return schedules;}
+    public void setSchedules(List<ProjectScheduleDTO> schedules) {this.schedules = schedules;}
+
+    public List<ScheduleFailureDTO> getFailures() {return failures;}
+    public void setFailures(List<ScheduleFailureDTO> failures) {this.failures = failures;}
+}
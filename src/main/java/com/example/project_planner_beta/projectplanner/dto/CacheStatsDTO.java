@@ -0,0 +1,27 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+public class CacheStatsDTO {
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public CacheStatsDTO(int size, long hits, long misses, long evictions){
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public int getSize() {return size;}
+    public void setSize(int size) {this.size = size;}
+
+    public long getHits() {return hits;}
+    public void setHits(long hits) {this.hits = hits;}
+
+    public long getMisses() {return misses;}
+    public void setMisses(long misses) {this.misses = misses;}
+
+    public long getEvictions() {return evictions;}
+    public void setEvictions(long evictions) {this.evictions = evictions;}
+}
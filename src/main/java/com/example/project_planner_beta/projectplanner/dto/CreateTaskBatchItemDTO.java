@@ -0,0 +1,47 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class CreateTaskBatchItemDTO {
+    private String key;
+    private String name;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<Long> dependencyIds;
+    private List<String> dependencyKeys;
+    // dependencies with a type or lag, a dependency also in dependencyIds or dependencyKeys takes the type and lag given here
+    private List<DependencyLinkDTO> dependencyLinks;
+    // resource the task is assigned to and units of it used per day, optional
+    private Long resourceId;
+    private Integer resourceUnits;
+
+    //getters setters
+
+    public String getKey() {return key;}
+    public void setKey(String key) {this.key = key;}
+
+    public String getName() {return name;}
+    public void setName(String name) {this.name = name;}
+
+    public LocalDate getStartDate() {return startDate;}
+    public void setStartDate(LocalDate startDate) {this.startDate = startDate;}
+
+    public LocalDate getEndDate() {return endDate;}
+    public void setEndDate(LocalDate endDate) {this.endDate = endDate;}
+
+    public List<Long> getDependencyIds() {return dependencyIds;}
+    public void setDependencyIds(List<Long> dependencyIds) {this.dependencyIds = dependencyIds;}
+
+    public List<String> getDependencyKeys() {return dependencyKeys;}
+    public void setDependencyKeys(List<String> dependencyKeys) {this.dependencyKeys = dependencyKeys;}
+
+    public List<DependencyLinkDTO> getDependencyLinks() {return dependencyLinks;}
+    public void setDependencyLinks(List<DependencyLinkDTO> dependencyLinks) {this.dependencyLinks = dependencyLinks;}
+
+    public Long getResourceId() {return resourceId;}
+    public void setResourceId(Long resourceId) {this.resourceId = resourceId;}
+
+    public Integer getResourceUnits() {return resourceUnits;}
+    public void setResourceUnits(Integer resourceUnits) {this.resourceUnits = resourceUnits;}
+}
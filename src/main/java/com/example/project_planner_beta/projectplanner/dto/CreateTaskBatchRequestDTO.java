@@ -0,0 +1,16 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import java.util.List;
+
+public class CreateTaskBatchRequestDTO {
+    private String projectCode;
+    private List<CreateTaskBatchItemDTO> tasks;
+
+    //getters setters
+
+    public String getProjectCode() {return projectCode;}
+    public void setProjectCode(String projectCode) {this.projectCode = projectCode;}
+
+    public List<CreateTaskBatchItemDTO> getTasks() {return tasks;}
+    public void setTasks(List<CreateTaskBatchItemDTO> tasks) {this.tasks = tasks;}
+}
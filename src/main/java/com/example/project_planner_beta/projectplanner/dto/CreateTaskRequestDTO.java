@@ -9,6 +9,11 @@ public class CreateTaskRequestDTO {
     private LocalDate startDate;
     private LocalDate endDate;
     private List<Long> dependencyIds;
+    // dependencies with a type or lag, a dependency also in dependencyIds takes the type and lag given here
+    private List<DependencyLinkDTO> dependencyLinks;
+    // resource the task is assigned to and units of it used per day, optional
+    private Long resourceId;
+    private Integer resourceUnits;
 
     //getters setters
 
@@ -26,5 +31,14 @@ public class CreateTaskRequestDTO {
 
     public List<Long> getDependencyIds() {return dependencyIds;}
     public void setDependencyIds(List<Long> dependencyIds) {this.dependencyIds = dependencyIds;}
+
+    public List<DependencyLinkDTO> getDependencyLinks() {return dependencyLinks;}
+    public void setDependencyLinks(List<DependencyLinkDTO> dependencyLinks) {this.dependencyLinks = dependencyLinks;}
+
+    public Long getResourceId() {return resourceId;}
+    public void setResourceId(Long resourceId) {this.resourceId = resourceId;}
+
+    public Integer getResourceUnits() {return resourceUnits;}
+    public void setResourceUnits(Integer resourceUnits) {this.resourceUnits = resourceUnits;}
 }
 
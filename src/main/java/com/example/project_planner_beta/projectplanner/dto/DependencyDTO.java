@@ -1,8 +1,16 @@
 package com.example.project_planner_beta.projectplanner.dto;
 
+import com.example.project_planner_beta.projectplanner.DependencyType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class DependencyDTO {
     private Long id;
     private String name;
+    // only given for a dependency that is not finish-to-start without lag
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private DependencyType type;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer lag;
 
     public DependencyDTO(){}
 
@@ -26,4 +34,20 @@ public class DependencyDTO {
     public void setName(String name) {
         this.name = name;
     }
+
+    public DependencyType getType() {
+        return type;
+    }
+
+    public void setType(DependencyType type) {
+        this.type = type;
+    }
+
+    public Integer getLag() {
+        return lag;
+    }
+
+    public void setLag(Integer lag) {
+        this.lag = lag;
+    }
 }
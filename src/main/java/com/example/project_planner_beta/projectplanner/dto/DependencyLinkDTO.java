@@ -0,0 +1,34 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import com.example.project_planner_beta.projectplanner.DependencyType;
+
+/**
+ * A dependency with its type and lag in a create or update request.
+ * type is FS and lag 0 when not given, dependencyKey points to a task of the same batch.
+ */
+public class DependencyLinkDTO {
+    private Long dependencyId;
+    private String dependencyKey;
+    private DependencyType type;
+    private Integer lag;
+
+    public DependencyLinkDTO(){}
+
+    public DependencyLinkDTO(Long dependencyId, DependencyType type, Integer lag){
+        this.dependencyId = dependencyId;
+        this.type = type;
+        this.lag = lag;
+    }
+
+    public Long getDependencyId() {return dependencyId;}
+    public void setDependencyId(Long dependencyId) {this.dependencyId = dependencyId;}
+
+    public String getDependencyKey() {return dependencyKey;}
+    public void setDependencyKey(String dependencyKey) {this.dependencyKey = dependencyKey;}
+
+    public DependencyType getType() {return type;}
+    public void setType(DependencyType type) {this.type = type;}
+
+    public Integer getLag() {return lag;}
+    public void setLag(Integer lag) {this.lag = lag;}
+}
@@ -0,0 +1,58 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import com.example.project_planner_beta.projectplanner.TaskStatus;
+
+import java.time.LocalDate;
+
+public class DownstreamTaskDTO {
+    private Long taskId;
+    private String name;
+    private TaskStatus status;
+    // true if the task depends on the slipped task itself, false if it depends on it through other tasks
+    private Boolean direct;
+    private Boolean critical;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    // dates after the slip and the days they moved
+    private LocalDate newStartDate;
+    private LocalDate newEndDate;
+    private Long shift;
+
+    public DownstreamTaskDTO(){}
+
+    public DownstreamTaskDTO(Long taskId, String name, TaskStatus status){
+        this.taskId = taskId;
+        this.name = name;
+        this.status = status;
+    }
+
+    public Long getTaskId() {return taskId;}
+    public void setTaskId(Long taskId) {this.taskId = taskId;}
+
+    public String getName() {return name;}
+    public void setName(String name) {this.name = name;}
+
+    public TaskStatus getStatus() {return status;}
+    public void setStatus(TaskStatus status) {this.status = status;}
+
+    public Boolean getDirect() {return direct;}
+    public void setDirect(Boolean direct) {this.direct = direct;}
+
+    public Boolean getCritical() {return critical;}
+    public void setCritical(Boolean critical) {this.critical = critical;}
+
+    public LocalDate getStartDate() {return startDate;}
+    public void setStartDate(LocalDate startDate) {this.startDate = startDate;}
+
+    public LocalDate getEndDate() {return endDate;}
+    public void setEndDate(LocalDate endDate) {this.endDate = endDate;}
+
+    public LocalDate getNewStartDate() {return newStartDate;}
+    public void setNewStartDate(LocalDate newStartDate) {this.newStartDate = newStartDate;}
+
+    public LocalDate getNewEndDate() {return newEndDate;}
+    public void setNewEndDate(LocalDate newEndDate) {this.newEndDate = newEndDate;}
+
+    public Long getShift() {return shift;}
+    public void setShift(Long shift) {this.shift = shift;}
+}
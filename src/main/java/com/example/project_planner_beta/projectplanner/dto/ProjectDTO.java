@@ -1,11 +1,19 @@
 package com.example.project_planner_beta.projectplanner.dto;
 
+import com.example.project_planner_beta.projectplanner.JsonConfig;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
+@JsonFilter(JsonConfig.PROJECT_FIELDS)
 public class ProjectDTO {
     private Long id;
     private String name;
     private String code;
+    // null when the project uses the org default calendar
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long calendarId;
     private List<TaskDTO> tasks;
 
 
@@ -18,6 +26,9 @@ public class ProjectDTO {
     public String getCode() {return code;}
     public void setCode(String code) {this.code = code;}
 
+    public Long getCalendarId() {return calendarId;}
+    public void setCalendarId(Long calendarId) {this.calendarId = calendarId;}
+
     public List<TaskDTO> getTasks() {return tasks;}
     public void setTasks(List<TaskDTO> tasks) {this.tasks = tasks;}
 
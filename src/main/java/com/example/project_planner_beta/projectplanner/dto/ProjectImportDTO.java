@@ -0,0 +1,30 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+/**
+ * Result of a project import: the new project and how many tasks and dependency rows it got
+ */
+public class ProjectImportDTO {
+    private Long projectId;
+    private String code;
+    private int tasks;
+    private int dependencies;
+
+    public ProjectImportDTO(Long projectId, String code, int tasks, int dependencies){
+        this.projectId = projectId;
+        this.code = code;
+        this.tasks = tasks;
+        this.dependencies = dependencies;
+    }
+
+    public Long getProjectId() {return projectId;}
+    public void setProjectId(Long projectId) {this.projectId = projectId;}
+
+    public String getCode() {return code;}
+    public void setCode(String code) {this.code = code;}
+
+    public int getTasks() {return tasks;}
+    public void setTasks(int tasks) {this.tasks = tasks;}
+
+    public int getDependencies() {return dependencies;}
+    public void setDependencies(int dependencies) {this.dependencies = dependencies;}
+}
@@ -1,12 +1,27 @@
 package com.example.project_planner_beta.projectplanner.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
 import java.util.List;
 
 public class ProjectScheduleDTO {
     private Long projectId;
     private String projectName;
     private Long projectDuration;
+    // every task, only the tasks moved by a saved schedule run
     private List<TaskDTO> tasks;
+    private List<Long> criticalPath;
+    private LocalDate projectStart;
+    private LocalDate projectFinish;
+    // every task without float, the critical path is one chain of them
+    private List<Long> criticalTasks;
+    // tasks written by a schedule run, not set when nothing is saved
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer changedTasks;
+    // tasks pushed later by the capacity of their resource, only set by leveling
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer delayedTasks;
 
     public ProjectScheduleDTO(Long projectId, String projectName, Long projectDuration, List<TaskDTO> tasks){
         this.projectId = projectId;
@@ -26,4 +41,22 @@ public class ProjectScheduleDTO {
 
     public List<TaskDTO> getTasks() {return tasks;}
     public void setTasks(List<TaskDTO> tasks) {this.tasks = tasks;}
+
+    public List<Long> getCriticalPath() {return criticalPath;}
+    public void setCriticalPath(List<Long> criticalPath) {this.criticalPath = criticalPath;}
+
+    public LocalDate getProjectStart() {return projectStart;}
+    public void setProjectStart(LocalDate projectStart) {this.projectStart = projectStart;}
+
+    public LocalDate getProjectFinish() {return projectFinish;}
+    public void setProjectFinish(LocalDate projectFinish) {this.projectFinish = projectFinish;}
+
+    public List<Long> getCriticalTasks() {return criticalTasks;}
+    public void setCriticalTasks(List<Long> criticalTasks) {this.criticalTasks = criticalTasks;}
+
+    public Integer getChangedTasks() {return changedTasks;}
+    public void setChangedTasks(Integer changedTasks) {this.changedTasks = changedTasks;}
+
+    public Integer getDelayedTasks() {return delayedTasks;}
+    public void setDelayedTasks(Integer delayedTasks) {this.delayedTasks = delayedTasks;}
 }
@@ -0,0 +1,39 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A saved schedule run in a change feed: the new project dates and the tasks it moved
+ */
+public class ScheduleChangeDTO {
+    private Long projectId;
+    private long projectDuration;
+    private LocalDate projectStart;
+    private LocalDate projectFinish;
+    private List<TaskChangeDTO> movedTasks;
+
+    public ScheduleChangeDTO(Long projectId, long projectDuration, LocalDate projectStart, LocalDate projectFinish,
+                             List<TaskChangeDTO> movedTasks){
+        this.projectId = projectId;
+        this.projectDuration = projectDuration;
+        this.projectStart = projectStart;
+        this.projectFinish = projectFinish;
+        this.movedTasks = movedTasks;
+    }
+
+    public Long getProjectId() {return projectId;}
+    public void setProjectId(Long projectId) {this.projectId = projectId;}
+
+    public long getProjectDuration() {return projectDuration;}
+    public void setProjectDuration(long projectDuration) {this.projectDuration = projectDuration;}
+
+    public LocalDate getProjectStart() {return projectStart;}
+    public void setProjectStart(LocalDate projectStart) {this.projectStart = projectStart;}
+
+    public LocalDate getProjectFinish() {return projectFinish;}
+    public void setProjectFinish(LocalDate projectFinish) {this.projectFinish = projectFinish;}
+
+    public List<TaskChangeDTO> getMovedTasks() {return movedTasks;}
+    public void setMovedTasks(List<TaskChangeDTO> movedTasks) {this.movedTasks = movedTasks;}
+}
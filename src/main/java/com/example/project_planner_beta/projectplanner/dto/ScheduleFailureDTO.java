@@ -0,0 +1,17 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+public class ScheduleFailureDTO {
+    private Long projectId;
+    private String message;
+
+    public ScheduleFailureDTO(Long projectId, String message){
+        this.projectId = projectId;
+        this.message = message;
+    }
+
+    public Long getProjectId() {return projectId;}
+    public void setProjectId(Long projectId) {this.projectId = projectId;}
+
+    public String getMessage() {return message;}
+    public void setMessage(String message) {this.message = message;}
+}
@@ -0,0 +1,41 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import com.example.project_planner_beta.projectplanner.ScheduleJobStatus;
+
+import java.time.Instant;
+
+public class ScheduleJobDTO {
+    private String id;
+    private Long projectId;
+    private ScheduleJobStatus status;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    // ProjectScheduleDTO for a project job, AllSchedulesDTO for an all projects job
+    private Object result;
+    private String error;
+
+    public String getId() {return id;}
+    public void setId(String id) {this.id = id;}
+
+    public Long getProjectId() {return projectId;}
+    public void setProjectId(Long projectId) {this.projectId = projectId;}
+
+    public ScheduleJobStatus getStatus() {return status;}
+    public void setStatus(ScheduleJobStatus status) {this.status = status;}
+
+    public Instant getSubmittedAt() {return submittedAt;}
+    public void setSubmittedAt(Instant submittedAt) {this.submittedAt = submittedAt;}
+
+    public Instant getStartedAt() {return startedAt;}
+    public void setStartedAt(Instant startedAt) {this.startedAt = startedAt;}
+
+    public Instant getFinishedAt() {return finishedAt;}
+    public void setFinishedAt(Instant finishedAt) {this.finishedAt = finishedAt;}
+
+    public Object getResult() {return result;}
+    public void setResult(Object result) {this.result = result;}
+
+    public String getError() {return error;}
+    public void setError(String error) {this.error = error;}
+}
@@ -0,0 +1,49 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One task in a change feed event, only the fields that changed are given.
+ * A created task has all of them, a moved task only its dates.
+ */
+public class TaskChangeDTO {
+    private Long taskId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String name;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String status;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDate startDate;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDate endDate;
+    // the whole new dependency list, given when a dependency was added, removed or relinked
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<DependencyDTO> dependencies;
+
+    public TaskChangeDTO(){}
+
+    public TaskChangeDTO(Long taskId){
+        this.taskId = taskId;
+    }
+
+    public Long getTaskId() {return taskId;}
+    public void setTaskId(Long taskId) {this.taskId = taskId;}
+
+    public String getName() {return name;}
+    public void setName(String name) {this.name = name;}
+
+    public String getStatus() {return status;}
+    public void setStatus(String status) {this.status = status;}
+
+    public LocalDate getStartDate() {return startDate;}
+    public void setStartDate(LocalDate startDate) {this.startDate = startDate;}
+
+    public LocalDate getEndDate() {return endDate;}
+    public void setEndDate(LocalDate endDate) {this.endDate = endDate;}
+
+    public List<DependencyDTO> getDependencies() {return dependencies;}
+    public void setDependencies(List<DependencyDTO> dependencies) {this.dependencies = dependencies;}
+}
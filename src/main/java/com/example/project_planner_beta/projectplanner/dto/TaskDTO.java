@@ -1,10 +1,14 @@
 package com.example.project_planner_beta.projectplanner.dto;
 
 import com.example.project_planner_beta.projectplanner.TaskStatus;
+import com.example.project_planner_beta.projectplanner.JsonConfig;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.time.LocalDate;
 import java.util.List;
 
+@JsonFilter(JsonConfig.TASK_FIELDS)
 public class TaskDTO {
     private Long id;
     private String name;
@@ -14,6 +18,30 @@ public class TaskDTO {
     private LocalDate startDate;
     private LocalDate endDate;
     private List<DependencyDTO> dependencies;
+    private Long version;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long resourceId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer resourceUnits;
+    // leveled start the task is held at, schedule runs do not start it earlier
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDate startNoEarlierThan;
+
+    // critical path values, only set on schedules
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDate earlyStart;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDate earlyFinish;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDate lateStart;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDate lateFinish;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalFloat;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long freeFloat;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean critical;
 
     public Long getId() {return id;}
     public void setId(Long id) {this.id = id;}
@@ -38,4 +66,37 @@ public class TaskDTO {
 
     public List<DependencyDTO> getDependencies() {return dependencies;}
     public void setDependencies(List<DependencyDTO> dependencies) {this.dependencies = dependencies;}
+
+    public Long getVersion() {return version;}
+    public void setVersion(Long version) {this.version = version;}
+
+    public Long getResourceId() {return resourceId;}
+    public void setResourceId(Long resourceId) {this.resourceId = resourceId;}
+
+    public Integer getResourceUnits() {return resourceUnits;}
+    public void setResourceUnits(Integer resourceUnits) {this.resourceUnits = resourceUnits;}
+
+    public LocalDate getStartNoEarlierThan() {return startNoEarlierThan;}
+    public void setStartNoEarlierThan(LocalDate startNoEarlierThan) {this.startNoEarlierThan = startNoEarlierThan;}
+
+    public LocalDate getEarlyStart() {return earlyStart;}
+    public void setEarlyStart(LocalDate earlyStart) {this.earlyStart = earlyStart;}
+
+    public LocalDate getEarlyFinish() {return earlyFinish;}
+    public void setEarlyFinish(LocalDate earlyFinish) {this.earlyFinish = earlyFinish;}
+
+    public LocalDate getLateStart() {return lateStart;}
+    public void setLateStart(LocalDate lateStart) {this.lateStart = lateStart;}
+
+    public LocalDate getLateFinish() {return lateFinish;}
+    public void setLateFinish(LocalDate lateFinish) {this.lateFinish = lateFinish;}
+
+    public Long getTotalFloat() {return totalFloat;}
+    public void setTotalFloat(Long totalFloat) {this.totalFloat = totalFloat;}
+
+    public Long getFreeFloat() {return freeFloat;}
+    public void setFreeFloat(Long freeFloat) {this.freeFloat = freeFloat;}
+
+    public Boolean getCritical() {return critical;}
+    public void setCritical(Boolean critical) {this.critical = critical;}
 }
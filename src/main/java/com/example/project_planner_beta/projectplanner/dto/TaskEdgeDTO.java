@@ -0,0 +1,57 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import com.example.project_planner_beta.projectplanner.DependencyType;
+
+/**
+ * A single row of the task_dependencies join table.
+ * dependencyId is null for tasks that have no dependencies,
+ * dependencyName is only loaded by the queries used for listing tasks.
+ */
+public class TaskEdgeDTO {
+    private Long taskId;
+    private Long dependencyId;
+    private String dependencyName;
+    private DependencyType type;
+    private Integer lag;
+
+    public TaskEdgeDTO(Long taskId, Long dependencyId){
+        this.taskId = taskId;
+        this.dependencyId = dependencyId;
+    }
+
+    public TaskEdgeDTO(Long taskId, Long dependencyId, String dependencyName){
+        this.taskId = taskId;
+        this.dependencyId = dependencyId;
+        this.dependencyName = dependencyName;
+    }
+
+    public TaskEdgeDTO(Long taskId, Long dependencyId, DependencyType type, Integer lag){
+        this.taskId = taskId;
+        this.dependencyId = dependencyId;
+        this.type = type;
+        this.lag = lag;
+    }
+
+    public TaskEdgeDTO(Long taskId, Long dependencyId, String dependencyName, DependencyType type, Integer lag){
+        this.taskId = taskId;
+        this.dependencyId = dependencyId;
+        this.dependencyName = dependencyName;
+        this.type = type;
+        this.lag = lag;
+    }
+
+    public Long getTaskId() {return taskId;}
+    public void setTaskId(Long taskId) {this.taskId = taskId;}
+
+    public Long getDependencyId() {return dependencyId;}
+    public void setDependencyId(Long dependencyId) {this.dependencyId = dependencyId;}
+
+    public String getDependencyName() {return dependencyName;}
+    public void setDependencyName(String dependencyName) {this.dependencyName = dependencyName;}
+
+    public DependencyType getType() {return type;}
+    public void setType(DependencyType type) {this.type = type;}
+
+    public Integer getLag() {return lag;}
+    public void setLag(Integer lag) {this.lag = lag;}
+}
@@ -0,0 +1,52 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class TaskImpactDTO {
+    private Long taskId;
+    private String name;
+    private Long slipDays;
+    // days the task can slip before the project finish moves
+    private Long totalFloat;
+    private Long freeFloat;
+    private LocalDate projectFinish;
+    private LocalDate newProjectFinish;
+    private Long projectDelay;
+    // every task depending on the task directly or through other tasks, nearest first
+    private List<DownstreamTaskDTO> downstream;
+
+    public TaskImpactDTO(Long taskId, String name, Long slipDays, List<DownstreamTaskDTO> downstream){
+        this.taskId = taskId;
+        this.name = name;
+        this.slipDays = slipDays;
+        this.downstream = downstream;
+    }
+
+    public Long getTaskId() {return taskId;}
+    public void setTaskId(Long taskId) {this.taskId = taskId;}
+
+    public String getName() {return name;}
+    public void setName(String name) {this.name = name;}
+
+    public Long getSlipDays() {return slipDays;}
+    public void setSlipDays(Long slipDays) {this.slipDays = slipDays;}
+
+    public Long getTotalFloat() {return totalFloat;}
+    public void setTotalFloat(Long totalFloat) {this.totalFloat = totalFloat;}
+
+    public Long getFreeFloat() {return freeFloat;}
+    public void setFreeFloat(Long freeFloat) {this.freeFloat = freeFloat;}
+
+    public LocalDate getProjectFinish() {return projectFinish;}
+    public void setProjectFinish(LocalDate projectFinish) {this.projectFinish = projectFinish;}
+
+    public LocalDate getNewProjectFinish() {return newProjectFinish;}
+    public void setNewProjectFinish(LocalDate newProjectFinish) {this.newProjectFinish = newProjectFinish;}
+
+    public Long getProjectDelay() {return projectDelay;}
+    public void setProjectDelay(Long projectDelay) {this.projectDelay = projectDelay;}
+
+    public List<DownstreamTaskDTO> getDownstream() {return downstream;}
+    public void setDownstream(List<DownstreamTaskDTO> downstream) {this.downstream = downstream;}
+}
@@ -0,0 +1,54 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import java.time.LocalDate;
+
+public class TaskShiftDTO {
+    private Long taskId;
+    private String name;
+    private LocalDate baselineStart;
+    private LocalDate baselineEnd;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    // days the start and the end moved, negative when earlier
+    private Long startShift;
+    private Long endShift;
+    private Boolean baselineCritical;
+    private Boolean critical;
+
+    public TaskShiftDTO(){}
+
+    public TaskShiftDTO(Long taskId, String name){
+        this.taskId = taskId;
+        this.name = name;
+    }
+
+    public Long getTaskId() {return taskId;}
+    public void setTaskId(Long taskId) {this.taskId = taskId;}
+
+    public String getName() {return name;}
+    public void setName(String name) {this.name = name;}
+
+    public LocalDate getBaselineStart() {return baselineStart;}
+    public void setBaselineStart(LocalDate baselineStart) {this.baselineStart = baselineStart;}
+
+    public LocalDate getBaselineEnd() {return baselineEnd;}
+    public void setBaselineEnd(LocalDate baselineEnd) {this.baselineEnd = baselineEnd;}
+
+    public LocalDate getStartDate() {return startDate;}
+    public void setStartDate(LocalDate startDate) {this.startDate = startDate;}
+
+    public LocalDate getEndDate() {return endDate;}
+    public void setEndDate(LocalDate endDate) {this.endDate = endDate;}
+
+    public Long getStartShift() {return startShift;}
+    public void setStartShift(Long startShift) {this.startShift = startShift;}
+
+    public Long getEndShift() {return endShift;}
+    public void setEndShift(Long endShift) {this.endShift = endShift;}
+
+    public Boolean getBaselineCritical() {return baselineCritical;}
+    public void setBaselineCritical(Boolean baselineCritical) {this.baselineCritical = baselineCritical;}
+
+    public Boolean getCritical() {return critical;}
+    public void setCritical(Boolean critical) {this.critical = critical;}
+}
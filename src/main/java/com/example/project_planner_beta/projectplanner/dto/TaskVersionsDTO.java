@@ -0,0 +1,18 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+/**
+ * Number of tasks of a project and the sum of their row versions, changes whenever a task
+ * of the project is created, updated or deleted
+ */
+public class TaskVersionsDTO {
+    private long count;
+    private long versionSum;
+
+    public TaskVersionsDTO(Long count, Long versionSum){
+        this.count = count;
+        this.versionSum = versionSum;
+    }
+
+    public long getCount() {return count;}
+    public long getVersionSum() {return versionSum;}
+}
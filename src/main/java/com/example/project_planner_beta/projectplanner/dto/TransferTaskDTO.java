@@ -0,0 +1,53 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import com.example.project_planner_beta.projectplanner.TaskStatus;
+
+import java.time.LocalDate;
+
+/**
+ * A task in a project export. The ID is the one of the exporting environment, dependency rows
+ * of the export point to it. The resource is given by name, resourceUnits is null without a resource.
+ */
+public class TransferTaskDTO {
+    private Long id;
+    private String name;
+    private TaskStatus status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String resourceName;
+    private Integer resourceUnits;
+
+    public TransferTaskDTO(){}
+
+    public TransferTaskDTO(Long id, String name, TaskStatus status, LocalDate startDate, LocalDate endDate,
+                           String resourceName, Integer resourceUnits){
+        this.id = id;
+        this.name = name;
+        this.status = status;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.resourceName = resourceName;
+        this.resourceUnits = resourceUnits;
+    }
+
+    public Long getId() {return id;}
+    public void setId(Long id) {this.id = id;}
+
+    public String getName() {return name;}
+    public void setName(String name) {this.name = name;}
+
+    public TaskStatus getStatus() {return status;}
+    public void setStatus(TaskStatus status) {this.status = status;}
+
+    public LocalDate getStartDate() {return startDate;}
+    public void setStartDate(LocalDate startDate) {this.startDate = startDate;}
+
+    public LocalDate getEndDate() {return endDate;}
+    public void setEndDate(LocalDate endDate) {this.endDate = endDate;}
+
+    public String getResourceName() {return resourceName;}
+    public void setResourceName(String resourceName) {this.resourceName = resourceName;}
+
+    public Integer getResourceUnits() {return resourceUnits;}
+    public void setResourceUnits(Integer resourceUnits) {this.resourceUnits = resourceUnits;}
+}
@@ -11,6 +11,13 @@ public class UpdateTaskRequestDTO {
     private LocalDate startDate;
     private LocalDate endDate;
     private List<Long> dependencyIds;
+    // dependencies with a type or lag, a dependency also in dependencyIds takes the type and lag given here
+    private List<DependencyLinkDTO> dependencyLinks;
+    // resource the task is assigned to and units of it used per day, optional
+    private Long resourceId;
+    private Integer resourceUnits;
+    // version of the task the change was made on, optional
+    private Long version;
 
     //getters setters
     public String getName() {return name;}
@@ -27,6 +34,18 @@ public class UpdateTaskRequestDTO {
 
     public List<Long> getDependencyIds() {return dependencyIds;}
     public void setDependencyIds(List<Long> dependencyIds) {this.dependencyIds = dependencyIds;}
+
+    public List<DependencyLinkDTO> getDependencyLinks() {return dependencyLinks;}
+    public void setDependencyLinks(List<DependencyLinkDTO> dependencyLinks) {this.dependencyLinks = dependencyLinks;}
+
+    public Long getVersion() {return version;}
+    public void setVersion(Long version) {this.version = version;}
+
+    public Long getResourceId() {return resourceId;}
+    public void setResourceId(Long resourceId) {this.resourceId = resourceId;}
+
+    public Integer getResourceUnits() {return resourceUnits;}
+    public void setResourceUnits(Integer resourceUnits) {this.resourceUnits = resourceUnits;}
 }
 
 
@@ -0,0 +1,30 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class WhatIfChangeDTO {
+    private Long taskId;
+    // each value is optional, only the given ones are changed
+    private LocalDate startDate;
+    private Long duration;
+    private List<Long> addDependencyIds;
+    private List<Long> removeDependencyIds;
+
+    //getters setters
+
+    public Long getTaskId() {return taskId;}
+    public void setTaskId(Long taskId) {this.taskId = taskId;}
+
+    public LocalDate getStartDate() {return startDate;}
+    public void setStartDate(LocalDate startDate) {this.startDate = startDate;}
+
+    public Long getDuration() {return duration;}
+    public void setDuration(Long duration) {this.duration = duration;}
+
+    public List<Long> getAddDependencyIds() {return addDependencyIds;}
+    public void setAddDependencyIds(List<Long> addDependencyIds) {this.addDependencyIds = addDependencyIds;}
+
+    public List<Long> getRemoveDependencyIds() {return removeDependencyIds;}
+    public void setRemoveDependencyIds(List<Long> removeDependencyIds) {this.removeDependencyIds = removeDependencyIds;}
+}
@@ -0,0 +1,12 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import java.util.List;
+
+public class WhatIfRequestDTO {
+    private List<WhatIfChangeDTO> changes;
+
+    //getters setters
+
+    public List<WhatIfChangeDTO> getChanges() {return changes;}
+    public void setChanges(List<WhatIfChangeDTO> changes) {this.changes = changes;}
+}
@@ -0,0 +1,34 @@
+package com.example.project_planner_beta.projectplanner.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class WhatIfScheduleDTO {
+    // the schedule with the changes applied, nothing of it is saved
+    private ProjectScheduleDTO schedule;
+    private Long baselineDuration;
+    private LocalDate baselineFinish;
+    private Long durationChange;
+    // tasks whose dates or critical flag differ from the schedule without the changes
+    private List<TaskShiftDTO> shifts;
+
+    public WhatIfScheduleDTO(ProjectScheduleDTO schedule, List<TaskShiftDTO> shifts){
+        this.schedule = schedule;
+        this.shifts = shifts;
+    }
+
+    public ProjectScheduleDTO getSchedule() {return schedule;}
+    public void setSchedule(ProjectScheduleDTO schedule) {this.schedule = schedule;}
+
+    public Long getBaselineDuration() {return baselineDuration;}
+    public void setBaselineDuration(Long baselineDuration) {this.baselineDuration = baselineDuration;}
+
+    public LocalDate getBaselineFinish() {return baselineFinish;}
+    public void setBaselineFinish(LocalDate baselineFinish) {this.baselineFinish = baselineFinish;}
+
+    public Long getDurationChange() {return durationChange;}
+    public void setDurationChange(Long durationChange) {this.durationChange = durationChange;}
+
+    public List<TaskShiftDTO> getShifts() {return shifts;}
+    public void setShifts(List<TaskShiftDTO> shifts) {this.shifts = shifts;}
+}
@@ -0,0 +1,189 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Compiled working calendar: weekend days, holidays and extra working days turned into prefix sums.
+ *
+ * Every working day gets an ordinal, the number of working days before it counted from 1970-01-01,
+ * so "add N working days" is an addition on ordinals and "working days between" a subtraction.
+ * The ordinal of a day is the prefix sum of the weekly pattern (whole weeks times the working days
+ * per week plus a 7 entry prefix) corrected by the prefix sum of the exceptions before the day,
+ * found by binary search. Lookups are O(1) without exceptions and O(log exceptions) with them,
+ * and the index has no horizon, any date can be converted.
+ *
+ * The scheduler works on ordinals instead of epoch days, a calendar without weekend and holidays
+ * gives every day its epoch day as ordinal. Immutable, shared between threads.
+ */
+public final class CalendarIndex {
+
+    // epoch day 0 is a Thursday, week offsets below are counted from it
+    private static final DayOfWeek EPOCH_DAY_OF_WEEK = DayOfWeek.THURSDAY;
+
+    /** every day is a working day, ordinals are epoch days */
+    public static final CalendarIndex EVERY_DAY = of(Set.of(), Set.of(), Set.of());
+
+    private final int perWeek;
+    private final int[] weekPrefix;
+    private final int[] nthInWeek;
+    private final long[] exceptions;
+    private final long[] corrections;
+    private final long[] ordinalAfter;
+
+    private CalendarIndex(int perWeek, int[] weekPrefix, int[] nthInWeek, long[] exceptions, long[] corrections){
+        this.perWeek = perWeek;
+        this.weekPrefix = weekPrefix;
+        this.nthInWeek = nthInWeek;
+        this.exceptions = exceptions;
+        this.corrections = corrections;
+        // ordinal of the day after every exception, what toDate searches on
+        this.ordinalAfter = new long[exceptions.length];
+        for (int j = 0; j < exceptions.length; j++) {
+            ordinalAfter[j] = pattern(exceptions[j] + 1) + corrections[j + 1];
+        }
+    }
+
+    /**
+     * Compiles a calendar
+     *
+     * @param weekend days of the week that are not worked
+     * @param holidays dates that are not worked
+     * @param workingDays dates that are worked even if they fall on the weekend, a holiday on the same date wins
+     * @return the index of the calendar
+     * @throws IllegalArgumentException if every day of the week is a weekend day
+     */
+    public static CalendarIndex of(Set<DayOfWeek> weekend, Collection<LocalDate> holidays, Collection<LocalDate> workingDays){
+        int[] weekPrefix = new int[8];
+        int[] nthInWeek = new int[7];
+        int perWeek = 0;
+        for (int offset = 0; offset < 7; offset++) {
+            weekPrefix[offset] = perWeek;
+            if (!weekend.contains(EPOCH_DAY_OF_WEEK.plus(offset))) {
+                nthInWeek[perWeek++] = offset;
+            }
+        }
+        weekPrefix[7] = perWeek;
+        if (perWeek == 0) {
+            throw new IllegalArgumentException("A calendar needs at least one working day in the week");
+        }
+
+        // only dates that differ from the weekly pattern are exceptions, -1 for a holiday, +1 for an extra working day
+        long[][] changes = new long[holidays.size() + workingDays.size()][];
+        int count = 0;
+        for (LocalDate holiday : holidays) {
+            if (!weekend.contains(holiday.getDayOfWeek())) {
+                changes[count++] = new long[]{holiday.toEpochDay(), -1};
+            }
+        }
+        for (LocalDate workingDay : workingDays) {
+            if (weekend.contains(workingDay.getDayOfWeek()) && !holidays.contains(workingDay)) {
+                changes[count++] = new long[]{workingDay.toEpochDay(), 1};
+            }
+        }
+        Arrays.sort(changes, 0, count, (a, b) -> Long.compare(a[0], b[0]));
+
+        long[] exceptions = new long[count];
+        long[] corrections = new long[count + 1];
+        int size = 0;
+        for (int j = 0; j < count; j++) {
+            if (size > 0 && exceptions[size - 1] == changes[j][0]) {
+                continue;
+            }
+            exceptions[size] = changes[j][0];
+            corrections[size + 1] = corrections[size] + changes[j][1];
+            size++;
+        }
+        return new CalendarIndex(perWeek, weekPrefix, Arrays.copyOf(nthInWeek, perWeek),
+                Arrays.copyOf(exceptions, size), Arrays.copyOf(corrections, size + 1));
+    }
+
+    /** @return working days in a week */
+    public int workingDaysPerWeek() {return perWeek;}
+
+    public boolean isWorkingDay(LocalDate date){
+        long day = date.toEpochDay();
+        return ordinal(day + 1) > ordinal(day);
+    }
+
+    /** @return ordinal of the first working day on or after the date */
+    public long toDay(LocalDate date){
+        return ordinal(date.toEpochDay());
+    }
+
+    /** @return ordinal of the last working day on or before the date */
+    public long endDay(LocalDate date){
+        return ordinal(date.toEpochDay() + 1) - 1;
+    }
+
+    /** @return the working day with the ordinal */
+    public LocalDate toDate(long day){
+        return LocalDate.ofEpochDay(epochDay(day));
+    }
+
+    /** @return number of working days from start to end, both included */
+    public long workingDays(LocalDate start, LocalDate end){
+        return Math.max(0, ordinal(end.toEpochDay() + 1) - ordinal(start.toEpochDay()));
+    }
+
+    /** @return the working day the given number of working days after the first working day on or after the date */
+    public LocalDate addWorkingDays(LocalDate date, long days){
+        return toDate(toDay(date) + days);
+    }
+
+    /** number of working days before the epoch day */
+    private long ordinal(long day){
+        int before = exceptions.length == 0 ? 0 : lowerBound(exceptions, day);
+        return pattern(day) + corrections[before];
+    }
+
+    /** number of working days before the epoch day in the weekly pattern alone */
+    private long pattern(long day){
+        return Math.floorDiv(day, 7) * perWeek + weekPrefix[Math.floorMod(day, 7)];
+    }
+
+    private long epochDay(long ordinal){
+        // an exception is before the wanted day exactly when the day after it has an ordinal up to the wanted one
+        int before = exceptions.length == 0 ? 0 : upperBound(ordinalAfter, ordinal);
+        long inPattern = ordinal - corrections[before];
+        long day = Math.floorDiv(inPattern, perWeek) * 7 + nthInWeek[Math.floorMod(inPattern, perWeek)];
+        // the first exception not before the day can only be the day itself, an extra working day
+        if (before < exceptions.length && exceptions[before] <= day) {
+            return exceptions[before];
+        }
+        return day;
+    }
+
+    /** @return number of values lower than the key */
+    private static int lowerBound(long[] values, long key){
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** @return number of values lower than or equal to the key */
+    private static int upperBound(long[] values, long key){
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import com.example.project_planner_beta.projectplanner.DependencyType;
+import com.example.project_planner_beta.projectplanner.TaskStatus;
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
+import com.example.project_planner_beta.projectplanner.dto.TransferTaskDTO;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV export (RFC 4180 quoting, UTF-8), one record per line, the first column is the record type:
+ *
+ *   project,name
+ *   task,id,name,status,startDate,endDate,resourceName,resourceUnits
+ *   dependency,taskId,dependencyId,type,lag
+ *
+ * Dates are YYYY-MM-DD, resourceName and resourceUnits are empty for a task without a resource.
+ */
+public final class CsvProjectFormat implements ProjectTransferFormat {
+
+    public static final CsvProjectFormat INSTANCE = new CsvProjectFormat();
+
+    private CsvProjectFormat() {}
+
+    @Override
+    public String contentType() {return "text/csv";}
+
+    @Override
+    public String extension() {return "csv";}
+
+    @Override
+    public Writer writer(OutputStream out){
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        return new Writer() {
+            @Override
+            public void project(String name) throws IOException {
+                writeLine(writer, "project", name);
+            }
+
+            @Override
+            public void task(TransferTaskDTO task) throws IOException {
+                writeLine(writer, "task", String.valueOf(task.getId()), task.getName(), task.getStatus().name(),
+                        task.getStartDate().toString(), task.getEndDate().toString(), task.getResourceName(),
+                        task.getResourceUnits() != null ? String.valueOf(task.getResourceUnits()) : null);
+            }
+
+            @Override
+            public void dependency(TaskEdgeDTO dependency) throws IOException {
+                writeLine(writer, "dependency", String.valueOf(dependency.getTaskId()), String.valueOf(dependency.getDependencyId()),
+                        dependency.getType().name(), String.valueOf(dependency.getLag()));
+            }
+
+            @Override
+            public void finish() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    @Override
+    public void read(InputStream in, Handler handler) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        List<String> fields = new ArrayList<>();
+        int record = 0;
+        boolean named = false;
+        while (nextRecord(reader, fields)) {
+            record++;
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue;
+            }
+            try {
+                String type = fields.get(0);
+                if (!named) {
+                    expect(type.equals("project") && fields.size() == 2, "the file has to start with a project record");
+                    handler.project(fields.get(1));
+                    named = true;
+                } else if (type.equals("task")) {
+                    expect(fields.size() == 8, "a task record has 8 fields");
+                    handler.task(new TransferTaskDTO(Long.parseLong(fields.get(1)), fields.get(2), TaskStatus.valueOf(fields.get(3)),
+                            LocalDate.parse(fields.get(4)), LocalDate.parse(fields.get(5)), emptyToNull(fields.get(6)),
+                            fields.get(7).isEmpty() ? null : Integer.parseInt(fields.get(7))));
+                } else if (type.equals("dependency")) {
+                    expect(fields.size() == 5, "a dependency record has 5 fields");
+                    handler.dependency(new TaskEdgeDTO(Long.parseLong(fields.get(1)), Long.parseLong(fields.get(2)),
+                            DependencyType.valueOf(fields.get(3)), Integer.parseInt(fields.get(4))));
+                } else {
+                    throw new IllegalArgumentException("unknown record type " + type);
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                // also the number and enum parse errors
+                throw new IllegalArgumentException("Record " + record + ": " + e.getMessage(), e);
+            }
+        }
+        if (!named) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+    }
+
+    private static void expect(boolean condition, String message){
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    private static String emptyToNull(String value){
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads the fields of the next record, a quoted field can hold commas, quotes and line breaks
+     *
+     * @return false at the end of the input
+     */
+    private static boolean nextRecord(Reader reader, List<String> fields) throws IOException {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int c = reader.read();
+        if (c < 0) {
+            return false;
+        }
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    throw new IllegalArgumentException("Quoted field is not closed at the end of the file");
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c < 0) {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return true;
+    }
+
+    private static void writeLine(BufferedWriter writer, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String field = fields[i];
+            if (field == null) {
+                continue;
+            }
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(field.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(field);
+            }
+        }
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,562 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import com.example.project_planner_beta.projectplanner.DependencyType;
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the dependencies between the tasks of one project.
+ *
+ * Task IDs are kept sorted and mapped to dense int indexes, and the outgoing
+ * dependency edges of every task are stored in CSR form (offsets + targets),
+ * so walking the graph never touches an entity or the database.
+ * Every edge also has its dependency type as a byte (bit 0 = from the start of the dependency,
+ * bit 1 = to the finish of the task) and a shift, the gap of the type plus the lag, in arrays
+ * parallel to the targets, so the bound of an edge is one add and one subtract in the forward pass.
+ * The edges of a task are sorted by dependency index.
+ * Changes return a new snapshot, which lets readers use a graph without locking.
+ */
+public final class DependencyGraph {
+
+    public static final DependencyGraph EMPTY = new DependencyGraph(new long[0], new int[1], new int[0], new byte[0], new int[0]);
+
+    private static final DependencyType[] TYPES = DependencyType.values();
+    private static final int FROM_START = 1;
+    private static final int TO_FINISH = 2;
+
+    private final long[] ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final byte[] types;
+    private final int[] shifts;
+
+    // derived lazily, racing threads compute the same arrays
+    private volatile int[][] reverse;
+    private volatile int[] order;
+    private volatile int[] rank;
+    private volatile boolean looped;
+
+    private DependencyGraph(long[] ids, int[] offsets, int[] targets, byte[] types, int[] shifts){
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.types = types;
+        this.shifts = shifts;
+    }
+
+    /**
+     * Builds a graph from the rows of the task_dependencies join table
+     *
+     * @param edges one row per (task, dependency) pair, dependencyId is null for tasks without dependencies,
+     *              a missing type or lag is FS with no lag
+     * @return the graph of the project
+     */
+    public static DependencyGraph fromEdges(List<TaskEdgeDTO> edges){
+        int m = edges.size();
+        long[] nodes = new long[m];
+        long[] from = new long[m];
+        long[] to = new long[m];
+        DependencyType[] edgeTypes = new DependencyType[m];
+        int[] lags = new int[m];
+        int edgeCount = 0;
+
+        for (int i = 0; i < m; i++) {
+            TaskEdgeDTO edge = edges.get(i);
+            nodes[i] = edge.getTaskId();
+            if (edge.getDependencyId() != null) {
+                from[edgeCount] = edge.getTaskId();
+                to[edgeCount] = edge.getDependencyId();
+                edgeTypes[edgeCount] = edge.getType();
+                lags[edgeCount] = edge.getLag() != null ? edge.getLag() : 0;
+                edgeCount++;
+            }
+        }
+        return build(nodes, from, to, edgeTypes, lags, edgeCount);
+    }
+
+    /**
+     * Builds a graph from primitive arrays, every edge is finish-to-start without lag
+     *
+     * @param taskIds IDs of the tasks, duplicates are ignored
+     * @param from ID of the task owning each edge
+     * @param to ID of the dependency of each edge
+     * @param edgeCount number of edges used from the from/to arrays
+     * @return the graph, edges pointing outside the task IDs are dropped
+     */
+    public static DependencyGraph build(long[] taskIds, long[] from, long[] to, int edgeCount){
+        return build(taskIds, from, to, new DependencyType[edgeCount], new int[edgeCount], edgeCount);
+    }
+
+    /**
+     * Builds a graph from primitive arrays
+     *
+     * @param taskIds IDs of the tasks, duplicates are ignored
+     * @param from ID of the task owning each edge
+     * @param to ID of the dependency of each edge
+     * @param edgeTypes type of each edge, null for FS
+     * @param lags lag of each edge in days
+     * @param edgeCount number of edges used from the arrays
+     * @return the graph, edges pointing outside the task IDs are dropped, of repeated edges the first is kept
+     */
+    public static DependencyGraph build(long[] taskIds, long[] from, long[] to, DependencyType[] edgeTypes, int[] lags,
+                                        int edgeCount){
+        long[] ids = distinctSorted(taskIds);
+        int n = ids.length;
+
+        int[] src = new int[edgeCount];
+        int[] dst = new int[edgeCount];
+        int[] input = new int[edgeCount];
+        int[] byTarget = new int[n + 1];
+        int kept = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            int s = Arrays.binarySearch(ids, from[i]);
+            int d = Arrays.binarySearch(ids, to[i]);
+            if (s < 0 || d < 0) {
+                continue;
+            }
+            src[kept] = s;
+            dst[kept] = d;
+            input[kept] = i;
+            byTarget[d + 1]++;
+            kept++;
+        }
+
+        // two stable counting sorts, by dependency and then by task, leave every row sorted by dependency
+        for (int i = 0; i < n; i++) {
+            byTarget[i + 1] += byTarget[i];
+        }
+        int[] sorted = new int[kept];
+        for (int i = 0; i < kept; i++) {
+            sorted[byTarget[dst[i]]++] = i;
+        }
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < kept; i++) {
+            offsets[src[i] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] cursor = Arrays.copyOf(offsets, n);
+        int[] edges = new int[kept];
+        for (int edge : sorted) {
+            edges[cursor[src[edge]]++] = edge;
+        }
+
+        int[] targets = new int[kept];
+        byte[] types = new byte[kept];
+        int[] shifts = new int[kept];
+        int size = 0;
+        int rowStart = 0;
+        for (int i = 0; i < n; i++) {
+            int first = size;
+            for (int k = rowStart; k < offsets[i + 1]; k++) {
+                int edge = edges[k];
+                if (size > first && targets[size - 1] == dst[edge]) {
+                    continue;
+                }
+                DependencyType type = edgeTypes[input[edge]] != null ? edgeTypes[input[edge]] : DependencyType.FS;
+                targets[size] = dst[edge];
+                types[size] = (byte) type.ordinal();
+                shifts[size] = type.gap() + lags[input[edge]];
+                size++;
+            }
+            rowStart = offsets[i + 1];
+            offsets[i + 1] = size;
+        }
+        return new DependencyGraph(ids, offsets, Arrays.copyOf(targets, size), Arrays.copyOf(types, size),
+                Arrays.copyOf(shifts, size));
+    }
+
+    /** @return number of tasks in the graph */
+    public int size() {return ids.length;}
+
+    /** @return number of dependency edges in the graph */
+    public int edgeCount() {return targets.length;}
+
+    /** @return task ID stored at the index */
+    public long idAt(int index) {return ids[index];}
+
+    /** @return index of the task ID, or a negative value if the task is not in the graph */
+    public int indexOf(long id) {return Arrays.binarySearch(ids, id);}
+
+    public boolean contains(long id) {return indexOf(id) >= 0;}
+
+    /** @return position of the first dependency of the task in {@link #dependencyAt(int)} */
+    public int dependencyStart(int index) {return offsets[index];}
+
+    /** @return position after the last dependency of the task in {@link #dependencyAt(int)} */
+    public int dependencyEnd(int index) {return offsets[index + 1];}
+
+    /** @return index of the dependency stored at the CSR position */
+    public int dependencyAt(int position) {return targets[position];}
+
+    /** @return type of the dependency stored at the CSR position */
+    public DependencyType dependencyType(int position) {return TYPES[types[position]];}
+
+    /** @return lag in days of the dependency stored at the CSR position */
+    public int dependencyLag(int position) {return shifts[position] - TYPES[types[position]].gap();}
+
+    /**
+     * Same bound as {@link DependencyType#earliestStart}, read from the packed edge arrays
+     *
+     * @param position CSR position of the dependency
+     * @param start start day of every task
+     * @param end end day of every task
+     * @param duration duration of the task owning the edge
+     * @return earliest start the dependency allows for the task
+     */
+    public long earliestStart(int position, long[] start, long[] end, long duration){
+        int type = types[position];
+        int dep = targets[position];
+        return ((type & FROM_START) != 0 ? start[dep] : end[dep]) + shifts[position]
+                - ((type & TO_FINISH) != 0 ? duration - 1 : 0);
+    }
+
+    /**
+     * Earliest start all dependencies of the task allow, one pass over its edges
+     *
+     * @param index index of the task
+     * @param start start day of every task
+     * @param end end day of every task
+     * @param duration duration of the task
+     * @return the highest bound of its dependencies, Long.MIN_VALUE if the task has none
+     */
+    public long dependencyBound(int index, long[] start, long[] end, long duration){
+        long bound = Long.MIN_VALUE;
+        for (int k = offsets[index]; k < offsets[index + 1]; k++) {
+            bound = Math.max(bound, earliestStart(k, start, end, duration));
+        }
+        return bound;
+    }
+
+    /** @return position of the first dependent of the task in {@link #dependentAt(int)} */
+    public int dependentStart(int index) {return reverse()[0][index];}
+
+    /** @return position after the last dependent of the task in {@link #dependentAt(int)} */
+    public int dependentEnd(int index) {return reverse()[0][index + 1];}
+
+    /** @return index of the dependent stored at the reverse CSR position */
+    public int dependentAt(int position) {return reverse()[1][position];}
+
+    /**
+     * Collects every task that depends on the task, directly or through other tasks,
+     * by walking the reverse CSR. Only the downstream cone is visited, so it is O(cone size + its edges).
+     *
+     * @param index index of the task
+     * @return indexes of the downstream tasks in breadth first order, direct dependents first, without the task itself
+     */
+    public int[] downstream(int index){
+        int n = ids.length;
+        boolean[] visited = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        visited[index] = true;
+        queue[tail++] = index;
+        while (head < tail) {
+            int current = queue[head++];
+            for (int k = dependentStart(current); k < dependentEnd(current); k++) {
+                int next = dependentAt(k);
+                if (!visited[next]) {
+                    visited[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return Arrays.copyOfRange(queue, 1, tail);
+    }
+
+    /**
+     * Sorts the tasks so every task comes after its dependencies (Kahn's algorithm).
+     * Tasks left in a loop, which validation should never let in, are appended in ID order.
+     *
+     * @return task indexes in topological order
+     */
+    public int[] topologicalOrder(){
+        int[] cached = order;
+        if (cached != null) {
+            return cached;
+        }
+        int n = ids.length;
+        int[] remaining = new int[n];
+        for (int i = 0; i < n; i++) {
+            remaining[i] = offsets[i + 1] - offsets[i];
+        }
+
+        int[] result = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (remaining[i] == 0) {
+                result[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            int current = result[head++];
+            for (int k = dependentStart(current); k < dependentEnd(current); k++) {
+                int next = dependentAt(k);
+                if (--remaining[next] == 0) {
+                    result[tail++] = next;
+                }
+            }
+        }
+        looped = tail < n;
+        for (int i = 0; i < n && tail < n; i++) {
+            if (remaining[i] > 0) {
+                result[tail++] = i;
+            }
+        }
+        order = result;
+        return result;
+    }
+
+    /**
+     * @return position of every task in {@link #topologicalOrder()}, indexed like the graph.
+     *              Computed once per graph and shared, callers must not change it
+     */
+    public int[] topologicalRank(){
+        int[] cached = rank;
+        if (cached != null) {
+            return cached;
+        }
+        int[] sorted = topologicalOrder();
+        int[] result = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            result[sorted[i]] = i;
+        }
+        rank = result;
+        return result;
+    }
+
+    /** @return true if some tasks depend on each other in a loop */
+    public boolean hasLoop(){
+        topologicalOrder();
+        return looped;
+    }
+
+    private int[][] reverse(){
+        int[][] cached = reverse;
+        if (cached != null) {
+            return cached;
+        }
+        int n = ids.length;
+        int[] reverseOffsets = new int[n + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            reverseOffsets[i + 1] += reverseOffsets[i];
+        }
+        int[] cursor = Arrays.copyOf(reverseOffsets, n);
+        int[] sources = new int[targets.length];
+        for (int i = 0; i < n; i++) {
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                sources[cursor[targets[k]]++] = i;
+            }
+        }
+        cached = new int[][]{reverseOffsets, sources};
+        reverse = cached;
+        return cached;
+    }
+
+    /**
+     * Checks if making the task depend on the dependencies would create a circular dependency.
+     * Runs one iterative walk from all dependencies at once, so it is O(V+E).
+     *
+     * @param taskId the task getting the dependencies
+     * @param dependencyIds the dependencies to be added
+     * @return true if circular dependency is detected, false if not
+     */
+    public boolean willLoop(long taskId, Collection<Long> dependencyIds){
+        return checkLoop(taskId, dependencyIds).loops();
+    }
+
+    /**
+     * Same check as {@link #willLoop(long, Collection)}, also telling how much of the graph was walked
+     *
+     * @param taskId the task getting the dependencies
+     * @param dependencyIds the dependencies to be added
+     * @return whether a circular dependency is detected, the tasks visited and the depth reached
+     */
+    public LoopCheck checkLoop(long taskId, Collection<Long> dependencyIds){
+        int target = indexOf(taskId);
+        int n = ids.length;
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[Math.max(n, 1)];
+        // dependency edges from the task to every stacked task along the walk
+        int[] stackDepth = new int[Math.max(n, 1)];
+        int top = 0;
+        int count = 0;
+        int maxDepth = 0;
+
+        for (Long dependencyId : dependencyIds) {
+            if (dependencyId == taskId) {
+                return new LoopCheck(true, 1, 1);
+            }
+            int index = indexOf(dependencyId);
+            if (index >= 0 && !visited[index]) {
+                visited[index] = true;
+                stackDepth[top] = 1;
+                stack[top++] = index;
+            }
+        }
+        if (target < 0) {
+            // a task outside the graph has no dependents, so nothing can lead back to it
+            return new LoopCheck(false, 0, 0);
+        }
+
+        while (top > 0) {
+            int depth = stackDepth[--top];
+            int current = stack[top];
+            count++;
+            maxDepth = Math.max(maxDepth, depth);
+            if (current == target) {
+                return new LoopCheck(true, count, maxDepth);
+            }
+            for (int k = offsets[current]; k < offsets[current + 1]; k++) {
+                int next = targets[k];
+                if (!visited[next]) {
+                    visited[next] = true;
+                    stackDepth[top] = depth + 1;
+                    stack[top++] = next;
+                }
+            }
+        }
+        return new LoopCheck(false, count, maxDepth);
+    }
+
+    /**
+     * Returns a copy of the graph where the task has exactly the given dependencies.
+     * The task is added if it is not in the graph yet.
+     *
+     * @param taskId the task being changed
+     * @param dependencies the new dependency rows of the task
+     * @return the changed graph
+     */
+    public DependencyGraph withDependencies(long taskId, Collection<TaskEdgeDTO> dependencies){
+        return withDependencies(Map.of(taskId, dependencies));
+    }
+
+    /**
+     * Returns a copy of the graph where every given task has exactly the given dependencies.
+     * Tasks that are not in the graph yet are added. The copy is built once for all tasks.
+     *
+     * @param dependencies the new dependency rows of every changed task, the task IDs of the rows are not read
+     * @return the changed graph
+     */
+    public DependencyGraph withDependencies(Map<Long, ? extends Collection<TaskEdgeDTO>> dependencies){
+        int n = ids.length;
+        int capacity = targets.length;
+        long[] nodes = Arrays.copyOf(ids, n + dependencies.size());
+        int nodeCount = n;
+        for (Map.Entry<Long, ? extends Collection<TaskEdgeDTO>> entry : dependencies.entrySet()) {
+            nodes[nodeCount++] = entry.getKey();
+            capacity += entry.getValue().size();
+        }
+
+        long[] from = new long[capacity];
+        long[] to = new long[capacity];
+        DependencyType[] edgeTypes = new DependencyType[capacity];
+        int[] lags = new int[capacity];
+        int edgeCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (dependencies.containsKey(ids[i])) {
+                continue;
+            }
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                from[edgeCount] = ids[i];
+                to[edgeCount] = ids[targets[k]];
+                edgeTypes[edgeCount] = dependencyType(k);
+                lags[edgeCount] = dependencyLag(k);
+                edgeCount++;
+            }
+        }
+        for (Map.Entry<Long, ? extends Collection<TaskEdgeDTO>> entry : dependencies.entrySet()) {
+            for (TaskEdgeDTO dependency : entry.getValue()) {
+                from[edgeCount] = entry.getKey();
+                to[edgeCount] = dependency.getDependencyId();
+                edgeTypes[edgeCount] = dependency.getType();
+                lags[edgeCount] = dependency.getLag() != null ? dependency.getLag() : 0;
+                edgeCount++;
+            }
+        }
+        return build(nodes, from, to, edgeTypes, lags, edgeCount);
+    }
+
+    /**
+     * Returns a copy of the graph without the task and every edge from or to it
+     *
+     * @param taskId the task being removed
+     * @return the changed graph
+     */
+    public DependencyGraph withoutTask(long taskId){
+        int removed = indexOf(taskId);
+        if (removed < 0) {
+            return this;
+        }
+        int n = ids.length;
+        long[] nodes = new long[n - 1];
+        long[] from = new long[targets.length];
+        long[] to = new long[targets.length];
+        DependencyType[] edgeTypes = new DependencyType[targets.length];
+        int[] lags = new int[targets.length];
+        int nodeCount = 0;
+        int edgeCount = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (i == removed) {
+                continue;
+            }
+            nodes[nodeCount++] = ids[i];
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                if (targets[k] == removed) {
+                    continue;
+                }
+                from[edgeCount] = ids[i];
+                to[edgeCount] = ids[targets[k]];
+                edgeTypes[edgeCount] = dependencyType(k);
+                lags[edgeCount] = dependencyLag(k);
+                edgeCount++;
+            }
+        }
+        return build(nodes, from, to, edgeTypes, lags, edgeCount);
+    }
+
+    private static long[] distinctSorted(long[] values){
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (size == 0 || sorted[size - 1] != sorted[i]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    /** outcome of one circular dependency check */
+    public static final class LoopCheck {
+        private final boolean loops;
+        private final int visited;
+        private final int depth;
+
+        private LoopCheck(boolean loops, int visited, int depth){
+            this.loops = loops;
+            this.visited = visited;
+            this.depth = depth;
+        }
+
+        /** @return true if a circular dependency is detected */
+        public boolean loops() {return loops;}
+
+        /** @return number of tasks visited by the walk */
+        public int visited() {return visited;}
+
+        /** @return most dependency edges followed from the task along the walk, the depth of the search */
+        public int depth() {return depth;}
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.project_planner_beta.projectplanner.tools;
 
 import com.example.project_planner_beta.projectplanner.Project;
+import com.example.project_planner_beta.projectplanner.dto.DependencyDTO;
 import com.example.project_planner_beta.projectplanner.dto.ProjectDTO;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class ProjectMapper {
@@ -14,6 +16,7 @@ public class ProjectMapper {
         dto.setId(project.getId());
         dto.setName(project.getName());
         dto.setCode(project.getCode());
+        dto.setCalendarId(project.getCalendarId());
 
         if(project.getTasks() != null){
             dto.setTasks(
@@ -24,9 +27,44 @@ public class ProjectMapper {
         return dto;
     }
 
+    /**
+     * maps a project without touching its tasks
+     */
+    public static ProjectDTO toSummaryDTO(Project project){
+        ProjectDTO dto = new ProjectDTO();
+        dto.setId(project.getId());
+        dto.setName(project.getName());
+        dto.setCode(project.getCode());
+        dto.setCalendarId(project.getCalendarId());
+        return dto;
+    }
+
     public static List<ProjectDTO> toDTOList(List<Project> project){
         return project.stream()
                 .map(ProjectMapper::toDTO)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * maps a project whose tasks are loaded, using dependencies grouped by task ID
+     */
+    public static ProjectDTO toDTO(Project project, Map<Long, List<DependencyDTO>> dependencies){
+
+        ProjectDTO dto = new ProjectDTO();
+        dto.setId(project.getId());
+        dto.setName(project.getName());
+        dto.setCode(project.getCode());
+        dto.setCalendarId(project.getCalendarId());
+
+        if(project.getTasks() != null){
+            dto.setTasks(TaskMapper.toDTOList(project.getTasks(), dependencies));
+        }
+        return dto;
+    }
+
+    public static List<ProjectDTO> toDTOList(List<Project> project, Map<Long, List<DependencyDTO>> dependencies){
+        return project.stream()
+                .map(p -> toDTO(p, dependencies))
+                .collect(Collectors.toList());
+    }
 }
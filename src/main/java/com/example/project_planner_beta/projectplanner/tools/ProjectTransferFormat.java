@@ -0,0 +1,65 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
+import com.example.project_planner_beta.projectplanner.dto.TransferTaskDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * File format of a project export: the project name, then its tasks, then its dependency rows.
+ *
+ * Both sides stream: the writer gets one record at a time and the reader hands every record to the
+ * handler as soon as it is parsed, so neither holds the file in memory. A broken file makes
+ * {@link #read} throw IllegalArgumentException with the position of the problem.
+ */
+public interface ProjectTransferFormat {
+
+    /** receives the records of a file in order, the project name comes first */
+    interface Handler {
+        void project(String name) throws IOException;
+
+        void task(TransferTaskDTO task) throws IOException;
+
+        void dependency(TaskEdgeDTO dependency) throws IOException;
+    }
+
+    /** writes the records it receives, {@link #finish()} ends the file and flushes it */
+    interface Writer extends Handler {
+        void finish() throws IOException;
+    }
+
+    /** @return media type of the files */
+    String contentType();
+
+    /** @return file name extension of the files */
+    String extension();
+
+    /** @return a writer of a file into the stream, the stream is not closed */
+    Writer writer(OutputStream out);
+
+    /**
+     * Parses a file record by record
+     *
+     * @param in the file, read up to its end
+     * @param handler receives the records
+     * @throws IllegalArgumentException if the file is not in the format
+     */
+    void read(InputStream in, Handler handler) throws IOException;
+
+    /**
+     * @param name csv or binary
+     * @return the format, null for an unknown name
+     */
+    static ProjectTransferFormat named(String name){
+        switch (name) {
+            case "csv":
+                return CsvProjectFormat.INSTANCE;
+            case "binary":
+                return BinaryProjectFormat.INSTANCE;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import java.util.Arrays;
+
+/**
+ * Resource leveling on a plain array snapshot of a project, indexed like the dependency graph.
+ *
+ * Serial list scheduling: a task becomes ready once all its dependencies are placed, and the ready
+ * task with the least slack is placed next at the first day it fits. A task with dependencies can
+ * start on the highest bound of its dependency edges, a task without dependencies keeps its start day,
+ * and a task using a resource is pushed later until the daily usage of the resource stays within
+ * its capacity for its whole duration. The usage of every resource is kept in a segment tree
+ * (range add, "first day at or below" and "last day above" searches), so a busy stretch of the
+ * resource is skipped in O(log days) instead of scanning its days.
+ */
+public final class ResourceLeveler {
+
+    /** resource index of a task that uses no resource */
+    public static final int NONE = -1;
+
+    private ResourceLeveler() {}
+
+    /**
+     * Levels a snapshot.
+     *
+     * @param graph dependency graph of the project
+     * @param start start of every task as a calendar ordinal, used for tasks without dependencies
+     * @param duration duration of every task in working days, the start day counts as day 1
+     * @param resource resource index of every task, {@link #NONE} for none
+     * @param units units of its resource every task uses per day
+     * @param capacity units per day of every resource
+     * @param slack ordering key of every task, the ready task with the lowest slack is placed first
+     * @return the leveled dates
+     * @throws IllegalArgumentException if a task needs more units than its resource has
+     */
+    public static Result level(DependencyGraph graph, long[] start, long[] duration, int[] resource, int[] units,
+                               int[] capacity, long[] slack){
+        int n = graph.size();
+        // leveling only moves tasks later, so the unleveled schedule gives the first day any task can take,
+        // a lead on a dependency can put a task before every start day given
+        long[] unleveled = ScheduleKernel.schedule(graph, start, duration).start();
+        long base = Long.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            base = Math.min(base, unleveled[i]);
+            if (resource[i] != NONE && units[i] > capacity[resource[i]]) {
+                throw new IllegalArgumentException("Task ID=" + graph.idAt(i) + " needs " + units[i]
+                        + " units of a resource with capacity " + capacity[resource[i]]);
+            }
+        }
+
+        int[] remaining = new int[n];
+        // ready tasks, a binary heap ordered by slack and then index
+        int[] heap = new int[Math.max(n, 1)];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            remaining[i] = graph.dependencyEnd(i) - graph.dependencyStart(i);
+            if (remaining[i] == 0) {
+                size = push(heap, size, i, slack);
+            }
+        }
+
+        CapacityTree[] usage = new CapacityTree[capacity.length];
+        long[] newStart = new long[n];
+        long[] newEnd = new long[n];
+        int delayed = 0;
+        int placed = 0;
+        while (size > 0) {
+            int current = heap[0];
+            size = pop(heap, size, slack);
+            placed++;
+
+            // every dependency is placed by now, so the bound reads final dates
+            long day = graph.dependencyStart(current) < graph.dependencyEnd(current)
+                    ? graph.dependencyBound(current, newStart, newEnd, duration[current])
+                    : start[current];
+            int length = (int) duration[current];
+            int r = resource[current];
+            if (r != NONE) {
+                if (usage[r] == null) {
+                    usage[r] = new CapacityTree();
+                }
+                int offset = usage[r].place((int) (day - base), length, units[current], capacity[r]);
+                if (base + offset != day) {
+                    delayed++;
+                }
+                day = base + offset;
+            }
+            newStart[current] = day;
+            newEnd[current] = day + length - 1;
+
+            for (int k = graph.dependentStart(current); k < graph.dependentEnd(current); k++) {
+                int next = graph.dependentAt(k);
+                if (--remaining[next] == 0) {
+                    size = push(heap, size, next, slack);
+                }
+            }
+        }
+        if (placed < n) {
+            throw new IllegalArgumentException("Tasks depend on each other in a loop");
+        }
+        return new Result(newStart, newEnd, delayed);
+    }
+
+    private static boolean before(int a, int b, long[] slack){
+        return slack[a] < slack[b] || (slack[a] == slack[b] && a < b);
+    }
+
+    private static int push(int[] heap, int size, int value, long[] slack){
+        int i = size;
+        heap[i] = value;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(heap[i], heap[parent], slack)) {
+                break;
+            }
+            int swap = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = swap;
+            i = parent;
+        }
+        return size + 1;
+    }
+
+    private static int pop(int[] heap, int size, long[] slack){
+        int last = size - 1;
+        heap[0] = heap[last];
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= last) {
+                break;
+            }
+            int child = left + 1 < last && before(heap[left + 1], heap[left], slack) ? left + 1 : left;
+            if (!before(heap[child], heap[i], slack)) {
+                break;
+            }
+            int swap = heap[child];
+            heap[child] = heap[i];
+            heap[i] = swap;
+            i = child;
+        }
+        return last;
+    }
+
+    /**
+     * Daily usage of one resource over day offsets 0..size-1, a min/max segment tree with range add.
+     * Adds are kept at the covering nodes (max of a node = max of its children + its own add),
+     * so no lazy values are pushed down. The tree doubles when a task lands past its last day,
+     * and is rebuilt from the placed tasks.
+     */
+    static final class CapacityTree {
+        private int size = 1024;
+        private int[] max = new int[2 * size];
+        private int[] min = new int[2 * size];
+        private int[] add = new int[2 * size];
+        private int[] placedFrom = new int[16];
+        private int[] placedLength = new int[16];
+        private int[] placedUnits = new int[16];
+        private int placedCount;
+
+        /**
+         * Places a task at the first day from the given day where it fits and adds its usage
+         *
+         * @return the day offset the task starts on
+         */
+        int place(int from, int length, int units, int capacity){
+            int limit = capacity - units;
+            int day = from;
+            while (true) {
+                // skip the days where the task does not fit at all, then check the whole window
+                grow(day + 1);
+                int free = firstAtOrBelow(1, 0, size - 1, day, limit);
+                day = free < 0 ? size : free;
+                grow(day + length);
+                int conflict = lastAbove(1, 0, size - 1, day, day + length - 1, limit);
+                if (conflict < 0) {
+                    break;
+                }
+                day = conflict + 1;
+            }
+            add(1, 0, size - 1, day, day + length - 1, units);
+            if (placedCount == placedFrom.length) {
+                placedFrom = Arrays.copyOf(placedFrom, placedCount * 2);
+                placedLength = Arrays.copyOf(placedLength, placedCount * 2);
+                placedUnits = Arrays.copyOf(placedUnits, placedCount * 2);
+            }
+            placedFrom[placedCount] = day;
+            placedLength[placedCount] = length;
+            placedUnits[placedCount] = units;
+            placedCount++;
+            return day;
+        }
+
+        /** @return highest usage over the days */
+        int max(int from, int to){
+            return max(1, 0, size - 1, from, to);
+        }
+
+        private void grow(int days){
+            if (days <= size) {
+                return;
+            }
+            while (size < days) {
+                size *= 2;
+            }
+            max = new int[2 * size];
+            min = new int[2 * size];
+            add = new int[2 * size];
+            for (int i = 0; i < placedCount; i++) {
+                add(1, 0, size - 1, placedFrom[i], placedFrom[i] + placedLength[i] - 1, placedUnits[i]);
+            }
+        }
+
+        private void add(int node, int nodeFrom, int nodeTo, int from, int to, int value){
+            if (to < nodeFrom || nodeTo < from) {
+                return;
+            }
+            if (from <= nodeFrom && nodeTo <= to) {
+                max[node] += value;
+                min[node] += value;
+                add[node] += value;
+                return;
+            }
+            int middle = (nodeFrom + nodeTo) >>> 1;
+            add(2 * node, nodeFrom, middle, from, to, value);
+            add(2 * node + 1, middle + 1, nodeTo, from, to, value);
+            max[node] = Math.max(max[2 * node], max[2 * node + 1]) + add[node];
+            min[node] = Math.min(min[2 * node], min[2 * node + 1]) + add[node];
+        }
+
+        private int max(int node, int nodeFrom, int nodeTo, int from, int to){
+            if (to < nodeFrom || nodeTo < from) {
+                return Integer.MIN_VALUE;
+            }
+            if (from <= nodeFrom && nodeTo <= to) {
+                return max[node];
+            }
+            int middle = (nodeFrom + nodeTo) >>> 1;
+            return Math.max(max(2 * node, nodeFrom, middle, from, to),
+                    max(2 * node + 1, middle + 1, nodeTo, from, to)) + add[node];
+        }
+
+        /** @return first day from the given day whose usage is at or below the limit, -1 if none */
+        private int firstAtOrBelow(int node, int nodeFrom, int nodeTo, int from, int limit){
+            if (nodeTo < from || min[node] > limit) {
+                return -1;
+            }
+            if (nodeFrom == nodeTo) {
+                return nodeFrom;
+            }
+            int middle = (nodeFrom + nodeTo) >>> 1;
+            int childLimit = limit - add[node];
+            int left = firstAtOrBelow(2 * node, nodeFrom, middle, from, childLimit);
+            return left >= 0 ? left : firstAtOrBelow(2 * node + 1, middle + 1, nodeTo, from, childLimit);
+        }
+
+        /** @return last day in [from, to] whose usage is above the limit, -1 if none */
+        private int lastAbove(int node, int nodeFrom, int nodeTo, int from, int to, int limit){
+            if (to < nodeFrom || nodeTo < from || max[node] <= limit) {
+                return -1;
+            }
+            if (nodeFrom == nodeTo) {
+                return nodeFrom;
+            }
+            int middle = (nodeFrom + nodeTo) >>> 1;
+            int childLimit = limit - add[node];
+            int right = lastAbove(2 * node + 1, middle + 1, nodeTo, from, to, childLimit);
+            return right >= 0 ? right : lastAbove(2 * node, nodeFrom, middle, from, to, childLimit);
+        }
+    }
+
+    public static final class Result {
+        private final long[] start;
+        private final long[] end;
+        private final int delayed;
+
+        private Result(long[] start, long[] end, int delayed){
+            this.start = start;
+            this.end = end;
+            this.delayed = delayed;
+        }
+
+        /** @return leveled start of every task as a calendar ordinal */
+        public long[] start() {return start;}
+
+        /** @return leveled end of every task as a calendar ordinal */
+        public long[] end() {return end;}
+
+        /** @return number of tasks pushed later by a resource */
+        public int delayed() {return delayed;}
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import java.util.Arrays;
+
+/**
+ * Critical path method values of a computed schedule, indexed like the dependency graph.
+ *
+ * The early start/finish of every task are the dates of the forward pass (the kernel or the
+ * incremental propagation). One backward pass in reverse topological order then gives the late
+ * start/finish, the total float (how much a task can slip before the project end moves) and the
+ * free float (how much it can slip before any dependent moves). O(V+E), no recursion.
+ *
+ * An edge bounds the start of the task by a day of the dependency (its start or its end) plus a
+ * constant, so the late start of the task minus that constant limits the same day of the dependency,
+ * and the gap between the early start of the task and the bound is the free float along the edge.
+ */
+public final class ScheduleAnalysis {
+
+    private final DependencyGraph graph;
+    private final long[] earlyStart;
+    private final long[] earlyFinish;
+    private final long[] lateStart;
+    private final long[] lateFinish;
+    private final long[] freeFloat;
+    private final long projectStart;
+    private final long projectFinish;
+
+    private ScheduleAnalysis(DependencyGraph graph, long[] earlyStart, long[] earlyFinish, long[] lateStart,
+                             long[] lateFinish, long[] freeFloat, long projectStart, long projectFinish){
+        this.graph = graph;
+        this.earlyStart = earlyStart;
+        this.earlyFinish = earlyFinish;
+        this.lateStart = lateStart;
+        this.lateFinish = lateFinish;
+        this.freeFloat = freeFloat;
+        this.projectStart = projectStart;
+        this.projectFinish = projectFinish;
+    }
+
+    /**
+     * Runs the backward pass over a forward pass result
+     *
+     * @param graph dependency graph of the project
+     * @param start early start of every task as a calendar ordinal, the analysis keeps the array
+     * @param end early finish of every task as a calendar ordinal, the analysis keeps the array
+     * @return the analysis of the schedule
+     */
+    public static ScheduleAnalysis of(DependencyGraph graph, long[] start, long[] end){
+        int n = graph.size();
+        long projectStart = Long.MAX_VALUE;
+        long projectFinish = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            projectStart = Math.min(projectStart, start[i]);
+            projectFinish = Math.max(projectFinish, end[i]);
+        }
+
+        long[] lateStart = new long[n];
+        long[] lateFinish = new long[n];
+        // least slack along the edges to the dependents of every task
+        long[] edgeSlack = new long[n];
+        Arrays.fill(lateFinish, projectFinish);
+        Arrays.fill(edgeSlack, Long.MAX_VALUE);
+
+        int[] order = graph.topologicalOrder();
+        for (int k = n - 1; k >= 0; k--) {
+            int current = order[k];
+            long duration = end[current] - start[current] + 1;
+            long latest = lateFinish[current] - (duration - 1);
+            lateStart[current] = latest;
+            for (int e = graph.dependencyStart(current); e < graph.dependencyEnd(current); e++) {
+                int dep = graph.dependencyAt(e);
+                long bound = graph.earliestStart(e, start, end, duration);
+                // the bound moves with the start or the end of the dependency, whichever the edge reads
+                boolean fromStart = graph.dependencyType(e).fromStart();
+                long limit = latest - (bound - (fromStart ? start[dep] : end[dep]));
+                long depDuration = end[dep] - start[dep] + 1;
+                lateFinish[dep] = Math.min(lateFinish[dep], fromStart ? limit + depDuration - 1 : limit);
+                edgeSlack[dep] = Math.min(edgeSlack[dep], start[current] - bound);
+            }
+        }
+
+        long[] freeFloat = new long[n];
+        for (int i = 0; i < n; i++) {
+            // no task can slip past the project finish, a lead on a dependent can leave more slack than that
+            freeFloat[i] = Math.min(edgeSlack[i], projectFinish - end[i]);
+        }
+        return new ScheduleAnalysis(graph, start, end, lateStart, lateFinish, freeFloat,
+                n == 0 ? 0 : projectStart, n == 0 ? 0 : projectFinish);
+    }
+
+    public DependencyGraph graph() {return graph;}
+
+    public long earlyStart(int index) {return earlyStart[index];}
+
+    public long earlyFinish(int index) {return earlyFinish[index];}
+
+    public long lateStart(int index) {return lateStart[index];}
+
+    public long lateFinish(int index) {return lateFinish[index];}
+
+    /** @return days the task can slip without moving the end of the project */
+    public long totalFloat(int index) {return lateStart[index] - earlyStart[index];}
+
+    /** @return days the task can slip without moving any of its dependents */
+    public long freeFloat(int index) {return freeFloat[index];}
+
+    /** @return true if the task has no float, a delay moves the end of the project */
+    public boolean isCritical(int index) {return totalFloat(index) == 0;}
+
+    /** @return earliest start of all tasks as a calendar ordinal */
+    public long projectStart() {return projectStart;}
+
+    /** @return latest finish of all tasks as a calendar ordinal */
+    public long projectFinish() {return projectFinish;}
+}
@@ -0,0 +1,31 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import com.example.project_planner_beta.projectplanner.ScheduleJob;
+import com.example.project_planner_beta.projectplanner.dto.ScheduleJobDTO;
+
+public class ScheduleJobMapper {
+
+    /**
+     * maps a job, the result is only included when asked for since it can hold every task of the portfolio
+     */
+    public static ScheduleJobDTO toDTO(ScheduleJob job, boolean withResult){
+        if (job == null){
+            return null;
+        }
+
+        ScheduleJobDTO dto = new ScheduleJobDTO();
+
+        dto.setId(job.getId());
+        dto.setProjectId(job.getProjectId());
+        dto.setStatus(job.getStatus());
+        dto.setSubmittedAt(job.getSubmittedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setError(job.getError());
+        if (withResult) {
+            dto.setResult(job.getResult());
+        }
+
+        return dto;
+    }
+}
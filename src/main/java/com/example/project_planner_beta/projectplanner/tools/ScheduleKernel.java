@@ -0,0 +1,130 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+/**
+ * Scheduling kernel working on a plain array snapshot of a project.
+ *
+ * The snapshot is the dependency graph (task IDs and CSR edges) plus the start day and duration
+ * of every task, indexed like the graph. The kernel never touches an entity: it walks the
+ * iterative topological order once to compute the dates and then follows the driving
+ * dependencies back from the last finishing task to get the critical path.
+ */
+public final class ScheduleKernel {
+
+    /** start constraint of a task that has none */
+    public static final long NO_CONSTRAINT = Long.MIN_VALUE;
+
+    private ScheduleKernel() {}
+
+    /**
+     * Computes the schedule of a snapshot without start constraints, see {@link #schedule(DependencyGraph, long[], long[], long[])}
+     */
+    public static Result schedule(DependencyGraph graph, long[] start, long[] duration){
+        return schedule(graph, start, duration, null);
+    }
+
+    /**
+     * Computes the schedule of a snapshot.
+     * A task with dependencies starts on the highest bound of its dependency edges (for the default
+     * finish-to-start edge the day after the dependency ends), or on its start constraint if that is later.
+     * Tasks without dependencies keep their start day.
+     *
+     * @param graph dependency graph of the project
+     * @param start start of every task as a calendar ordinal
+     * @param duration duration of every task in days, the start day counts as day 1
+     * @param notBefore earliest start of every task as a calendar ordinal, {@link #NO_CONSTRAINT} for none,
+     *                  null if no task has one
+     * @return order, dates and critical path of the project
+     */
+    public static Result schedule(DependencyGraph graph, long[] start, long[] duration, long[] notBefore){
+        int n = graph.size();
+        int[] order = graph.topologicalOrder();
+        long[] newStart = new long[n];
+        long[] newEnd = new long[n];
+
+        for (int current : order) {
+            long taskStart = start[current];
+            if (graph.dependencyStart(current) < graph.dependencyEnd(current)) {
+                taskStart = graph.dependencyBound(current, newStart, newEnd, duration[current]);
+                if (notBefore != null) {
+                    taskStart = Math.max(taskStart, notBefore[current]);
+                }
+            }
+            newStart[current] = taskStart;
+            newEnd[current] = taskStart + duration[current] - 1;
+        }
+        return new Result(order, newStart, newEnd, criticalPath(graph, newStart, newEnd));
+    }
+
+    /**
+     * Finds the chain of tasks that decides the end of the project: starting from the task that
+     * finishes last, it repeatedly steps to the driving dependency, the one whose edge gives the highest bound.
+     *
+     * @param graph dependency graph of the project
+     * @param start start of every task as a calendar ordinal
+     * @param end end of every task as a calendar ordinal
+     * @return task indexes of the critical path, first task first
+     */
+    public static int[] criticalPath(DependencyGraph graph, long[] start, long[] end){
+        int n = graph.size();
+        if (n == 0) {
+            return new int[0];
+        }
+        int current = 0;
+        for (int i = 1; i < n; i++) {
+            if (end[i] > end[current]) {
+                current = i;
+            }
+        }
+
+        int[] path = new int[n];
+        int length = 0;
+        boolean[] onPath = new boolean[n];
+        while (current >= 0 && !onPath[current]) {
+            onPath[current] = true;
+            path[length++] = current;
+            int driver = -1;
+            long driverBound = Long.MIN_VALUE;
+            long duration = end[current] - start[current] + 1;
+            for (int k = graph.dependencyStart(current); k < graph.dependencyEnd(current); k++) {
+                long bound = graph.earliestStart(k, start, end, duration);
+                if (driver < 0 || bound > driverBound) {
+                    driver = graph.dependencyAt(k);
+                    driverBound = bound;
+                }
+            }
+            current = driver;
+        }
+
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = path[length - 1 - i];
+        }
+        return result;
+    }
+
+    public static final class Result {
+        private final int[] order;
+        private final long[] start;
+        private final long[] end;
+        private final int[] criticalPath;
+
+        private Result(int[] order, long[] start, long[] end, int[] criticalPath){
+            this.order = order;
+            this.start = start;
+            this.end = end;
+            this.criticalPath = criticalPath;
+        }
+
+        /** @return task indexes in topological order */
+        public int[] order() {return order;}
+
+        /** @return computed start of every task as a calendar ordinal */
+        public long[] start() {return start;}
+
+        /** @return computed end of every task as a calendar ordinal */
+        public long[] end() {return end;}
+
+        /** @return task indexes of the critical path, first task first */
+        public int[] criticalPath() {return criticalPath;}
+    }
+}
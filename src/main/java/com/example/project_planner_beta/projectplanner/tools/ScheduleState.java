@@ -0,0 +1,267 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Last computed schedule of a project: the topological order of its dependency graph
+ * and the start/end of every task as calendar ordinals with its duration in working days
+ * and its start constraint, indexed like the graph.
+ *
+ * A change is applied by seeding the changed tasks and calling {@link #propagate(BitSet)},
+ * which only revisits the tasks downstream of the seeds whose dates actually move.
+ * The order and the ranks belong to the graph and are shared by every state of it, a copy only
+ * clones the date arrays. {@link #analysis()} and {@link #criticalPath()} are not incremental,
+ * they are passes over the arrays of every task.
+ * Not thread safe, callers hold the project lock.
+ */
+public final class ScheduleState {
+
+    private final DependencyGraph graph;
+    private final int[] order;
+    private final int[] rank;
+    private final long[] start;
+    private final long[] end;
+    private final long[] duration;
+    private final long[] notBefore;
+    private int visited;
+
+    private ScheduleState(DependencyGraph graph, long[] start, long[] end, long[] duration, long[] notBefore){
+        this.graph = graph;
+        this.order = graph.topologicalOrder();
+        this.rank = graph.topologicalRank();
+        this.start = start;
+        this.end = end;
+        this.duration = duration;
+        this.notBefore = notBefore;
+    }
+
+    /**
+     * Creates a state without start constraints from dates that were already computed
+     *
+     * @param graph dependency graph of the project
+     * @param start start of every task as a calendar ordinal
+     * @param end end of every task as a calendar ordinal
+     * @param duration duration of every task in days
+     * @return the new state, owning the arrays
+     */
+    public static ScheduleState of(DependencyGraph graph, long[] start, long[] end, long[] duration){
+        long[] notBefore = new long[duration.length];
+        Arrays.fill(notBefore, ScheduleKernel.NO_CONSTRAINT);
+        return new ScheduleState(graph, start, end, duration, notBefore);
+    }
+
+    /**
+     * Creates a state from dates that were already computed
+     *
+     * @param graph dependency graph of the project
+     * @param start start of every task as a calendar ordinal
+     * @param end end of every task as a calendar ordinal
+     * @param duration duration of every task in days
+     * @param notBefore start constraint of every task as a calendar ordinal, {@link ScheduleKernel#NO_CONSTRAINT} for none
+     * @return the new state, owning the arrays
+     */
+    public static ScheduleState of(DependencyGraph graph, long[] start, long[] end, long[] duration, long[] notBefore){
+        return new ScheduleState(graph, start, end, duration, notBefore);
+    }
+
+    /**
+     * @return a copy of the state that can be changed and propagated without touching this one
+     */
+    public ScheduleState copy(){
+        return new ScheduleState(graph, start.clone(), end.clone(), duration.clone(), notBefore.clone());
+    }
+
+    /**
+     * Moves the dates over to a newer graph of the same project.
+     * Tasks that are new or whose dependencies, their types or lags changed are added to the seeds.
+     *
+     * @param newGraph the current dependency graph of the project
+     * @param seeds receives the indexes (in the new graph) that have to be recomputed
+     * @return the state for the new graph
+     */
+    public ScheduleState rebase(DependencyGraph newGraph, BitSet seeds){
+        int n = newGraph.size();
+        long[] newStart = new long[n];
+        long[] newEnd = new long[n];
+        long[] newDuration = new long[n];
+        long[] newNotBefore = new long[n];
+
+        for (int i = 0; i < n; i++) {
+            int old = graph.indexOf(newGraph.idAt(i));
+            if (old < 0) {
+                seeds.set(i);
+                newNotBefore[i] = ScheduleKernel.NO_CONSTRAINT;
+                continue;
+            }
+            newStart[i] = start[old];
+            newEnd[i] = end[old];
+            newDuration[i] = duration[old];
+            newNotBefore[i] = notBefore[old];
+            if (!sameDependencies(newGraph, i, old)) {
+                seeds.set(i);
+            }
+        }
+        return new ScheduleState(newGraph, newStart, newEnd, newDuration, newNotBefore);
+    }
+
+    /**
+     * Stores the current dates of a task, its start constraint stays
+     *
+     * @return true if they differ from the stored dates
+     */
+    public boolean setTask(int index, long startDay, long endDay, long days){
+        return setTask(index, startDay, endDay, days, notBefore[index]);
+    }
+
+    /**
+     * Stores the current dates and start constraint of a task
+     *
+     * @param notBeforeDay earliest start as a calendar ordinal, {@link ScheduleKernel#NO_CONSTRAINT} for none
+     * @return true if they differ from the stored ones
+     */
+    public boolean setTask(int index, long startDay, long endDay, long days, long notBeforeDay){
+        boolean changed = start[index] != startDay || end[index] != endDay || duration[index] != days
+                || notBefore[index] != notBeforeDay;
+        start[index] = startDay;
+        end[index] = endDay;
+        duration[index] = days;
+        notBefore[index] = notBeforeDay;
+        return changed;
+    }
+
+    /**
+     * Recomputes the seeds and everything downstream of them in topological order.
+     * A task with dependencies starts on the highest bound of its dependency edges or on its start
+     * constraint if that is later, tasks without dependencies keep their dates. Dependents are only revisited when a task's dates move.
+     *
+     * @param seeds indexes of the tasks that changed
+     * @return indexes of the tasks whose dates were moved by the propagation
+     */
+    public int[] propagate(BitSet seeds){
+        int n = order.length;
+        // min-heap of topological ranks, so a task is only computed after all queued dependencies.
+        // Grows with the queued tasks, a small change does not allocate for the whole project
+        int[] heap = new int[16];
+        BitSet queued = new BitSet(n);
+        int size = 0;
+        for (int i = seeds.nextSetBit(0); i >= 0; i = seeds.nextSetBit(i + 1)) {
+            queued.set(i);
+            heap = ensureCapacity(heap, size);
+            size = push(heap, size, rank[i]);
+        }
+
+        int[] moved = new int[16];
+        int movedCount = 0;
+        visited = 0;
+        while (size > 0) {
+            int current = order[heap[0]];
+            size = pop(heap, size);
+            visited++;
+
+            boolean changed = seeds.get(current);
+            if (graph.dependencyStart(current) < graph.dependencyEnd(current)) {
+                long newStart = Math.max(graph.dependencyBound(current, start, end, duration[current]), notBefore[current]);
+                long newEnd = newStart + duration[current] - 1;
+                if (newStart != start[current] || newEnd != end[current]) {
+                    start[current] = newStart;
+                    end[current] = newEnd;
+                    if (movedCount == moved.length) {
+                        moved = Arrays.copyOf(moved, movedCount * 2);
+                    }
+                    moved[movedCount++] = current;
+                    changed = true;
+                }
+            }
+
+            if (changed) {
+                for (int k = graph.dependentStart(current); k < graph.dependentEnd(current); k++) {
+                    int next = graph.dependentAt(k);
+                    if (!queued.get(next)) {
+                        queued.set(next);
+                        heap = ensureCapacity(heap, size);
+                        size = push(heap, size, rank[next]);
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(moved, movedCount);
+    }
+
+    public DependencyGraph graph() {return graph;}
+
+    /** @return number of tasks recomputed by the last {@link #propagate(BitSet)} */
+    public int visited() {return visited;}
+
+    /** @return task indexes in topological order */
+    public int[] order() {return order;}
+
+    public long startOf(int index) {return start[index];}
+
+    public long endOf(int index) {return end[index];}
+
+    /** @return task indexes of the critical path, first task first */
+    public int[] criticalPath() {return ScheduleKernel.criticalPath(graph, start, end);}
+
+    /** @return late dates and floats of the current dates */
+    public ScheduleAnalysis analysis() {return ScheduleAnalysis.of(graph, start.clone(), end.clone());}
+
+    private boolean sameDependencies(DependencyGraph newGraph, int index, int oldIndex){
+        int size = newGraph.dependencyEnd(index) - newGraph.dependencyStart(index);
+        if (size != graph.dependencyEnd(oldIndex) - graph.dependencyStart(oldIndex)) {
+            return false;
+        }
+        // rows of both graphs are sorted by dependency index, so by ID, and can be compared edge by edge
+        for (int k = 0; k < size; k++) {
+            int current = newGraph.dependencyStart(index) + k;
+            int previous = graph.dependencyStart(oldIndex) + k;
+            if (newGraph.idAt(newGraph.dependencyAt(current)) != graph.idAt(graph.dependencyAt(previous))
+                    || newGraph.dependencyType(current) != graph.dependencyType(previous)
+                    || newGraph.dependencyLag(current) != graph.dependencyLag(previous)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] ensureCapacity(int[] heap, int size){
+        return size < heap.length ? heap : Arrays.copyOf(heap, heap.length * 2);
+    }
+
+    private static int push(int[] heap, int size, int value){
+        int i = size;
+        heap[i] = value;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= heap[i]) {
+                break;
+            }
+            int swap = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = swap;
+            i = parent;
+        }
+        return size + 1;
+    }
+
+    private static int pop(int[] heap, int size){
+        int last = size - 1;
+        heap[0] = heap[last];
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= last) {
+                break;
+            }
+            int child = left + 1 < last && heap[left + 1] < heap[left] ? left + 1 : left;
+            if (heap[i] <= heap[child]) {
+                break;
+            }
+            int swap = heap[child];
+            heap[child] = heap[i];
+            heap[i] = swap;
+            i = child;
+        }
+        return last;
+    }
+}
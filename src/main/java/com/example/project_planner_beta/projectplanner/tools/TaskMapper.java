@@ -1,10 +1,14 @@
 package com.example.project_planner_beta.projectplanner.tools;
 
+import com.example.project_planner_beta.projectplanner.DependencyType;
 import com.example.project_planner_beta.projectplanner.Task;
+import com.example.project_planner_beta.projectplanner.TaskDependency;
 import com.example.project_planner_beta.projectplanner.dto.DependencyDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskChangeDTO;
 import com.example.project_planner_beta.projectplanner.dto.TaskDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
 
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 public class TaskMapper {
@@ -13,6 +17,16 @@ public class TaskMapper {
         if (task == null){
             return null;
         }
+        return toDTO(task, toDependencyDTOList(task.getDependencies()));
+    }
+
+    /**
+     * maps a task with dependencies that were already loaded, so the lazy dependencies are not touched
+     */
+    public static TaskDTO toDTO(Task task, List<DependencyDTO> dependencies){
+        if (task == null){
+            return null;
+        }
 
         TaskDTO dto = new TaskDTO();
 
@@ -24,11 +38,14 @@ public class TaskMapper {
         dto.setStartDate(task.getStartDate());
         dto.setEndDate(task.getEndDate());
 
-        dto.setDependencies(
-                task.getDependencies().stream()
-                        .map(d -> new DependencyDTO(d.getId(), d.getName()))
-                        .collect(Collectors.toList())
-        );
+        dto.setDependencies(dependencies);
+        dto.setVersion(task.getVersion());
+        dto.setStartNoEarlierThan(task.getStartNoEarlierThan());
+        if (task.getResource() != null) {
+            // the ID of a lazy resource is read without loading it
+            dto.setResourceId(task.getResource().getId());
+            dto.setResourceUnits(task.getResourceUnits() != null ? task.getResourceUnits() : 1);
+        }
 
         return dto;
     }
@@ -41,4 +58,115 @@ public class TaskMapper {
                 .map(TaskMapper::toDTO)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * maps tasks using dependencies grouped by task ID, tasks missing from the map have no dependencies
+     */
+    public static List<TaskDTO> toDTOList(List<Task> tasks, Map<Long, List<DependencyDTO>> dependencies){
+        List<TaskDTO> result = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            result.add(toDTO(task, dependencies.getOrDefault(task.getId(), new ArrayList<>())));
+        }
+        return result;
+    }
+
+    /**
+     * copies the critical path values of the task into the DTO, the calendar turns the day ordinals into dates
+     */
+    public static void setAnalysis(TaskDTO dto, ScheduleAnalysis analysis, CalendarIndex calendar){
+        int index = analysis.graph().indexOf(dto.getId());
+        if (index < 0) {
+            return;
+        }
+        dto.setEarlyStart(calendar.toDate(analysis.earlyStart(index)));
+        dto.setEarlyFinish(calendar.toDate(analysis.earlyFinish(index)));
+        dto.setLateStart(calendar.toDate(analysis.lateStart(index)));
+        dto.setLateFinish(calendar.toDate(analysis.lateFinish(index)));
+        dto.setTotalFloat(analysis.totalFloat(index));
+        dto.setFreeFloat(analysis.freeFloat(index));
+        dto.setCritical(analysis.isCritical(index));
+    }
+
+    /**
+     * groups dependency rows by the ID of the task owning them
+     */
+    public static Map<Long, List<DependencyDTO>> groupDependencies(List<TaskEdgeDTO> rows){
+        Map<Long, List<DependencyDTO>> result = new HashMap<>();
+        for (TaskEdgeDTO row : rows) {
+            if (row.getDependencyId() != null) {
+                result.computeIfAbsent(row.getTaskId(), id -> new ArrayList<>())
+                        .add(toDependencyDTO(row.getDependencyId(), row.getDependencyName(), row.getType(), row.getLag()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * groups the dependencies of the graph by task ID, names are taken from the already loaded tasks
+     */
+    public static Map<Long, List<DependencyDTO>> groupDependencies(DependencyGraph graph, List<Task> tasks){
+        Map<Long, String> names = new HashMap<>();
+        for (Task task : tasks) {
+            names.put(task.getId(), task.getName());
+        }
+        Map<Long, List<DependencyDTO>> result = new HashMap<>();
+        for (int i = 0; i < graph.size(); i++) {
+            int first = graph.dependencyStart(i);
+            int last = graph.dependencyEnd(i);
+            if (first == last) {
+                continue;
+            }
+            List<DependencyDTO> dependencies = new ArrayList<>(last - first);
+            for (int k = first; k < last; k++) {
+                long dependencyId = graph.idAt(graph.dependencyAt(k));
+                dependencies.add(toDependencyDTO(dependencyId, names.get(dependencyId), graph.dependencyType(k), graph.dependencyLag(k)));
+            }
+            result.put(graph.idAt(i), dependencies);
+        }
+        return result;
+    }
+
+    /**
+     * maps a dependency, type and lag are left out for the default finish-to-start without lag
+     */
+    public static DependencyDTO toDependencyDTO(Long id, String name, DependencyType type, Integer lag){
+        DependencyDTO dto = new DependencyDTO(id, name);
+        if ((type != null && type != DependencyType.FS) || (lag != null && lag != 0)) {
+            dto.setType(type != null ? type : DependencyType.FS);
+            dto.setLag(lag != null ? lag : 0);
+        }
+        return dto;
+    }
+
+    /**
+     * maps the loaded dependencies of a task with their type and lag
+     */
+    public static List<DependencyDTO> toDependencyDTOList(Collection<TaskDependency> dependencies){
+        List<DependencyDTO> result = new ArrayList<>(dependencies.size());
+        for (TaskDependency dep : dependencies) {
+            result.add(toDependencyDTO(dep.getDependency().getId(), dep.getDependency().getName(), dep.getType(), dep.getLag()));
+        }
+        return result;
+    }
+
+    /**
+     * maps a new task for the change feed, with all of its fields
+     */
+    public static TaskChangeDTO toCreatedDTO(Task task){
+        TaskChangeDTO dto = toMovedDTO(task);
+        dto.setName(task.getName());
+        dto.setStatus(task.getStatus().name());
+        dto.setDependencies(toDependencyDTOList(task.getDependencies()));
+        return dto;
+    }
+
+    /**
+     * maps a task moved by a schedule run for the change feed, with its new dates only
+     */
+    public static TaskChangeDTO toMovedDTO(Task task){
+        TaskChangeDTO dto = new TaskChangeDTO(task.getId());
+        dto.setStartDate(task.getStartDate());
+        dto.setEndDate(task.getEndDate());
+        return dto;
+    }
 }
@@ -0,0 +1,29 @@
+-- schema as it was created by Hibernate before the migrations were introduced
+
+create table if not exists project (
+    id bigint generated by default as identity,
+    code varchar(255) not null,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table if not exists task (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    project_code varchar(255) not null,
+    duration bigint,
+    status enum ('DONE','IN_PROGRESS','NOT_STARTED') not null,
+    start_date date not null,
+    end_date date not null,
+    project_id bigint,
+    primary key (id),
+    constraint fk_task_project foreign key (project_id) references project
+);
+
+create table if not exists task_dependencies (
+    task_id bigint not null,
+    dependency_id bigint not null,
+    primary key (dependency_id, task_id),
+    constraint fk_task_dependencies_task foreign key (task_id) references task,
+    constraint fk_task_dependencies_dependency foreign key (dependency_id) references task
+);
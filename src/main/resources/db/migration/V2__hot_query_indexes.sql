@@ -0,0 +1,18 @@
+-- task listing by project code and project lookups by code
+create index if not exists idx_task_project_code on task (project_code);
+create index if not exists idx_task_project_id on task (project_id);
+
+-- random codes of the first releases could repeat, every project but the first one of a code gets a new code
+-- before the unique constraint. Lower case codes never clash with generated ones, which only use A-Z and 0-9
+update task t set project_code = (
+    select 'd' || case when p.id < 100000 then lpad(cast(p.id as varchar), 5, '0') else cast(p.id as varchar) end
+    from project p where p.id = t.project_id)
+where exists (select 1 from project p where p.id = t.project_id
+    and exists (select 1 from project q where q.code = p.code and q.id < p.id));
+update project p set code = 'd' || case when p.id < 100000 then lpad(cast(p.id as varchar), 5, '0') else cast(p.id as varchar) end
+where exists (select 1 from project q where q.code = p.code and q.id < p.id);
+alter table project add constraint if not exists uk_project_code unique (code);
+
+-- dependencies of a task (forward) and dependents of a task (reverse)
+create index if not exists idx_task_dependencies_task on task_dependencies (task_id);
+create index if not exists idx_task_dependencies_dependency on task_dependencies (dependency_id);
@@ -0,0 +1,3 @@
+-- optimistic locking versions, existing rows start at 0
+alter table task add column if not exists version bigint default 0 not null;
+alter table project add column if not exists version bigint default 0 not null;
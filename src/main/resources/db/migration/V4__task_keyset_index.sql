@@ -0,0 +1,4 @@
+-- keyset pages of a project's tasks (project_code = ? and id > ? order by id),
+-- the composite index also serves every lookup the single column index did
+create index if not exists idx_task_project_code_id on task (project_code, id);
+drop index if exists idx_task_project_code;
@@ -0,0 +1,13 @@
+-- resources (people or pools) with the units they can give per day, a task uses units of at most one resource
+create table if not exists resource (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    capacity integer not null,
+    primary key (id),
+    constraint uk_resource_name unique (name)
+);
+
+alter table task add column if not exists resource_id bigint;
+alter table task add column if not exists resource_units integer;
+alter table task add constraint if not exists fk_task_resource foreign key (resource_id) references resource;
+create index if not exists idx_task_resource_id on task (resource_id);
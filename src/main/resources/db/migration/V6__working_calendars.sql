@@ -0,0 +1,31 @@
+-- working calendars, a project without a calendar uses the org default from planner.calendar.*
+create table if not exists working_calendar (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_working_calendar_name unique (name)
+);
+
+create table if not exists working_calendar_weekend (
+    calendar_id bigint not null,
+    day_of_week enum ('MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY') not null,
+    primary key (calendar_id, day_of_week),
+    constraint fk_working_calendar_weekend foreign key (calendar_id) references working_calendar
+);
+
+create table if not exists working_calendar_holiday (
+    calendar_id bigint not null,
+    holiday date not null,
+    primary key (calendar_id, holiday),
+    constraint fk_working_calendar_holiday foreign key (calendar_id) references working_calendar
+);
+
+create table if not exists working_calendar_working_day (
+    calendar_id bigint not null,
+    working_day date not null,
+    primary key (calendar_id, working_day),
+    constraint fk_working_calendar_working_day foreign key (calendar_id) references working_calendar
+);
+
+alter table project add column if not exists calendar_id bigint;
+alter table project add constraint if not exists fk_project_calendar foreign key (calendar_id) references working_calendar;
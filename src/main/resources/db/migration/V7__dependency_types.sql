@@ -0,0 +1,3 @@
+-- type (FS, SS, FF, SF) and lag in working days of every dependency, existing rows stay finish-to-start without lag
+alter table task_dependencies add column if not exists dependency_type enum ('FF','FS','SF','SS') default 'FS' not null;
+alter table task_dependencies add column if not exists lag_days integer default 0 not null;
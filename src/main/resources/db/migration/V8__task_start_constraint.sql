@@ -0,0 +1,2 @@
+-- leveled start of a task held after its dependencies by a resource, schedule runs do not start the task before it
+alter table task add column if not exists start_no_earlier_than date;
@@ -0,0 +1,9 @@
+-- project code allocator, not part of V1: databases from before the migrations are baselined at V1
+create table if not exists code_sequence (
+    name varchar(255) not null,
+    next_value bigint not null,
+    primary key (name)
+);
+
+insert into code_sequence (name, next_value)
+select 'project_code', 0 where not exists (select 1 from code_sequence where name = 'project_code');
@@ -0,0 +1,40 @@
+package com.example.project_planner_beta;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaMigrationTests {
+
+	@Test
+	void migratesADatabaseFromBeforeTheMigrations() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:legacy-schema;DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		// as Hibernate created it, with two projects that got the same random code
+		jdbc.execute("create table project (id bigint generated by default as identity, code varchar(255) not null, "
+				+ "name varchar(255) not null, primary key (id))");
+		jdbc.execute("create table task (id bigint generated by default as identity, name varchar(255) not null, "
+				+ "project_code varchar(255) not null, duration bigint, status enum ('DONE','IN_PROGRESS','NOT_STARTED') not null, "
+				+ "start_date date not null, end_date date not null, project_id bigint, primary key (id), "
+				+ "constraint fk_task_project foreign key (project_id) references project)");
+		jdbc.execute("create table task_dependencies (task_id bigint not null, dependency_id bigint not null, "
+				+ "primary key (dependency_id, task_id))");
+		jdbc.update("insert into project (id, code, name) values (1, 'ABC123', 'first'), (2, 'ABC123', 'second'), (3, 'XYZ789', 'third')");
+		jdbc.update("insert into task (name, project_code, duration, status, start_date, end_date, project_id) values "
+				+ "('a', 'ABC123', 1, 'NOT_STARTED', date '2025-01-01', date '2025-01-01', 1), "
+				+ "('b', 'ABC123', 1, 'NOT_STARTED', date '2025-01-01', date '2025-01-01', 2)");
+
+		Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).load().migrate();
+
+		assertThat(jdbc.queryForList("select code from project order by id", String.class))
+				.containsExactly("ABC123", "d00002", "XYZ789");
+		assertThat(jdbc.queryForList("select project_code from task order by project_id", String.class))
+				.containsExactly("ABC123", "d00002");
+		assertThat(jdbc.queryForObject("select next_value from code_sequence where name = 'project_code'", Long.class))
+				.isZero();
+	}
+}
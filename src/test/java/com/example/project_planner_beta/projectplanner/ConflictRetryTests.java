@@ -0,0 +1,93 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.common.ConflictException;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchItemDTO;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchRequestDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:planner-tests;DB_CLOSE_DELAY=-1",
+		"planner.conflict.max-attempts=3"})
+@AutoConfigureMockMvc
+class ConflictRetryTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ConflictRetry conflictRetry;
+	@Autowired
+	private ProjectService projectService;
+	@MockitoSpyBean
+	private TaskService taskService;
+
+	@Test
+	void retriesUntilAnAttemptCommits() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = conflictRetry.run("Test change", () -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw new OptimisticLockingFailureException("version check lost");
+			}
+			return "saved";
+		});
+
+		assertThat(result).isEqualTo("saved");
+		assertThat(attempts).hasValue(3);
+	}
+
+	@Test
+	void givesUpAfterTheConfiguredAttempts() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> conflictRetry.run("Test change", () -> {
+			attempts.incrementAndGet();
+			throw new OptimisticLockingFailureException("version check lost");
+		}))
+				.isInstanceOf(ConflictException.class)
+				.hasMessage("Test change conflicted with a concurrent change, please try again");
+		assertThat(attempts).hasValue(3);
+	}
+
+	@Test
+	void taskUpdateThatKeepsConflictingIsAConflict() throws Exception {
+		String code = projectService.createProject("conflict retry", null).getCode();
+		CreateTaskBatchItemDTO item = new CreateTaskBatchItemDTO();
+		item.setName("a");
+		item.setStartDate(LocalDate.parse("2025-01-01"));
+		item.setEndDate(LocalDate.parse("2025-01-02"));
+		CreateTaskBatchRequestDTO request = new CreateTaskBatchRequestDTO();
+		request.setProjectCode(code);
+		request.setTasks(List.of(item));
+		Long taskId = taskService.createTasks(request).get(0).getId();
+		// every attempt loses the version check against a concurrent writer
+		doThrow(new OptimisticLockingFailureException("version check lost")).when(taskService).updateTask(eq(taskId), any());
+
+		mockMvc.perform(put("/api/tasks/" + taskId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"a\",\"status\":\"NOT_STARTED\",\"startDate\":\"2025-01-01\",\"endDate\":\"2025-01-03\"}"))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.message").value("Update of task ID=" + taskId + " conflicted with a concurrent change, please try again"));
+		verify(taskService, times(3)).updateTask(eq(taskId), any());
+	}
+}
@@ -0,0 +1,135 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchItemDTO;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchRequestDTO;
+import com.example.project_planner_beta.projectplanner.dto.DependencyLinkDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:planner-tests;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class DependencyGraphIndexTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private ProjectService projectService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@MockitoSpyBean
+	private TaskRepository taskRepository;
+
+	@Test
+	void keepsTheGraphInSyncWithoutReloadingIt() throws Exception {
+		String code = projectService.createProject("graph index", null).getCode();
+		// start-to-start links on the same dates pass the date checks, only loops are rejected
+		CreateTaskBatchItemDTO b = item("b");
+		b.setDependencyLinks(List.of(keyLink("a")));
+		CreateTaskBatchItemDTO c = item("c");
+		c.setDependencyLinks(List.of(keyLink("b")));
+		List<Task> tasks = taskService.createTasks(request(code, item("a"), b, c));
+		long aId = tasks.get(0).getId();
+		long bId = tasks.get(1).getId();
+		long cId = tasks.get(2).getId();
+
+		update(cId, "c").andExpect(status().isOk());
+		// c no longer depends on b, so a can depend on c
+		update(aId, "a", cId).andExpect(status().isOk());
+		// c -> b -> a -> c
+		update(cId, "c", bId)
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("This action will result in a circular dependency"));
+
+		// the graph was read once and then changed in place by the updates
+		verify(taskRepository, times(1)).findDependencyEdgesByProjectCode(code);
+	}
+
+	@Test
+	void concurrentWritersCannotCloseALoopTogether() throws Exception {
+		ExecutorService writers = Executors.newFixedThreadPool(2);
+		try {
+			for (int round = 0; round < 5; round++) {
+				String code = projectService.createProject("graph race " + round, null).getCode();
+				List<Task> tasks = taskService.createTasks(request(code, item("a"), item("b")));
+				long aId = tasks.get(0).getId();
+				long bId = tasks.get(1).getId();
+
+				CyclicBarrier start = new CyclicBarrier(2);
+				Future<Integer> first = writers.submit(() -> {
+					start.await();
+					return update(aId, "a", bId).andReturn().getResponse().getStatus();
+				});
+				Future<Integer> second = writers.submit(() -> {
+					start.await();
+					return update(bId, "b", aId).andReturn().getResponse().getStatus();
+				});
+
+				List<Integer> statuses = new ArrayList<>(List.of(first.get(), second.get()));
+				assertThat(statuses).containsExactlyInAnyOrder(200, 400);
+				Integer rows = jdbcTemplate.queryForObject(
+						"select count(*) from task_dependencies where task_id in (?, ?)", Integer.class, aId, bId);
+				assertThat(rows).isEqualTo(1);
+			}
+		} finally {
+			writers.shutdownNow();
+		}
+	}
+
+	private ResultActions update(long id, String name, Long... dependencyIds) throws Exception {
+		StringBuilder links = new StringBuilder();
+		for (Long dependencyId : dependencyIds) {
+			links.append(links.isEmpty() ? "" : ",")
+					.append("{\"dependencyId\":").append(dependencyId).append(",\"type\":\"SS\",\"lag\":0}");
+		}
+		return mockMvc.perform(put("/api/tasks/" + id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"" + name + "\",\"status\":\"NOT_STARTED\",\"startDate\":\"2025-01-06\",\"endDate\":\"2025-01-07\","
+						+ "\"dependencyLinks\":[" + links + "]}"));
+	}
+
+	private static DependencyLinkDTO keyLink(String key) {
+		DependencyLinkDTO link = new DependencyLinkDTO(null, DependencyType.SS, 0);
+		link.setDependencyKey(key);
+		return link;
+	}
+
+	private static CreateTaskBatchRequestDTO request(String code, CreateTaskBatchItemDTO... items) {
+		CreateTaskBatchRequestDTO request = new CreateTaskBatchRequestDTO();
+		request.setProjectCode(code);
+		request.setTasks(List.of(items));
+		return request;
+	}
+
+	private static CreateTaskBatchItemDTO item(String name) {
+		CreateTaskBatchItemDTO item = new CreateTaskBatchItemDTO();
+		item.setKey(name);
+		item.setName(name);
+		item.setStartDate(LocalDate.parse("2025-01-06"));
+		item.setEndDate(LocalDate.parse("2025-01-07"));
+		return item;
+	}
+}
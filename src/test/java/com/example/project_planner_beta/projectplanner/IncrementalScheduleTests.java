@@ -0,0 +1,143 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.common.BadRequestException;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchItemDTO;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchRequestDTO;
+import com.example.project_planner_beta.projectplanner.dto.DownstreamTaskDTO;
+import com.example.project_planner_beta.projectplanner.dto.ProjectScheduleDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskImpactDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:planner-tests;DB_CLOSE_DELAY=-1")
+class IncrementalScheduleTests {
+
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private ProjectService projectService;
+	@Autowired
+	private TaskRepository taskRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void movesOnlyTheTasksDownstreamOfAChangedTask() {
+		Project project = projectService.createProject("incremental cone", null);
+		List<Task> tasks = chain(project.getCode());
+		taskService.generateSchedule(project.getId());
+
+		moveEnd(tasks.get(0), project.getCode(), "2025-01-05");
+
+		ProjectScheduleDTO schedule = taskService.generateSchedule(project.getId());
+
+		assertThat(schedule.getChangedTasks()).isEqualTo(2);
+		// only the moved tasks are returned, the critical tasks still cover the whole project
+		assertThat(schedule.getTasks()).extracting(TaskDTO::getId).containsExactly(tasks.get(1).getId(), tasks.get(2).getId());
+		assertThat(schedule.getCriticalTasks()).containsExactly(tasks.get(0).getId(), tasks.get(1).getId(), tasks.get(2).getId());
+		assertDates(tasks.get(1), "2025-01-06", "2025-01-07");
+		assertDates(tasks.get(2), "2025-01-08", "2025-01-09");
+		assertDates(tasks.get(3), "2025-01-01", "2025-01-02");
+		// nothing changed since, the next run moves nothing
+		assertThat(taskService.generateSchedule(project.getId()).getChangedTasks()).isZero();
+	}
+
+	@Test
+	void schedulesInFullAfterAWriteItHasNoRecordOf() {
+		Project project = projectService.createProject("incremental outside", null);
+		List<Task> tasks = chain(project.getCode());
+		taskService.generateSchedule(project.getId());
+
+		// as written by another node, the version goes up but no change is recorded here
+		jdbcTemplate.update("update task set end_date = ?, duration = 5, version = version + 1 where id = ?",
+				LocalDate.parse("2025-01-05"), tasks.get(0).getId());
+
+		ProjectScheduleDTO schedule = taskService.generateSchedule(project.getId());
+
+		assertThat(schedule.getChangedTasks()).isEqualTo(2);
+		assertDates(tasks.get(1), "2025-01-06", "2025-01-07");
+		assertDates(tasks.get(2), "2025-01-08", "2025-01-09");
+	}
+
+	@Test
+	void impactStartsFromTheLastScheduleWithTheChangesSinceApplied() {
+		Project project = projectService.createProject("incremental impact", null);
+		List<Task> tasks = chain(project.getCode());
+		taskService.generateSchedule(project.getId());
+		// not scheduled yet, the baseline still has it
+		moveEnd(tasks.get(0), project.getCode(), "2025-01-05");
+
+		TaskImpactDTO impact = taskService.getTaskImpact(tasks.get(0).getId(), 2);
+
+		assertThat(impact.getDownstream())
+				.extracting(DownstreamTaskDTO::getName, DownstreamTaskDTO::getStartDate, DownstreamTaskDTO::getNewStartDate, DownstreamTaskDTO::getShift)
+				.containsExactlyInAnyOrder(
+						tuple("b", LocalDate.parse("2025-01-06"), LocalDate.parse("2025-01-08"), 2L),
+						tuple("c", LocalDate.parse("2025-01-08"), LocalDate.parse("2025-01-10"), 2L));
+		assertThat(impact.getProjectFinish()).isEqualTo("2025-01-09");
+		assertThat(impact.getNewProjectFinish()).isEqualTo("2025-01-11");
+	}
+
+	@Test
+	void rejectsSlipsLongerThanTheLagBound() {
+		Project project = projectService.createProject("incremental slip", null);
+		Task a = chain(project.getCode()).get(0);
+
+		assertThat(taskService.getTaskImpact(a.getId(), 36500).getProjectDelay()).isEqualTo(36500);
+		assertThatThrownBy(() -> taskService.getTaskImpact(a.getId(), 36501))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("Slip days cannot be more than 36500");
+		assertThatThrownBy(() -> taskService.getTaskImpact(a.getId(), Long.MAX_VALUE))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	private void moveEnd(Task task, String code, String end) {
+		Task update = new Task();
+		update.setName(task.getName());
+		update.setProjectCode(code);
+		update.setStartDate(task.getStartDate());
+		update.setEndDate(LocalDate.parse(end));
+		update.setStatus(TaskStatus.NOT_STARTED);
+		update.setDependencies(new HashSet<>());
+		taskService.updateTask(task.getId(), update);
+	}
+
+	/** a -> b -> c and d without dependencies */
+	private List<Task> chain(String code) {
+		CreateTaskBatchItemDTO b = item("b", "2025-01-04", "2025-01-05");
+		b.setDependencyKeys(List.of("a"));
+		CreateTaskBatchItemDTO c = item("c", "2025-01-06", "2025-01-07");
+		c.setDependencyKeys(List.of("b"));
+		CreateTaskBatchRequestDTO request = new CreateTaskBatchRequestDTO();
+		request.setProjectCode(code);
+		request.setTasks(Arrays.asList(item("a", "2025-01-01", "2025-01-03"), b, c, item("d", "2025-01-01", "2025-01-02")));
+		return taskService.createTasks(request);
+	}
+
+	private void assertDates(Task task, String start, String end) {
+		Task stored = taskRepository.findById(task.getId()).orElseThrow();
+		assertThat(stored.getStartDate()).isEqualTo(start);
+		assertThat(stored.getEndDate()).isEqualTo(end);
+	}
+
+	private static CreateTaskBatchItemDTO item(String key, String start, String end) {
+		CreateTaskBatchItemDTO item = new CreateTaskBatchItemDTO();
+		item.setKey(key);
+		item.setName(key);
+		item.setStartDate(LocalDate.parse(start));
+		item.setEndDate(LocalDate.parse(end));
+		return item;
+	}
+}
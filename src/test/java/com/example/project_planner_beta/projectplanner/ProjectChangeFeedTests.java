@@ -0,0 +1,202 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.projectplanner.dto.TaskChangeDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:planner-tests;DB_CLOSE_DELAY=-1",
+		"planner.feed.send-timeout=200ms"})
+class ProjectChangeFeedTests {
+
+	@Autowired
+	private ProjectChangeFeed changeFeed;
+	@Autowired
+	private ProjectService projectService;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void deliversOnlyCommittedChanges() throws InterruptedException {
+		String code = projectService.createProject("feed commit", null).getCode();
+		RecordingEmitter emitter = new RecordingEmitter();
+		changeFeed.subscribe(code, null, emitter);
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+		transaction.executeWithoutResult(status -> {
+			changeFeed.publish(code, "task-updated", () -> new TaskChangeDTO(1L));
+			pause();
+			assertThat(emitter.names()).doesNotContain("task-updated");
+		});
+		await(() -> emitter.names().contains("task-updated"));
+
+		transaction.executeWithoutResult(status -> {
+			changeFeed.publish(code, "task-deleted", () -> new TaskChangeDTO(2L));
+			status.setRollbackOnly();
+		});
+		changeFeed.publish(code, "task-created", () -> new TaskChangeDTO(3L));
+		await(() -> emitter.names().contains("task-created"));
+
+		assertThat(emitter.names()).containsExactly("task-updated", "task-created");
+	}
+
+	@Test
+	void replaysMissedEventsAfterLastEventId() throws InterruptedException {
+		String code = projectService.createProject("feed replay", null).getCode();
+		RecordingEmitter first = new RecordingEmitter();
+		changeFeed.subscribe(code, null, first);
+		for (long id = 1; id <= 3; id++) {
+			long taskId = id;
+			changeFeed.publish(code, "task-created", () -> new TaskChangeDTO(taskId));
+		}
+		await(() -> first.ids().size() == 3);
+
+		RecordingEmitter reconnected = new RecordingEmitter();
+		changeFeed.subscribe(code, first.ids().get(0), reconnected);
+		await(() -> reconnected.ids().size() == 2);
+
+		assertThat(reconnected.ids()).containsExactlyElementsOf(first.ids().subList(1, 3));
+	}
+
+	@Test
+	void resetsWhenMissedEventsAreGone() throws InterruptedException {
+		String code = projectService.createProject("feed reset", null).getCode();
+		RecordingEmitter emitter = new RecordingEmitter();
+		// an id from before a restart
+		changeFeed.subscribe(code, 5L, emitter);
+		await(() -> !emitter.names().isEmpty());
+
+		assertThat(emitter.names()).containsExactly("reset");
+	}
+
+	@Test
+	void deletedProjectEndsItsFeed() throws InterruptedException {
+		Project project = projectService.createProject("feed delete", null);
+		RecordingEmitter emitter = new RecordingEmitter();
+		changeFeed.subscribe(project.getCode(), null, emitter);
+		int feeds = changeFeed.feedCount();
+
+		projectService.deleteProject(project.getId());
+		await(() -> emitter.names().contains("deleted"));
+
+		assertThat(changeFeed.feedCount()).isEqualTo(feeds - 1);
+		// a late subscriber of the deleted project does not bring the feed back
+		changeFeed.subscribe(project.getCode(), null, new RecordingEmitter());
+		assertThat(changeFeed.feedCount()).isEqualTo(feeds - 1);
+	}
+
+	@Test
+	void stalledSubscribersDoNotHoldUpOtherFeeds() throws InterruptedException {
+		String stalledCode = projectService.createProject("feed stalled", null).getCode();
+		String code = projectService.createProject("feed flowing", null).getCode();
+		CountDownLatch release = new CountDownLatch(1);
+		List<StallingEmitter> stalled = new ArrayList<>();
+		try {
+			// more stalled subscribers than senders, each one blocks on its first send
+			for (int i = 0; i < 8; i++) {
+				StallingEmitter emitter = new StallingEmitter(release);
+				stalled.add(emitter);
+				changeFeed.subscribe(stalledCode, null, emitter);
+			}
+			RecordingEmitter emitter = new RecordingEmitter();
+			changeFeed.subscribe(code, null, emitter);
+			changeFeed.publish(code, "task-created", () -> new TaskChangeDTO(1L));
+
+			await(() -> emitter.names().contains("task-created"));
+			// every stalled send runs past the send timeout before it is released
+			await(() -> stalled.stream().allMatch(StallingEmitter::sending));
+			Thread.sleep(500);
+		} finally {
+			release.countDown();
+		}
+		// they were disconnected, the sends that returned late complete their emitters
+		await(() -> stalled.stream().allMatch(StallingEmitter::completed));
+	}
+
+	private static void pause() {
+		try {
+			Thread.sleep(200);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+			Thread.sleep(50);
+		}
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+
+	/** blocks every send until it is released, like a client that stopped reading */
+	private static class StallingEmitter extends SseEmitter {
+		private final CountDownLatch release;
+		private volatile boolean sending;
+		private volatile boolean completed;
+
+		StallingEmitter(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			sending = true;
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			}
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+
+		boolean sending() {
+			return sending;
+		}
+
+		boolean completed() {
+			return completed;
+		}
+	}
+
+	/** keeps the events sent to it instead of writing them to a response */
+	private static class RecordingEmitter extends SseEmitter {
+		private static final Pattern ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+		private static final Pattern NAME = Pattern.compile("^event:(\\S+)$", Pattern.MULTILINE);
+
+		private final List<String> events = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			StringBuilder text = new StringBuilder();
+			builder.build().forEach(part -> text.append(part.getData()));
+			events.add(text.toString());
+		}
+
+		List<String> names() {
+			return events.stream().map(NAME::matcher).filter(Matcher::find).map(m -> m.group(1)).toList();
+		}
+
+		List<Long> ids() {
+			return events.stream().map(ID::matcher).filter(Matcher::find).map(m -> Long.parseLong(m.group(1))).toList();
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.project_planner_beta.projectplanner;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:planner-tests;DB_CLOSE_DELAY=-1")
+class ProjectCodeAllocatorTests {
+
+	private static final long CODE_SPACE = 2_176_782_336L; // 36^6
+
+	@Autowired
+	private CodeSequenceRepository codeSequenceRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void consecutiveValuesGetDistinctCodes() {
+		Set<String> codes = new HashSet<>();
+		for (long value = 0; value < 200_000; value++) {
+			String code = ProjectCodeAllocator.encode(value);
+			assertThat(code).matches("[A-Z0-9]{6}");
+			assertThat(codes.add(code)).as("code of %d is new", value).isTrue();
+		}
+	}
+
+	@Test
+	void valuesAcrossTheWholeRangeStaySixCharactersWide() {
+		Set<String> codes = new HashSet<>();
+		// values far apart, including both ends of the range, where the multiplication is largest
+		for (long value = CODE_SPACE - 1; value >= 0; value -= 999_983) {
+			String code = ProjectCodeAllocator.encode(value);
+			assertThat(code).matches("[A-Z0-9]{6}");
+			assertThat(codes.add(code)).as("code of %d is new", value).isTrue();
+		}
+		assertThat(ProjectCodeAllocator.encode(0)).isNotEqualTo(ProjectCodeAllocator.encode(CODE_SPACE - 1));
+		assertThatThrownBy(() -> ProjectCodeAllocator.encode(CODE_SPACE)).isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> ProjectCodeAllocator.encode(-1)).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void nodesTakingBlocksInTurnNeverShareACode() {
+		// two nodes with small blocks, so most codes come from the start or end of a block
+		ProjectCodeAllocator first = new ProjectCodeAllocator(codeSequenceRepository, transactionManager, 3);
+		ProjectCodeAllocator second = new ProjectCodeAllocator(codeSequenceRepository, transactionManager, 3);
+		Set<String> codes = new HashSet<>();
+		for (int i = 0; i < 20; i++) {
+			assertThat(codes.add(first.nextCode())).isTrue();
+			assertThat(codes.add(second.nextCode())).isTrue();
+			assertThat(codes.add(second.nextCode())).isTrue();
+		}
+		assertThat(codes).hasSize(60).allSatisfy(code -> assertThat(code).hasSize(6));
+	}
+}
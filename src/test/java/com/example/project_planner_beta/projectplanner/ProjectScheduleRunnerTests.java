@@ -0,0 +1,143 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.common.BadRequestException;
+import com.example.project_planner_beta.projectplanner.dto.AllSchedulesDTO;
+import com.example.project_planner_beta.projectplanner.dto.ProjectScheduleDTO;
+import com.example.project_planner_beta.projectplanner.dto.ScheduleFailureDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProjectScheduleRunnerTests {
+
+	private final TaskService taskService = mock(TaskService.class);
+	private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+	private final ForkJoinPool executor = new ForkJoinPool(2);
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+			.setFilterProvider(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+	private final ProjectScheduleRunner runner =
+			new ProjectScheduleRunner(taskService, projectRepository, executor, objectMapper, new ConflictRetry(3));
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void failingProjectDoesNotStopTheOthers() {
+		when(projectRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+		when(taskService.generateSchedule(1L)).thenReturn(schedule(1L, "one"));
+		when(taskService.generateSchedule(2L)).thenThrow(new BadRequestException("Project has no tasks"));
+		// loses a version check once, then it is scheduled again
+		when(taskService.generateSchedule(3L))
+				.thenThrow(new OptimisticLockingFailureException("version check lost"))
+				.thenReturn(schedule(3L, "three"));
+
+		AllSchedulesDTO result = runner.generateAllSchedule();
+
+		assertThat(result.getSchedules()).extracting(ProjectScheduleDTO::getProjectId).containsExactly(1L, 3L);
+		assertThat(result.getFailures()).extracting(ScheduleFailureDTO::getProjectId, ScheduleFailureDTO::getMessage)
+				.containsExactly(tuple(2L, "Project has no tasks"));
+		verify(taskService, times(1)).generateSchedule(2L);
+		verify(taskService, times(2)).generateSchedule(3L);
+	}
+
+	@Test
+	void streamsEveryProjectWithItsTasksAndFlushesAfterEach() throws Exception {
+		List<Long> projectIds = new ArrayList<>();
+		for (long projectId = 1; projectId <= 10; projectId++) {
+			projectIds.add(projectId);
+		}
+		when(projectRepository.findIdsAfter(eq(0L), any())).thenReturn(projectIds);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		when(taskService.generateSchedule(anyLong())).thenAnswer(invocation -> {
+			Long projectId = invocation.getArgument(0);
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(20);
+			} finally {
+				running.decrementAndGet();
+			}
+			if (projectId == 4L) {
+				throw new BadRequestException("Project has no tasks");
+			}
+			return schedule(projectId, "p" + projectId, "a" + projectId, "b" + projectId, "c" + projectId);
+		});
+		RecordingStream out = new RecordingStream();
+
+		runner.streamAllSchedules(out);
+
+		// no more projects are in memory than the executor schedules at once
+		assertThat(maxRunning.get()).isLessThanOrEqualTo(executor.getParallelism());
+		// one flush per project, each after the last line of the project
+		assertThat(out.flushes).hasSize(10).allSatisfy(written -> assertThat(written).endsWith("\n"));
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+			lines.add(objectMapper.readTree(line));
+		}
+		assertThat(lines).hasSize(9 * 4 + 1);
+		for (int i = 0; i < lines.size(); ) {
+			JsonNode header = lines.get(i);
+			long projectId = header.get("projectId").asLong();
+			if (projectId == 4L) {
+				assertThat(header.get("type").asText()).isEqualTo("failure");
+				assertThat(header.get("message").asText()).isEqualTo("Project has no tasks");
+				i++;
+				continue;
+			}
+			assertThat(header.get("type").asText()).isEqualTo("project");
+			// the tasks of a project follow it in schedule order, before any other project
+			for (String name : List.of("a", "b", "c")) {
+				JsonNode task = lines.get(++i);
+				assertThat(task.get("type").asText()).isEqualTo("task");
+				assertThat(task.get("projectId").asLong()).isEqualTo(projectId);
+				assertThat(task.get("name").asText()).isEqualTo(name + projectId);
+			}
+			i++;
+		}
+		assertThat(lines).extracting(line -> line.get("projectId").asLong()).containsAll(projectIds);
+	}
+
+	private static ProjectScheduleDTO schedule(Long projectId, String name, String... taskNames) {
+		List<TaskDTO> tasks = new ArrayList<>();
+		for (String taskName : taskNames) {
+			TaskDTO task = new TaskDTO();
+			task.setName(taskName);
+			tasks.add(task);
+		}
+		return new ProjectScheduleDTO(projectId, name, (long) tasks.size(), tasks);
+	}
+
+	/** keeps what was written at every flush */
+	private static final class RecordingStream extends ByteArrayOutputStream {
+		private final List<String> flushes = new ArrayList<>();
+
+		@Override
+		public void flush() {
+			flushes.add(toString(StandardCharsets.UTF_8));
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.projectplanner.tools.CsvProjectFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:planner-tests;DB_CLOSE_DELAY=-1")
+class ProjectTransferServiceTests {
+
+	@Autowired
+	private ProjectTransferService projectTransferService;
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Test
+	void brokenUploadSavesNothing() {
+		// more tasks than one chunk, so some are written before the upload breaks
+		StringBuilder csv = new StringBuilder("project,broken upload\n");
+		for (int i = 1; i <= 6000; i++) {
+			csv.append("task,").append(i).append(",t").append(i).append(",NOT_STARTED,2025-01-01,2025-01-02,,\n");
+		}
+		InputStream breaking = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("connection reset");
+			}
+		};
+		InputStream upload = new SequenceInputStream(
+				new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), breaking);
+		long projects = projectRepository.count();
+
+		assertThatThrownBy(() -> projectTransferService.importProject(upload, CsvProjectFormat.INSTANCE, null, null))
+				.isInstanceOf(IOException.class);
+		assertThat(projectRepository.count()).isEqualTo(projects);
+		assertThat(projectRepository.findAll()).noneMatch(project -> "broken upload".equals(project.getName()));
+	}
+}
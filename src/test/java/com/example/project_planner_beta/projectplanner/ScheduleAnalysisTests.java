@@ -0,0 +1,142 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.common.BadRequestException;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchItemDTO;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchRequestDTO;
+import com.example.project_planner_beta.projectplanner.dto.DependencyLinkDTO;
+import com.example.project_planner_beta.projectplanner.dto.ProjectScheduleDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskShiftDTO;
+import com.example.project_planner_beta.projectplanner.dto.WhatIfChangeDTO;
+import com.example.project_planner_beta.projectplanner.dto.WhatIfRequestDTO;
+import com.example.project_planner_beta.projectplanner.dto.WhatIfScheduleDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:planner-tests;DB_CLOSE_DELAY=-1")
+class ScheduleAnalysisTests {
+
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private ProjectService projectService;
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Test
+	void reportsFloatsAndCriticalTasksWithoutWritingTheSchedule() {
+		Project project = projectService.createProject("analysis", null);
+		// a -> {b -> e, c} -> d over five days, c is the long branch
+		List<Task> tasks = taskService.createTasks(request(project.getCode(),
+				item("a", "2025-01-06", "2025-01-06"),
+				item("b", "2025-01-07", "2025-01-07", "a"),
+				item("e", "2025-01-08", "2025-01-08", "b"),
+				item("c", "2025-01-07", "2025-01-09", "a"),
+				// stored three days late, its early start is right after c
+				item("d", "2025-01-13", "2025-01-13", "e", "c")));
+		Map<String, Long> ids = tasks.stream().collect(Collectors.toMap(Task::getName, Task::getId));
+
+		ProjectScheduleDTO schedule = taskService.analyzeSchedule(project.getId());
+
+		assertThat(schedule.getProjectStart()).isEqualTo("2025-01-06");
+		assertThat(schedule.getProjectFinish()).isEqualTo("2025-01-10");
+		assertThat(schedule.getProjectDuration()).isEqualTo(5);
+		assertThat(schedule.getCriticalPath()).containsExactly(ids.get("a"), ids.get("c"), ids.get("d"));
+		assertThat(schedule.getCriticalTasks()).containsExactlyInAnyOrder(ids.get("a"), ids.get("c"), ids.get("d"));
+		Map<String, TaskDTO> byName = schedule.getTasks().stream().collect(Collectors.toMap(TaskDTO::getName, Function.identity()));
+		// b can slip a day before it delays e, e can slip a day before it delays d
+		assertThat(byName.get("b")).extracting(TaskDTO::getLateStart, TaskDTO::getTotalFloat, TaskDTO::getFreeFloat, TaskDTO::getCritical)
+				.containsExactly(LocalDate.parse("2025-01-08"), 1L, 0L, false);
+		assertThat(byName.get("e")).extracting(TaskDTO::getLateStart, TaskDTO::getTotalFloat, TaskDTO::getFreeFloat, TaskDTO::getCritical)
+				.containsExactly(LocalDate.parse("2025-01-09"), 1L, 1L, false);
+		assertThat(byName.get("c")).extracting(TaskDTO::getEarlyStart, TaskDTO::getEarlyFinish, TaskDTO::getLateStart, TaskDTO::getLateFinish, TaskDTO::getTotalFloat)
+				.containsExactly(LocalDate.parse("2025-01-07"), LocalDate.parse("2025-01-09"), LocalDate.parse("2025-01-07"), LocalDate.parse("2025-01-09"), 0L);
+		assertThat(byName.get("d")).extracting(TaskDTO::getStartDate, TaskDTO::getEarlyStart, TaskDTO::getCritical)
+				.containsExactly(LocalDate.parse("2025-01-13"), LocalDate.parse("2025-01-10"), true);
+
+		// the analysis only reads, d keeps its stored dates and version
+		Task stored = taskRepository.findById(ids.get("d")).orElseThrow();
+		assertThat(stored.getStartDate()).isEqualTo("2025-01-13");
+		assertThat(stored.getVersion()).isEqualTo(tasks.get(4).getVersion());
+	}
+
+	@Test
+	void whatIfReportsTheShiftsOfAChangeWithoutSavingIt() {
+		Project project = projectService.createProject("what if", null);
+		List<Task> tasks = taskService.createTasks(request(project.getCode(),
+				item("a", "2025-01-06", "2025-01-06"),
+				item("b", "2025-01-07", "2025-01-07", "a"),
+				item("e", "2025-01-08", "2025-01-08", "b"),
+				item("c", "2025-01-07", "2025-01-09", "a"),
+				item("d", "2025-01-10", "2025-01-10", "e", "c")));
+		Map<String, Long> ids = tasks.stream().collect(Collectors.toMap(Task::getName, Task::getId));
+
+		// b takes three days, so b -> e becomes the long branch and d moves a day
+		WhatIfChangeDTO longer = new WhatIfChangeDTO();
+		longer.setTaskId(ids.get("b"));
+		longer.setDuration(3L);
+		WhatIfScheduleDTO whatIf = taskService.whatIfSchedule(project.getId(), whatIf(longer));
+
+		assertThat(whatIf.getBaselineFinish()).isEqualTo("2025-01-10");
+		assertThat(whatIf.getSchedule().getProjectFinish()).isEqualTo("2025-01-11");
+		assertThat(whatIf.getDurationChange()).isEqualTo(1);
+		assertThat(whatIf.getSchedule().getCriticalPath()).containsExactly(ids.get("a"), ids.get("b"), ids.get("e"), ids.get("d"));
+		assertThat(whatIf.getShifts()).extracting(TaskShiftDTO::getName, TaskShiftDTO::getStartDate, TaskShiftDTO::getEndDate,
+						TaskShiftDTO::getBaselineCritical, TaskShiftDTO::getCritical)
+				.containsExactlyInAnyOrder(
+						tuple("b", LocalDate.parse("2025-01-07"), LocalDate.parse("2025-01-09"), false, true),
+						tuple("e", LocalDate.parse("2025-01-10"), LocalDate.parse("2025-01-10"), false, true),
+						// c did not move, it is no longer critical
+						tuple("c", LocalDate.parse("2025-01-07"), LocalDate.parse("2025-01-09"), true, false),
+						tuple("d", LocalDate.parse("2025-01-11"), LocalDate.parse("2025-01-11"), true, true));
+
+		// a dependency of a on d closes a loop in the copy
+		WhatIfChangeDTO loop = new WhatIfChangeDTO();
+		loop.setTaskId(ids.get("a"));
+		loop.setAddDependencyIds(List.of(ids.get("d")));
+		assertThatThrownBy(() -> taskService.whatIfSchedule(project.getId(), whatIf(loop)))
+				.isInstanceOf(BadRequestException.class);
+
+		// neither scenario touched the stored tasks
+		for (Task task : tasks) {
+			Task stored = taskRepository.findById(task.getId()).orElseThrow();
+			assertThat(stored.getEndDate()).isEqualTo(task.getEndDate());
+			assertThat(stored.getVersion()).isEqualTo(task.getVersion());
+		}
+		assertThat(taskService.analyzeSchedule(project.getId()).getProjectFinish()).isEqualTo("2025-01-10");
+	}
+
+	private static WhatIfRequestDTO whatIf(WhatIfChangeDTO... changes) {
+		WhatIfRequestDTO request = new WhatIfRequestDTO();
+		request.setChanges(List.of(changes));
+		return request;
+	}
+
+	private static CreateTaskBatchRequestDTO request(String code, CreateTaskBatchItemDTO... items) {
+		CreateTaskBatchRequestDTO request = new CreateTaskBatchRequestDTO();
+		request.setProjectCode(code);
+		request.setTasks(List.of(items));
+		return request;
+	}
+
+	private static CreateTaskBatchItemDTO item(String name, String start, String end, String... dependencyKeys) {
+		CreateTaskBatchItemDTO item = new CreateTaskBatchItemDTO();
+		item.setKey(name);
+		item.setName(name);
+		item.setStartDate(LocalDate.parse(start));
+		item.setEndDate(LocalDate.parse(end));
+		item.setDependencyKeys(List.of(dependencyKeys));
+		return item;
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.project_planner_beta.projectplanner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ScheduleJobServiceTests {
+
+	private final ProjectScheduleRunner runner = mock(ProjectScheduleRunner.class);
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void keepsOnlyTheLastFinishedJobs() throws InterruptedException {
+		ScheduleJobService service = new ScheduleJobService(runner, executor, Duration.ofHours(1), Duration.ofMinutes(1), 2);
+
+		List<ScheduleJob> jobs = new ArrayList<>();
+		for (long projectId = 1; projectId <= 3; projectId++) {
+			ScheduleJob job = service.submitProject(projectId);
+			jobs.add(job);
+			await(job::isFinished);
+		}
+		// the job is marked finished before it is counted
+		await(() -> service.jobCount() == 2);
+
+		assertThat(service.getJob(jobs.get(0).getId())).isEmpty();
+		assertThat(service.getJob(jobs.get(1).getId())).isPresent();
+		assertThat(service.getJob(jobs.get(2).getId())).isPresent();
+		assertThat(service.jobCount()).isEqualTo(2);
+	}
+
+	@Test
+	void purgeDropsExpiredJobs() throws InterruptedException {
+		ScheduleJobService service = new ScheduleJobService(runner, executor, Duration.ofMillis(1), Duration.ofMinutes(1), 100);
+		ScheduleJob job = service.submitProject(1L);
+		await(job::isFinished);
+
+		// the job is marked finished before it is kept for the purge
+		await(() -> {
+			service.purgeExpired();
+			return service.getJob(job.getId()).isEmpty();
+		});
+		assertThat(service.jobCount()).isZero();
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+			Thread.sleep(20);
+		}
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchItemDTO;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchRequestDTO;
+import com.example.project_planner_beta.projectplanner.dto.ProjectScheduleDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:planner-tests;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true"})
+class ScheduleWriteTests {
+
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private ProjectService projectService;
+	@Autowired
+	private TaskRepository taskRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void writesOnlyTheTasksThatMoved() {
+		Project project = projectService.createProject("change only", null);
+		CreateTaskBatchItemDTO b = item("b", "2025-01-04", "2025-01-05", "a");
+		// c waits three days longer than its dependency needs
+		CreateTaskBatchItemDTO c = item("c", "2025-01-09", "2025-01-10", "b");
+		List<Task> tasks = taskService.createTasks(request(project.getCode(),
+				item("a", "2025-01-01", "2025-01-03"), b, c, item("d", "2025-01-01", "2025-01-02")));
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		statistics.clear();
+		ProjectScheduleDTO schedule = taskService.generateSchedule(project.getId());
+
+		assertThat(schedule.getChangedTasks()).isEqualTo(1);
+		assertThat(schedule.getTasks()).extracting(TaskDTO::getName).containsExactly("c");
+		assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+		Task moved = taskRepository.findById(tasks.get(2).getId()).orElseThrow();
+		assertThat(moved.getStartDate()).isEqualTo("2025-01-06");
+		assertThat(moved.getVersion()).isEqualTo(tasks.get(2).getVersion() + 1);
+		for (Task task : List.of(tasks.get(0), tasks.get(1), tasks.get(3))) {
+			assertThat(taskRepository.findById(task.getId()).orElseThrow().getVersion()).isEqualTo(task.getVersion());
+		}
+
+		// a stable project is scheduled again without a single write
+		statistics.clear();
+		assertThat(taskService.generateSchedule(project.getId()).getChangedTasks()).isZero();
+		assertThat(statistics.getEntityUpdateCount()).isZero();
+	}
+
+	private static CreateTaskBatchRequestDTO request(String code, CreateTaskBatchItemDTO... items) {
+		CreateTaskBatchRequestDTO request = new CreateTaskBatchRequestDTO();
+		request.setProjectCode(code);
+		request.setTasks(List.of(items));
+		return request;
+	}
+
+	private static CreateTaskBatchItemDTO item(String name, String start, String end, String... dependencyKeys) {
+		CreateTaskBatchItemDTO item = new CreateTaskBatchItemDTO();
+		item.setKey(name);
+		item.setName(name);
+		item.setStartDate(LocalDate.parse(start));
+		item.setEndDate(LocalDate.parse(end));
+		item.setDependencyKeys(List.of(dependencyKeys));
+		return item;
+	}
+}
@@ -0,0 +1,144 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.common.BadRequestException;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchItemDTO;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchRequestDTO;
+import com.example.project_planner_beta.projectplanner.dto.DependencyLinkDTO;
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:planner-tests;DB_CLOSE_DELAY=-1")
+class TaskBatchCreateTests {
+
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private ProjectService projectService;
+	@Autowired
+	private TaskRepository taskRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void resolvesKeysInsideTheBatchAndIdsOfExistingTasks() {
+		String code = projectService.createProject("batch keys", null).getCode();
+		Task existing = taskService.createTasks(request(code, item("x", "2025-01-01", "2025-01-02"))).get(0);
+
+		CreateTaskBatchItemDTO b = item("b", "2025-01-06", "2025-01-07");
+		b.setDependencyLinks(List.of(keyLink("a", DependencyType.SS, 1)));
+		CreateTaskBatchItemDTO a = item("a", "2025-01-03", "2025-01-05");
+		a.setDependencyIds(List.of(existing.getId()));
+		// b comes before the task it depends on, keys do not need to be in order
+		List<Task> tasks = taskService.createTasks(request(code, b, a));
+
+		assertThat(tasks).extracting(Task::getName).containsExactly("b", "a");
+		assertThat(tasks).allSatisfy(task -> assertThat(task.getId()).isNotNull());
+		List<TaskEdgeDTO> edges = taskRepository.findDependencyEdgesByProjectCode(code);
+		// tasks without dependencies have a row with a null dependency
+		assertThat(edges).filteredOn(edge -> edge.getDependencyId() != null).extracting(TaskEdgeDTO::getTaskId, TaskEdgeDTO::getDependencyId, TaskEdgeDTO::getType, TaskEdgeDTO::getLag)
+				.containsExactlyInAnyOrder(
+						tuple(tasks.get(0).getId(), tasks.get(1).getId(), DependencyType.SS, 1),
+						tuple(tasks.get(1).getId(), existing.getId(), DependencyType.FS, 0));
+	}
+
+	@Test
+	void rejectsLoopInsideTheBatchAndSavesNothing() {
+		String code = projectService.createProject("batch loop", null).getCode();
+		// start-to-start links on the same dates pass the date checks, only the loop is wrong
+		CreateTaskBatchItemDTO a = item("a", "2025-01-01", "2025-01-02");
+		a.setDependencyLinks(List.of(keyLink("b", DependencyType.SS, 0)));
+		CreateTaskBatchItemDTO b = item("b", "2025-01-01", "2025-01-02");
+		b.setDependencyLinks(List.of(keyLink("a", DependencyType.SS, 0)));
+
+		assertThatThrownBy(() -> taskService.createTasks(request(code, a, b)))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessageContaining("circular dependency");
+		assertThat(taskRepository.findByProjectCode(code)).isEmpty();
+	}
+
+	@Test
+	void rejectsDependenciesOfOtherProjects() {
+		String other = projectService.createProject("batch other", null).getCode();
+		Task foreign = taskService.createTasks(request(other, item("x", "2025-01-01", "2025-01-02"))).get(0);
+		String code = projectService.createProject("batch own", null).getCode();
+		CreateTaskBatchItemDTO a = item("a", "2025-01-03", "2025-01-04");
+		a.setDependencyIds(List.of(foreign.getId()));
+
+		assertThatThrownBy(() -> taskService.createTasks(request(code, a)))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("All dependencies must belong to the same project");
+		assertThat(taskRepository.findByProjectCode(code)).isEmpty();
+	}
+
+	@Test
+	void rejectsUnknownAndDuplicateKeys() {
+		String code = projectService.createProject("batch unknown", null).getCode();
+		CreateTaskBatchItemDTO a = item("a", "2025-01-01", "2025-01-02");
+		a.setDependencyKeys(List.of("missing"));
+		assertThatThrownBy(() -> taskService.createTasks(request(code, a)))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessageContaining("Key=missing");
+
+		assertThatThrownBy(() -> taskService.createTasks(request(code, item("b", "2025-01-01", "2025-01-02"),
+				item("b", "2025-01-01", "2025-01-02"))))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("Duplicate task key b");
+	}
+
+	@Test
+	void rejectsTasksOfAProjectDeletedOnAnotherNode() {
+		String code = projectService.createProject("batch deleted", null).getCode();
+		// the project is cached by its first tasks
+		taskService.createTasks(request(code, item("x", "2025-01-01", "2025-01-02")));
+		// as deleted by another node, the cached entry is not invalidated here
+		jdbcTemplate.update("delete from task_dependencies where task_id in (select id from task where project_code = ?)", code);
+		jdbcTemplate.update("delete from task where project_code = ?", code);
+		jdbcTemplate.update("delete from project where code = ?", code);
+
+		Task task = new Task();
+		task.setName("a");
+		task.setProjectCode(code);
+		task.setStartDate(LocalDate.parse("2025-01-03"));
+		task.setEndDate(LocalDate.parse("2025-01-04"));
+		assertThatThrownBy(() -> taskService.createTask(task))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("Project with code " + code + " does not exist");
+		assertThatThrownBy(() -> taskService.createTasks(request(code, item("b", "2025-01-03", "2025-01-04"))))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("Project with code " + code + " does not exist");
+		assertThat(taskRepository.findByProjectCode(code)).isEmpty();
+	}
+
+	private static CreateTaskBatchItemDTO item(String key, String start, String end) {
+		CreateTaskBatchItemDTO item = new CreateTaskBatchItemDTO();
+		item.setKey(key);
+		item.setName(key);
+		item.setStartDate(LocalDate.parse(start));
+		item.setEndDate(LocalDate.parse(end));
+		return item;
+	}
+
+	private static DependencyLinkDTO keyLink(String key, DependencyType type, int lag) {
+		DependencyLinkDTO link = new DependencyLinkDTO(null, type, lag);
+		link.setDependencyKey(key);
+		return link;
+	}
+
+	private static CreateTaskBatchRequestDTO request(String code, CreateTaskBatchItemDTO... items) {
+		CreateTaskBatchRequestDTO request = new CreateTaskBatchRequestDTO();
+		request.setProjectCode(code);
+		request.setTasks(Arrays.asList(items));
+		return request;
+	}
+}
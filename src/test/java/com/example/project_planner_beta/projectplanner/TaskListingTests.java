@@ -0,0 +1,133 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchItemDTO;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchRequestDTO;
+import com.example.project_planner_beta.projectplanner.dto.DependencyLinkDTO;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:planner-tests;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class TaskListingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private ProjectService projectService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void filtersByStatusAndDates() throws Exception {
+		String code = projectService.createProject("listing filters", null).getCode();
+		List<Task> tasks = taskService.createTasks(request(code,
+				item("a", "2025-01-01", "2025-01-03"),
+				item("b", "2025-01-06", "2025-01-08"),
+				item("c", "2025-01-13", "2025-01-15")));
+		jdbcTemplate.update("update task set status = 'DONE' where id = ?", tasks.get(0).getId());
+		jdbcTemplate.update("update task set status = 'IN_PROGRESS' where id = ?", tasks.get(1).getId());
+
+		assertThat(names(list(code, "?status=DONE,IN_PROGRESS"))).containsExactly("a", "b");
+		// b ends on the 8th, so it is still in a range from the 8th
+		assertThat(names(list(code, "?from=2025-01-08"))).containsExactly("b", "c");
+		assertThat(names(list(code, "?status=NOT_STARTED,IN_PROGRESS&from=2025-01-04&to=2025-01-10"))).containsExactly("b");
+		mockMvc.perform(get("/api/tasks/code/" + code + "?from=2025-01-10&to=2025-01-01"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void cursorWalksEveryTaskOnceInIdOrder() throws Exception {
+		String code = projectService.createProject("listing pages", null).getCode();
+		CreateTaskBatchItemDTO[] items = new CreateTaskBatchItemDTO[7];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = item("t" + i, "2025-01-01", "2025-01-02");
+		}
+		List<Long> created = taskService.createTasks(request(code, items)).stream().map(Task::getId).toList();
+
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			MvcResult page = mockMvc.perform(get("/api/tasks/code/" + code + "?limit=3" + (cursor == null ? "" : "&after=" + cursor)))
+					.andExpect(status().isOk())
+					.andReturn();
+			List<Number> ids = JsonPath.read(page.getResponse().getContentAsString(), "$[*].id");
+			assertThat(ids).hasSizeLessThanOrEqualTo(3);
+			ids.forEach(id -> seen.add(id.longValue()));
+			cursor = page.getResponse().getHeader(TaskController.NEXT_CURSOR);
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(seen).containsExactlyElementsOf(created);
+		// a page that ends exactly on the last task has no cursor
+		mockMvc.perform(get("/api/tasks/code/" + code + "?limit=7"))
+				.andExpect(header().doesNotExist(TaskController.NEXT_CURSOR));
+	}
+
+	@Test
+	void returnsOnlyTheSelectedFields() throws Exception {
+		String code = projectService.createProject("listing fields", null).getCode();
+		CreateTaskBatchItemDTO b = item("b", "2025-01-06", "2025-01-07");
+		DependencyLinkDTO link = new DependencyLinkDTO(null, DependencyType.FS, 0);
+		link.setDependencyKey("a");
+		b.setDependencyLinks(List.of(link));
+		taskService.createTasks(request(code, item("a", "2025-01-01", "2025-01-03"), b));
+
+		// the id is always kept, so a page can be continued from any selection
+		List<Map<String, Object>> tasks = JsonPath.read(list(code, "?fields=name"), "$");
+		assertThat(tasks).hasSize(2).allSatisfy(task -> assertThat(task).containsOnlyKeys("id", "name"));
+
+		List<Map<String, Object>> withDependencies = JsonPath.read(list(code, "?limit=5&fields=name,dependencies"), "$");
+		assertThat(withDependencies).allSatisfy(task -> assertThat(task).containsOnlyKeys("id", "name", "dependencies"));
+		List<String> dependencyNames = JsonPath.read(list(code, "?fields=name,dependencies"), "$[1].dependencies[*].name");
+		assertThat(dependencyNames).containsExactly("a");
+
+		mockMvc.perform(get("/api/tasks/code/" + code + "?fields=id,secret"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private String list(String code, String query) throws Exception {
+		return mockMvc.perform(get("/api/tasks/code/" + code + query))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+	}
+
+	private static List<String> names(String json) {
+		return JsonPath.read(json, "$[*].name");
+	}
+
+	private static CreateTaskBatchRequestDTO request(String code, CreateTaskBatchItemDTO... items) {
+		CreateTaskBatchRequestDTO request = new CreateTaskBatchRequestDTO();
+		request.setProjectCode(code);
+		request.setTasks(List.of(items));
+		return request;
+	}
+
+	private static CreateTaskBatchItemDTO item(String name, String start, String end) {
+		CreateTaskBatchItemDTO item = new CreateTaskBatchItemDTO();
+		item.setKey(name);
+		item.setName(name);
+		item.setStartDate(LocalDate.parse(start));
+		item.setEndDate(LocalDate.parse(end));
+		return item;
+	}
+}
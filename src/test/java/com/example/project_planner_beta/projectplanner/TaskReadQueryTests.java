@@ -0,0 +1,83 @@
+package com.example.project_planner_beta.projectplanner;
+
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchItemDTO;
+import com.example.project_planner_beta.projectplanner.dto.CreateTaskBatchRequestDTO;
+import com.example.project_planner_beta.projectplanner.dto.DependencyLinkDTO;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:planner-tests;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+class TaskReadQueryTests {
+
+	private static final int TASKS = 50;
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private ProjectService projectService;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void listsTasksWithTheirDependenciesInTwoQueries() throws Exception {
+		Project project = projectService.createProject("two queries", null);
+		String code = project.getCode();
+		// a chain, every task but the first has a dependency to read
+		List<CreateTaskBatchItemDTO> items = new ArrayList<>();
+		for (int i = 0; i < TASKS; i++) {
+			CreateTaskBatchItemDTO item = new CreateTaskBatchItemDTO();
+			item.setKey("t" + i);
+			item.setName("t" + i);
+			item.setStartDate(LocalDate.parse("2025-01-06"));
+			item.setEndDate(LocalDate.parse("2025-01-07"));
+			if (i > 0) {
+				DependencyLinkDTO link = new DependencyLinkDTO(null, DependencyType.SS, 0);
+				link.setDependencyKey("t" + (i - 1));
+				item.setDependencyLinks(List.of(link));
+			}
+			items.add(item);
+		}
+		CreateTaskBatchRequestDTO request = new CreateTaskBatchRequestDTO();
+		request.setProjectCode(code);
+		request.setTasks(items);
+		taskService.createTasks(request);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		statistics.clear();
+		String tasks = read("/api/tasks/code/" + code);
+		assertThat(statistics.getPrepareStatementCount()).isBetween(1L, 2L);
+		assertThat(JsonPath.<List<String>>read(tasks, "$[*].name")).hasSize(TASKS);
+		assertThat(JsonPath.<List<String>>read(tasks, "$[?(@.name == 't7')].dependencies[*].name")).containsExactly("t6");
+
+		statistics.clear();
+		String details = read("/api/projects/" + project.getId());
+		assertThat(statistics.getPrepareStatementCount()).isBetween(1L, 2L);
+		assertThat(JsonPath.<List<String>>read(details, "$.tasks[*].name")).hasSize(TASKS);
+		assertThat(JsonPath.<List<String>>read(details, "$.tasks[?(@.name == 't7')].dependencies[*].name")).containsExactly("t6");
+	}
+
+	private String read(String path) throws Exception {
+		return mockMvc.perform(get(path))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+	}
+}
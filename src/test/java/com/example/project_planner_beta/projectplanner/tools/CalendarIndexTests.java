@@ -0,0 +1,66 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CalendarIndexTests {
+
+	private static final LocalDate FRIDAY = LocalDate.of(2025, 1, 3);
+
+	@Test
+	void everyDayUsesEpochDays() {
+		assertThat(CalendarIndex.EVERY_DAY.toDay(FRIDAY)).isEqualTo(FRIDAY.toEpochDay());
+		assertThat(CalendarIndex.EVERY_DAY.toDate(FRIDAY.toEpochDay())).isEqualTo(FRIDAY);
+		assertThat(CalendarIndex.EVERY_DAY.workingDays(FRIDAY, FRIDAY.plusDays(6))).isEqualTo(7);
+	}
+
+	@Test
+	void skipsWeekendsAndHolidays() {
+		CalendarIndex calendar = CalendarIndex.of(Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY),
+				List.of(LocalDate.of(2025, 1, 6)), List.of());
+
+		// friday + 1 working day skips the weekend and the holiday monday
+		assertThat(calendar.addWorkingDays(FRIDAY, 1)).isEqualTo(LocalDate.of(2025, 1, 7));
+		assertThat(calendar.workingDays(FRIDAY, LocalDate.of(2025, 1, 10))).isEqualTo(5);
+		assertThat(calendar.toDate(calendar.toDay(FRIDAY.plusDays(1)))).isEqualTo(LocalDate.of(2025, 1, 7));
+		assertThat(calendar.toDate(calendar.endDay(FRIDAY.plusDays(2)))).isEqualTo(FRIDAY);
+	}
+
+	@Test
+	void matchesDayByDayCount() {
+		Set<DayOfWeek> weekend = Set.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY);
+		List<LocalDate> holidays = List.of(LocalDate.of(1969, 12, 25), LocalDate.of(2024, 3, 4),
+				LocalDate.of(2024, 3, 5), LocalDate.of(2025, 12, 25), LocalDate.of(2025, 12, 26));
+		// 2024-03-08 is a friday worked instead of the holidays, 2025-12-26 is both and stays a holiday
+		List<LocalDate> workingDays = List.of(LocalDate.of(2024, 3, 8), LocalDate.of(2025, 12, 26),
+				LocalDate.of(2026, 1, 5));
+		CalendarIndex calendar = CalendarIndex.of(weekend, holidays, workingDays);
+
+		LocalDate first = LocalDate.of(1969, 12, 1);
+		long ordinal = calendar.toDay(first);
+		for (LocalDate day = first; day.isBefore(LocalDate.of(2027, 1, 1)); day = day.plusDays(1)) {
+			boolean working = workingDays.contains(day) && !holidays.contains(day)
+					|| !weekend.contains(day.getDayOfWeek()) && !holidays.contains(day);
+			assertThat(calendar.isWorkingDay(day)).as(day.toString()).isEqualTo(working);
+			assertThat(calendar.toDay(day)).as(day.toString()).isEqualTo(ordinal);
+			if (working) {
+				assertThat(calendar.toDate(ordinal)).isEqualTo(day);
+				ordinal++;
+			}
+		}
+		assertThat(calendar.workingDays(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))).isEqualTo(366 - 2 * 52 - 2 + 1);
+	}
+
+	@Test
+	void needsAWorkingDayInTheWeek() {
+		assertThatThrownBy(() -> CalendarIndex.of(Set.of(DayOfWeek.values()), List.of(), List.of()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import com.example.project_planner_beta.projectplanner.DependencyType;
+import com.example.project_planner_beta.projectplanner.TaskStatus;
+import com.example.project_planner_beta.projectplanner.dto.TaskEdgeDTO;
+import com.example.project_planner_beta.projectplanner.dto.TransferTaskDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProjectTransferFormatTests {
+
+	@Test
+	void csvRoundTrip() throws IOException {
+		assertThat(roundTrip(CsvProjectFormat.INSTANCE)).containsExactlyElementsOf(expected());
+	}
+
+	@Test
+	void binaryRoundTrip() throws IOException {
+		assertThat(roundTrip(BinaryProjectFormat.INSTANCE)).containsExactlyElementsOf(expected());
+	}
+
+	@Test
+	void rejectsBrokenFiles() throws IOException {
+		byte[] csv = "project,p\ntask,1,a,DONE,2025-01-01\n".getBytes(StandardCharsets.UTF_8);
+		assertThatThrownBy(() -> CsvProjectFormat.INSTANCE.read(new ByteArrayInputStream(csv), new Records()))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageStartingWith("Record 2:");
+
+		byte[] binary = write(BinaryProjectFormat.INSTANCE);
+		byte[] truncated = Arrays.copyOf(binary, binary.length - 1);
+		assertThatThrownBy(() -> BinaryProjectFormat.INSTANCE.read(new ByteArrayInputStream(truncated), new Records()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static List<String> expected() {
+		return List.of("project Plan, \"A\"",
+				"task 7 line\nbreak, \"quoted\" IN_PROGRESS 2025-01-01 2025-01-03 crane 2",
+				"task 9 b NOT_STARTED 2025-01-06 2025-01-07 null null",
+				"dependency 9 7 SS -2");
+	}
+
+	private static List<String> roundTrip(ProjectTransferFormat format) throws IOException {
+		Records records = new Records();
+		format.read(new ByteArrayInputStream(write(format)), records);
+		return records.lines;
+	}
+
+	private static byte[] write(ProjectTransferFormat format) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ProjectTransferFormat.Writer writer = format.writer(out);
+		writer.project("Plan, \"A\"");
+		writer.task(new TransferTaskDTO(7L, "line\nbreak, \"quoted\"", TaskStatus.IN_PROGRESS,
+				LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3), "crane", 2));
+		writer.task(new TransferTaskDTO(9L, "b", TaskStatus.NOT_STARTED,
+				LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 7), null, null));
+		writer.dependency(new TaskEdgeDTO(9L, 7L, DependencyType.SS, -2));
+		writer.finish();
+		return out.toByteArray();
+	}
+
+	private static class Records implements ProjectTransferFormat.Handler {
+		private final List<String> lines = new ArrayList<>();
+
+		@Override
+		public void project(String name) {
+			lines.add("project " + name);
+		}
+
+		@Override
+		public void task(TransferTaskDTO task) {
+			lines.add("task " + task.getId() + " " + task.getName() + " " + task.getStatus() + " " + task.getStartDate()
+					+ " " + task.getEndDate() + " " + task.getResourceName() + " " + task.getResourceUnits());
+		}
+
+		@Override
+		public void dependency(TaskEdgeDTO dependency) {
+			lines.add("dependency " + dependency.getTaskId() + " " + dependency.getDependencyId() + " "
+					+ dependency.getType() + " " + dependency.getLag());
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceLevelerTests {
+
+	@Test
+	void placesTheTaskWithLeastSlackFirst() {
+		// 1 -> 2 and 3 in parallel, 2 is on the longest path, everything uses one resource of capacity 1
+		DependencyGraph graph = DependencyGraph.build(
+				new long[]{1, 2, 3},
+				new long[]{2, 3},
+				new long[]{1, 1},
+				2);
+		long[] start = {0, 0, 0};
+		long[] duration = {2, 4, 1};
+		int[] resource = {0, 0, 0};
+		int[] units = {1, 1, 1};
+		long[] slack = {0, 0, 3};
+
+		ResourceLeveler.Result result = ResourceLeveler.level(graph, start, duration, resource, units, new int[]{1}, slack);
+
+		assertThat(result.start()).containsExactly(0, 2, 6);
+		assertThat(result.end()).containsExactly(1, 5, 6);
+		assertThat(result.delayed()).isEqualTo(1);
+	}
+
+	@Test
+	void levelsLargeProjectWithinCapacity() {
+		int n = 20_000;
+		Random random = new Random(7);
+		long[] ids = new long[n];
+		long[] from = new long[n];
+		long[] to = new long[n];
+		int edgeCount = 0;
+		long[] start = new long[n];
+		long[] duration = new long[n];
+		int[] resource = new int[n];
+		int[] units = new int[n];
+		int[] capacity = {3, 5, 2, 8};
+		for (int i = 0; i < n; i++) {
+			ids[i] = i + 1;
+			duration[i] = 1 + random.nextInt(5);
+			resource[i] = random.nextInt(5) - 1;
+			units[i] = resource[i] < 0 ? 0 : 1 + random.nextInt(capacity[resource[i]]);
+			if (i > 0 && random.nextInt(3) > 0) {
+				from[edgeCount] = i + 1;
+				to[edgeCount++] = Math.max(1, i - random.nextInt(200));
+			}
+		}
+		DependencyGraph graph = DependencyGraph.build(ids, from, to, edgeCount);
+		ScheduleKernel.Result plain = ScheduleKernel.schedule(graph, start, duration);
+		ScheduleAnalysis analysis = ScheduleAnalysis.of(graph, plain.start(), plain.end());
+		long[] slack = new long[n];
+		for (int i = 0; i < n; i++) {
+			slack[i] = analysis.totalFloat(i);
+		}
+
+		long began = System.nanoTime();
+		ResourceLeveler.Result result = ResourceLeveler.level(graph, start, duration, resource, units, capacity, slack);
+		long millis = (System.nanoTime() - began) / 1_000_000;
+
+		assertThat(millis).isLessThan(1000);
+		Map<Long, int[]> usage = new HashMap<>();
+		for (int i = 0; i < n; i++) {
+			for (int k = graph.dependencyStart(i); k < graph.dependencyEnd(i); k++) {
+				assertThat(result.start()[i]).isGreaterThan(result.end()[graph.dependencyAt(k)]);
+			}
+			if (resource[i] < 0) {
+				continue;
+			}
+			for (long day = result.start()[i]; day <= result.end()[i]; day++) {
+				usage.computeIfAbsent(day, d -> new int[capacity.length])[resource[i]] += units[i];
+			}
+		}
+		for (int[] used : usage.values()) {
+			for (int r = 0; r < capacity.length; r++) {
+				assertThat(used[r]).isLessThanOrEqualTo(capacity[r]);
+			}
+		}
+		assertThat(Arrays.stream(result.end()).max().getAsLong()).isGreaterThan(Arrays.stream(plain.end()).max().getAsLong());
+	}
+}
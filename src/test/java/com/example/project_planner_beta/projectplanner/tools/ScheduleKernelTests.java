@@ -0,0 +1,193 @@
+package com.example.project_planner_beta.projectplanner.tools;
+
+import com.example.project_planner_beta.projectplanner.DependencyType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScheduleKernelTests {
+
+	@Test
+	void schedulesLongChainWithoutRecursion() {
+		int n = 100_000;
+		long[] ids = new long[n];
+		long[] from = new long[n - 1];
+		long[] to = new long[n - 1];
+		for (int i = 0; i < n; i++) {
+			ids[i] = i + 1;
+			if (i > 0) {
+				from[i - 1] = i + 1;
+				to[i - 1] = i;
+			}
+		}
+		DependencyGraph graph = DependencyGraph.build(ids, from, to, n - 1);
+		long[] start = new long[n];
+		long[] duration = new long[n];
+		Arrays.fill(duration, 2);
+
+		ScheduleKernel.Result result = ScheduleKernel.schedule(graph, start, duration);
+
+		assertThat(result.start()[n - 1]).isEqualTo(2L * (n - 1));
+		assertThat(result.end()[n - 1]).isEqualTo(2L * n - 1);
+		assertThat(result.criticalPath()).hasSize(n);
+	}
+
+	@Test
+	void startsAfterLatestDependencyAndFollowsIt() {
+		// 1 -> {2, 3} -> 4, task 3 is longer than task 2
+		DependencyGraph graph = DependencyGraph.build(
+				new long[]{1, 2, 3, 4},
+				new long[]{2, 3, 4, 4},
+				new long[]{1, 1, 2, 3},
+				4);
+		long[] start = {10, 0, 0, 0};
+		long[] duration = {3, 1, 5, 2};
+
+		ScheduleKernel.Result result = ScheduleKernel.schedule(graph, start, duration);
+
+		assertThat(result.start()).containsExactly(10, 13, 13, 18);
+		assertThat(result.end()).containsExactly(12, 13, 17, 19);
+		assertThat(result.criticalPath()).containsExactly(0, 2, 3);
+		assertThat(result.order()[0]).isEqualTo(0);
+		assertThat(result.order()[3]).isEqualTo(3);
+	}
+
+	@Test
+	void holdsTaskAtItsStartConstraint() {
+		// 1 -> 2 -> 3, task 2 is held until day 20 as a leveling would leave it
+		DependencyGraph graph = DependencyGraph.build(new long[]{1, 2, 3}, new long[]{2, 3}, new long[]{1, 2}, 2);
+		long[] start = {10, 0, 0};
+		long[] duration = {3, 2, 1};
+		long[] notBefore = {ScheduleKernel.NO_CONSTRAINT, 20, ScheduleKernel.NO_CONSTRAINT};
+
+		ScheduleKernel.Result result = ScheduleKernel.schedule(graph, start, duration, notBefore);
+
+		assertThat(result.start()).containsExactly(10, 20, 22);
+
+		// the constraint holds while the dependency moves earlier, and lets go once the dependency passes it
+		ScheduleState state = ScheduleState.of(graph, result.start(), result.end(), duration.clone(), notBefore);
+		BitSet seeds = new BitSet();
+		seeds.set(0);
+		state.setTask(0, 5, 7, 3);
+		assertThat(state.propagate(seeds)).isEmpty();
+		assertThat(state.startOf(1)).isEqualTo(20);
+
+		state.setTask(0, 18, 20, 3);
+		assertThat(state.propagate(seeds)).containsExactly(1, 2);
+		assertThat(state.startOf(1)).isEqualTo(21);
+
+		// dropping the constraint seeds the task
+		assertThat(state.setTask(1, 21, 22, 2, ScheduleKernel.NO_CONSTRAINT)).isTrue();
+	}
+
+	@Test
+	void honorsDependencyTypesAndLags() {
+		// 2 SS+2 on 1, 3 FF+1 on 1, 4 SF on 1, 5 FS-2 (a lead) on 3
+		long[] ids = {1, 2, 3, 4, 5};
+		long[] from = {2, 3, 4, 5};
+		long[] to = {1, 1, 1, 3};
+		DependencyType[] types = {DependencyType.SS, DependencyType.FF, DependencyType.SF, DependencyType.FS};
+		int[] lags = {2, 1, 0, -2};
+		DependencyGraph graph = DependencyGraph.build(ids, from, to, types, lags, 4);
+		long[] start = {10, 0, 0, 0, 0};
+		long[] duration = {5, 3, 4, 3, 2};
+
+		ScheduleKernel.Result result = ScheduleKernel.schedule(graph, start, duration);
+
+		assertThat(result.start()).containsExactly(10, 12, 12, 7, 14);
+		assertThat(result.end()).containsExactly(14, 14, 15, 9, 15);
+		assertThat(result.criticalPath()).containsExactly(0, 2);
+
+		ScheduleAnalysis analysis = ScheduleAnalysis.of(graph, result.start(), result.end());
+		assertThat(analysis.lateFinish(0)).isEqualTo(14);
+		assertThat(analysis.totalFloat(0)).isZero();
+		assertThat(analysis.totalFloat(1)).isEqualTo(1);
+		assertThat(analysis.totalFloat(3)).isEqualTo(6);
+		assertThat(analysis.freeFloat(0)).isZero();
+		assertThat(analysis.freeFloat(1)).isEqualTo(1);
+
+		// a changed lag alone seeds the task
+		ScheduleState state = ScheduleState.of(graph, result.start(), result.end(), duration.clone());
+		DependencyGraph changed = DependencyGraph.build(ids, from, to, types, new int[]{4, 1, 0, -2}, 4);
+		BitSet seeds = new BitSet();
+		ScheduleState rebased = state.rebase(changed, seeds);
+		assertThat(seeds.stream().toArray()).containsExactly(1);
+		assertThat(rebased.propagate(seeds)).containsExactly(1);
+		assertThat(rebased.startOf(1)).isEqualTo(14);
+	}
+
+	@Test
+	void detectsLoopsThroughTheGraph() {
+		DependencyGraph graph = DependencyGraph.build(
+				new long[]{1, 2, 3},
+				new long[]{2, 3},
+				new long[]{1, 2},
+				2);
+
+		assertThat(graph.willLoop(1, List.of(3L))).isTrue();
+		assertThat(graph.willLoop(3, List.of(1L))).isFalse();
+		assertThat(graph.withoutTask(2).willLoop(1, List.of(3L))).isFalse();
+		// 3 -> 2 -> 1 leads back to the task
+		DependencyGraph.LoopCheck loop = graph.checkLoop(1, List.of(3L));
+		assertThat(loop.loops()).isTrue();
+		assertThat(loop.visited()).isEqualTo(3);
+		assertThat(loop.depth()).isEqualTo(3);
+	}
+
+	@Test
+	void reportsVisitedTasksAndDepthOfALoopCheck() {
+		// 4 depends on 1, 2 and 3, 5 is unrelated
+		DependencyGraph graph = DependencyGraph.build(
+				new long[]{1, 2, 3, 4, 5},
+				new long[]{4, 4, 4},
+				new long[]{1, 2, 3},
+				3);
+
+		DependencyGraph.LoopCheck check = graph.checkLoop(5, List.of(4L));
+
+		assertThat(check.loops()).isFalse();
+		assertThat(check.visited()).isEqualTo(4);
+		assertThat(check.depth()).isEqualTo(2);
+	}
+
+	@Test
+	void walksOnlyTheDownstreamCone() {
+		// 1 -> 2 -> 3, 1 -> 4, 5 is unrelated
+		DependencyGraph graph = DependencyGraph.build(
+				new long[]{1, 2, 3, 4, 5},
+				new long[]{2, 3, 4},
+				new long[]{1, 2, 1},
+				3);
+
+		assertThat(graph.downstream(0)).containsExactlyInAnyOrder(1, 2, 3);
+		assertThat(graph.downstream(1)).containsExactly(2);
+		assertThat(graph.downstream(4)).isEmpty();
+	}
+
+	@Test
+	void computesLateDatesAndFloats() {
+		// same diamond: 1 -> {2, 3} -> 4, task 2 can slip until task 3 ends
+		DependencyGraph graph = DependencyGraph.build(
+				new long[]{1, 2, 3, 4},
+				new long[]{2, 3, 4, 4},
+				new long[]{1, 1, 2, 3},
+				4);
+		ScheduleKernel.Result result = ScheduleKernel.schedule(graph, new long[]{10, 0, 0, 0}, new long[]{3, 1, 5, 2});
+
+		ScheduleAnalysis analysis = ScheduleAnalysis.of(graph, result.start(), result.end());
+
+		assertThat(analysis.projectFinish()).isEqualTo(19);
+		assertThat(analysis.lateStart(1)).isEqualTo(17);
+		assertThat(analysis.lateFinish(1)).isEqualTo(17);
+		assertThat(analysis.totalFloat(1)).isEqualTo(4);
+		assertThat(analysis.freeFloat(1)).isEqualTo(4);
+		for (int critical : new int[]{0, 2, 3}) {
+			assertThat(analysis.isCritical(critical)).isTrue();
+			assertThat(analysis.freeFloat(critical)).isZero();
+		}
+	}
+}